@@ -1,5 +1,6 @@
 package com.example;
 
+import com.model.ContentWatcher;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
@@ -9,6 +10,9 @@ public class App extends Application {
         // Initialize singleton scene manager
         SceneManager.init(primaryStage);
 
+        // hot-reload EscapeRoom.json / hints.txt edits in the background
+        ContentWatcher.startDefault();
+
         // Show the home screen (your home.fxml). If you want to start at a different place, change here.
         SceneManager.getInstance().showHome();
     }
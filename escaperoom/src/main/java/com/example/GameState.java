@@ -2,6 +2,10 @@ package com.example;
 
 import com.model.Difficulty;
 import com.model.DataLoader;
+import com.model.HintPrefetcher;
+import com.model.HintRepository;
+import com.model.PuzzleSession;
+import com.model.RoomCatalog;
 import com.model.UserList;
 
 import java.lang.reflect.Field;
@@ -10,7 +14,7 @@ import java.util.List;
 
 /**
  * Small app-wide state holder used by the JavaFX UI to share transient choices
- * (currently: chosenDifficulty) between controllers.
+ * (chosenDifficulty, the current PuzzleSession and its hint prefetcher) between controllers.
  *
  * New: persistChosenDifficultyToModel() writes the chosen difficulty into the currently
  * logged-in user's Progress (best-effort, defensive using reflection) and saves users.
@@ -21,6 +25,11 @@ public final class GameState {
     // default to ALL so backstory screens still show appropriate copy
     private com.model.Difficulty chosenDifficulty = com.model.Difficulty.ALL;
 
+    // per-run puzzle state (locks, attempts, revealed hints) over the shared catalog
+    private PuzzleSession puzzleSession;
+    // next hints prepared when a puzzle screen opens
+    private HintPrefetcher hintPrefetcher;
+
     private GameState() {}
 
     public static GameState get() {
@@ -31,8 +40,30 @@ public final class GameState {
         return chosenDifficulty;
     }
 
+    /**
+     * Sets the chosen difficulty. Choosing a difficulty starts a new run, so the
+     * puzzle session is reset as well.
+     */
     public void setChosenDifficulty(com.model.Difficulty d) {
         if (d != null) this.chosenDifficulty = d;
+        this.puzzleSession = null;
+        this.hintPrefetcher = null;
+    }
+
+    /**
+     * @return the current run's puzzle session, starting one over the shared catalog if needed
+     */
+    public synchronized PuzzleSession getPuzzleSession() {
+        if (puzzleSession == null) puzzleSession = new PuzzleSession(RoomCatalog.getInstance());
+        return puzzleSession;
+    }
+
+    /**
+     * @return the current run's hint prefetcher, starting one if needed
+     */
+    public synchronized HintPrefetcher getHintPrefetcher() {
+        if (hintPrefetcher == null) hintPrefetcher = new HintPrefetcher(HintRepository.getInstance()::hintsFor, false);
+        return hintPrefetcher;
     }
 
     /**
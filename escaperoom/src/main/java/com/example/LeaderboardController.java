@@ -7,16 +7,10 @@ import javafx.scene.control.Label;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import com.model.LeaderboardEntry;
+import com.model.LeaderboardService;
 
-import java.io.FileReader;
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.*;
+import java.util.List;
 
 /**
  * Controller for leaderboard.fxml
@@ -27,39 +21,32 @@ public class LeaderboardController {
     @FXML private Button backBtn;
     @FXML private Label titleLabel;
 
-    private static final String LEADERBOARD_PATH = System.getProperty("user.dir") + "/JSON/leaderboard.json";
-
     @FXML
     public void initialize() {
-        loadAndPopulate();
+        loadAndPopulate(LeaderboardService.Window.ALL_TIME);
     }
 
-    private void loadAndPopulate() {
-        JSONArray arr = readLeaderboardArray();
-        List<JSONObject> list = new ArrayList<>();
-        if (arr != null) {
-            for (Object o : arr) if (o instanceof JSONObject) list.add((JSONObject) o);
+    @FXML private void onAllTime() { loadAndPopulate(LeaderboardService.Window.ALL_TIME); }
+    @FXML private void onWeekly() { loadAndPopulate(LeaderboardService.Window.WEEKLY); }
+    @FXML private void onDaily() { loadAndPopulate(LeaderboardService.Window.DAILY); }
+
+    private void loadAndPopulate(LeaderboardService.Window window) {
+        // each window is kept ranked (score desc, time asc): no re-read or sort on open
+        LeaderboardService board = LeaderboardService.getInstance();
+        List<LeaderboardEntry> list = board.top(window, null, board.size(window, null));
+        if (titleLabel != null) {
+            titleLabel.setText(switch (window) {
+                case DAILY -> "Leaderboard — Today";
+                case WEEKLY -> "Leaderboard — This Week";
+                case ALL_TIME -> "Leaderboard";
+            });
         }
 
-        // Sort: score desc, time asc
-        list.sort((a, b) -> {
-            long scoreA = ((Number) a.getOrDefault("score", 0)).longValue();
-            long scoreB = ((Number) b.getOrDefault("score", 0)).longValue();
-            if (scoreA != scoreB) return Long.compare(scoreB, scoreA);
-            long timeA = ((Number) a.getOrDefault("timeSpent", Long.MAX_VALUE)).longValue();
-            long timeB = ((Number) b.getOrDefault("timeSpent", Long.MAX_VALUE)).longValue();
-            return Long.compare(timeA, timeB);
-        });
-
         ObservableList<String> rows = FXCollections.observableArrayList();
         int rank = 1;
-        for (JSONObject e : list) {
-            String user = String.valueOf(e.getOrDefault("username", "unknown"));
-            long score = ((Number) e.getOrDefault("score", 0)).longValue();
-            String diff = String.valueOf(e.getOrDefault("difficulty", "all")).toUpperCase();
-            long timeSpent = ((Number) e.getOrDefault("timeSpent", 0)).longValue();
-            String timeStr = formatSeconds(timeSpent);
-            String row = String.format("%d. %s — %d pts [%s] (%s)", rank++, user, score, diff, timeStr);
+        for (LeaderboardEntry e : list) {
+            String timeStr = formatSeconds(e.getTimeSpent());
+            String row = String.format("%d. %s — %d pts [%s] (%s)", rank++, e.getUsername(), e.getScore(), e.getDifficulty().toUpperCase(), timeStr);
             rows.add(row);
         }
 
@@ -72,20 +59,6 @@ public class LeaderboardController {
         entriesList.setFocusTraversable(false);
     }
 
-    private JSONArray readLeaderboardArray() {
-        JSONParser parser = new JSONParser();
-        File f = new File(LEADERBOARD_PATH);
-        if (!f.exists()) return new JSONArray();
-        try (FileReader fr = new FileReader(f)) {
-            Object obj = parser.parse(fr);
-            if (obj instanceof JSONArray) return (JSONArray) obj;
-            return new JSONArray();
-        } catch (IOException | ParseException ex) {
-            System.err.println("Failed to read leaderboard.json: " + ex.getMessage());
-            return new JSONArray();
-        }
-    }
-
     private static String formatSeconds(long seconds) {
         if (seconds < 0) seconds = 0;
         long mins = seconds / 60;
@@ -1,7 +1,13 @@
 package com.example;
 
 import com.model.DataLoader;
-import com.model.RoomLoader;
+import com.model.Difficulty;
+import com.model.EscapeRoom;
+import com.model.HintRepository;
+import com.model.Puzzle;
+import com.model.PuzzleIndex;
+import com.model.PuzzleSession;
+import com.model.RoomCatalog;
 import com.model.UserList;
 import com.model.User;
 
@@ -13,15 +19,11 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Robust PuzzleController that avoids hard compile-time assumptions about model method names.
@@ -41,8 +43,6 @@ public class PuzzleController implements Initializable {
     // selectedPuzzle kept as Object to avoid compile-time dependency on com.model.Puzzle
     private Object selectedPuzzle;
 
-    // parsed hints from hints.txt: id -> ordered hints
-    private final Map<Integer, List<String>> hints = new HashMap<>();
 
     // penalty map (seconds)
     private static final Map<String, Integer> HINT_PENALTY_SCALED = new HashMap<>();
@@ -79,8 +79,6 @@ public class PuzzleController implements Initializable {
         submitButton.setOnAction(e -> {
             try { onSubmit(); } catch (Throwable t) { t.printStackTrace(); }
         });
-
-        loadHintsFromResources();
     }
 
     /**
@@ -95,47 +93,10 @@ public class PuzzleController implements Initializable {
             loadBackgroundForHotspot();
             pickPuzzleForThisHotspot();
             renderPuzzle();
+            prefetchNextHint();
         });
     }
 
-    private void loadHintsFromResources() {
-        String[] candidatePaths = new String[] {
-                "/JSON/hints.txt",
-                "/hints.txt",
-                "/com/model/hints.txt",
-                "/com/example/hints.txt"
-        };
-        boolean found = false;
-        for (String p : candidatePaths) {
-            try (InputStream is = getClass().getResourceAsStream(p)) {
-                if (is == null) continue;
-                try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        line = line.trim();
-                        if (line.isEmpty()) continue;
-                        String[] parts = line.split("\\|", 2);
-                        if (parts.length < 2) continue;
-                        int idx;
-                        try { idx = Integer.parseInt(parts[0].trim()); } catch (NumberFormatException ex) { continue; }
-                        String[] hintParts = parts[1].split(",");
-                        List<String> list = Arrays.stream(hintParts)
-                                .map(String::trim)
-                                .filter(s -> !s.isEmpty())
-                                .collect(Collectors.toList());
-                        if (!list.isEmpty()) hints.put(idx, list);
-                    }
-                }
-                System.out.println("PuzzleController: loaded hints from " + p + " (entries=" + hints.size() + ")");
-                found = true;
-                break;
-            } catch (Exception ex) {
-                // try next
-            }
-        }
-        if (!found) System.out.println("PuzzleController: NO hints.txt found.");
-    }
-
     private void loadBackgroundForHotspot() {
         String filename;
         if ("WitchesDen".equals(roomId) || "Witches Den".equalsIgnoreCase(roomId) || "WitchesDen Screen".equalsIgnoreCase(roomId)) {
@@ -178,44 +139,21 @@ public class PuzzleController implements Initializable {
         String chosenDiff = "easy";
 
         try {
-            RoomLoader rl = new RoomLoader();
-            List<?> rooms = rl.loadRooms("JSON/EscapeRoom.json");
-            if (rooms == null || rooms.isEmpty()) {
+            // a new hotspot is the next puzzle: move the run onto any hot-reloaded content
+            PuzzleSession session = GameState.get().getPuzzleSession();
+            session.refresh();
+            RoomCatalog catalog = session.getCatalog();
+            PuzzleIndex index = catalog.getIndex();
+            List<EscapeRoom> rooms = catalog.getRooms();
+            if (rooms.isEmpty()) {
                 System.err.println("pickPuzzleForThisHotspot: no rooms loaded");
                 return;
             }
 
-            // find the room by name (flexible matching)
-            Object foundRoom = null;
-            String rid = (roomId == null) ? "" : roomId.replaceAll("\\s", "").toLowerCase();
-            for (Object r : rooms) {
-                try {
-                    Method getName = r.getClass().getMethod("getName");
-                    Object nameObj = getName.invoke(r);
-                    if (nameObj != null) {
-                        String nm = nameObj.toString();
-                        String key = nm.replaceAll("\\s","").toLowerCase();
-                        if (key.contains(rid) || rid.contains(key) || nm.equalsIgnoreCase(roomId)) { foundRoom = r; break; }
-                    }
-                } catch (NoSuchMethodException ignore) {}
-            }
+            // find the room by its normalized name / screen id
+            EscapeRoom foundRoom = index.room(roomId);
             if (foundRoom == null) foundRoom = rooms.get(0);
 
-            // get puzzles list reflectively
-            Object puzzlesObj = null;
-            try {
-                Method getPuzzles = foundRoom.getClass().getMethod("getPuzzles");
-                puzzlesObj = getPuzzles.invoke(foundRoom);
-            } catch (NoSuchMethodException nm) {
-                System.err.println("pickPuzzleForThisHotspot: foundRoom.getPuzzles() not found");
-            }
-            if (!(puzzlesObj instanceof List)) {
-                System.err.println("pickPuzzleForThisHotspot: room.getPuzzles() not a List");
-                return;
-            }
-            @SuppressWarnings("unchecked")
-            List<Object> puzzles = (List<Object>) puzzlesObj;
-
             // determine player's chosen difficulty via UserList -> currentUser -> progress safely
             try {
                 UserList ul = UserList.getInstance();
@@ -243,24 +181,16 @@ public class PuzzleController implements Initializable {
                 // keep default chosenDiff
             }
 
-            // **Make a final copy for lambda capture**
-            final String chosen = (chosenDiff == null) ? "easy" : chosenDiff;
+            String chosen = (chosenDiff == null) ? "easy" : chosenDiff;
 
             System.out.println("PuzzleController: chosen difficulty = " + chosen);
 
-            // filter puzzles by difficulty (safe reflection), use final 'chosen' inside lambda
-            List<Object> candidates = puzzles.stream().filter(p -> {
-                try {
-                    Object d = tryInvokeNoArg(p, "getDifficulty");
-                    if (d == null) return "easy".equals(chosen);
-                    String pd = d.toString().toLowerCase();
-                    return pd.equals(chosen);
-                } catch (Throwable t) {
-                    return true;
-                }
-            }).collect(Collectors.toList());
-
-            if (candidates.isEmpty()) candidates = puzzles;
+            List<Puzzle> candidates = index.byRoomAndDifficulty(foundRoom, Difficulty.fromString(chosen));
+            if (candidates.isEmpty()) candidates = foundRoom.getPuzzles();
+            if (candidates.isEmpty()) {
+                System.err.println("pickPuzzleForThisHotspot: room has no puzzles");
+                return;
+            }
 
             int pick = (hotspotIndex <= 0) ? 0 : Math.min(hotspotIndex, Math.max(0, candidates.size() - 1));
             selectedPuzzle = candidates.get(Math.min(pick, candidates.size()-1));
@@ -342,25 +272,22 @@ public class PuzzleController implements Initializable {
     }
 
     /**
-     * Handle hint button. Uses hints map and updates Progress safely.
+     * Starts preparing the hint the player would get next for the puzzle just opened, so
+     * the hint button is answered from the session's {@link com.model.HintPrefetcher}.
      */
-    private void onHintRequested() {
-        if (selectedPuzzle == null) {
-            new Alert(Alert.AlertType.INFORMATION, "No puzzle selected.").showAndWait();
-            return;
-        }
-        Integer pid = safeGetId(selectedPuzzle);
-        if (pid == null) {
-            new Alert(Alert.AlertType.INFORMATION, "No hints available for this item.").showAndWait();
-            return;
-        }
-        List<String> local = hints.get(pid);
+    private void prefetchNextHint() {
+        Integer pid = selectedPuzzle == null ? null : safeGetId(selectedPuzzle);
         Object prog = getCurrentProgressReflective();
-        if (prog == null) {
-            new Alert(Alert.AlertType.ERROR, "No user progress found.").showAndWait();
-            return;
-        }
+        if (pid == null || prog == null) return;
+        int total = HintRepository.getInstance().count(pid);
+        if (total == 0) return;
+        GameState.get().getHintPrefetcher().prefetch(pid, hintsUsedFor(prog, pid) % total);
+    }
 
+    /**
+     * Hints already used on a puzzle: Progress.getHintsUsedFor(int), else the getHintsUsed() map.
+     */
+    private int hintsUsedFor(Object prog, int pid) {
         int used = 0;
         try {
             Method m = prog.getClass().getMethod("getHintsUsedFor", int.class);
@@ -380,22 +307,37 @@ public class PuzzleController implements Initializable {
                 }
             } catch (Throwable ignore2) {}
         }
+        return used;
+    }
 
-        String nextHint = null;
-        int displayIndex = 0;
-        int totalHints = 0;
-
-        // NEW: loop through local hints by modulo instead of stopping when used >= size
-        if (local != null && !local.isEmpty()) {
-            totalHints = local.size();
-            // pick hint by wrapping around
-            int idx = (totalHints == 0) ? 0 : (used % totalHints);
-            nextHint = local.get(idx);
-            displayIndex = idx + 1; // human 1-based
+    /**
+     * Handle hint button. Serves the prefetched hint and updates Progress safely.
+     */
+    private void onHintRequested() {
+        if (selectedPuzzle == null) {
+            new Alert(Alert.AlertType.INFORMATION, "No puzzle selected.").showAndWait();
+            return;
+        }
+        Integer pid = safeGetId(selectedPuzzle);
+        if (pid == null) {
+            new Alert(Alert.AlertType.INFORMATION, "No hints available for this item.").showAndWait();
+            return;
         }
+        Object prog = getCurrentProgressReflective();
+        if (prog == null) {
+            new Alert(Alert.AlertType.ERROR, "No user progress found.").showAndWait();
+            return;
+        }
+
+        // hints cycle: after the last one the player starts again from the first
+        int used = hintsUsedFor(prog, pid);
+        int totalHints = HintRepository.getInstance().count(pid);
+        int idx = totalHints == 0 ? 0 : used % totalHints;
+        String nextHint = GameState.get().getHintPrefetcher().take(pid, idx).getText();
+        int displayIndex = idx + 1; // human 1-based
 
         if (nextHint == null) {
-            // No local hints available — fall back to "no hints" message
+            // No hints available — fall back to "no hints" message
             new Alert(Alert.AlertType.INFORMATION, "No hints available.").showAndWait();
             return;
         }
@@ -430,6 +372,7 @@ public class PuzzleController implements Initializable {
                 }
             } catch (Throwable ignore) {}
         }
+        prefetchNextHint();
 
         // apply time penalty
         String pd = "easy";
@@ -493,9 +436,14 @@ public class PuzzleController implements Initializable {
         boolean correct = false;
 
         try {
-            Method check = selectedPuzzle.getClass().getMethod("checkAnswer", String.class);
-            Object r = check.invoke(selectedPuzzle, userAnswer);
-            if (r instanceof Boolean) correct = (Boolean) r;
+            if (selectedPuzzle instanceof Puzzle) {
+                // catalog puzzles are shared definitions; play state lives in the run's session
+                correct = GameState.get().getPuzzleSession().attempt((Puzzle) selectedPuzzle, userAnswer);
+            } else {
+                Method check = selectedPuzzle.getClass().getMethod("checkAnswer", String.class);
+                Object r = check.invoke(selectedPuzzle, userAnswer);
+                if (r instanceof Boolean) correct = (Boolean) r;
+            }
         } catch (Throwable ignored) {
             String canonical = null;
             String[] candidateNames = new String[] {"getAnswer", "getCorrectAnswer", "getSolution", "answer", "correctAnswer", "solution"};
@@ -547,6 +495,7 @@ public class PuzzleController implements Initializable {
                     Method inc = prog.getClass().getMethod("increaseScore", int.class);
                     inc.invoke(prog, pts);
                 } catch (Throwable ignored) {}
+                tryInvokeNoArg(prog, "markActive");
 
                 try {
                     UserList ul = UserList.getInstance();
@@ -0,0 +1,205 @@
+package com.model;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The accepted answers of a text puzzle, normalized once when the puzzle is built.
+ *
+ * {@link #normalize(String)} folds case, drops punctuation (so "spoo-key" and "spookey"
+ * agree), collapses runs of whitespace and strips a leading "a", "an" or "the". The
+ * canonical forms of the answer and its aliases go in an open-addressed table keyed by
+ * their hash, so checking a submission is one normalization plus one lookup. A
+ * submission is normalized into a per-thread buffer and looked up by its characters, so
+ * a check allocates nothing once that buffer has grown to the longest input seen.
+ *
+ * With {@link FuzzyMatch} switched on, a submission that misses the set is compared
+ * against the forms whose length is close enough to be within k edits; the forms are
+ * bucketed by length so the others are never looked at. Each form also keeps a bit mask
+ * of the characters it contains: every character one side has and the other lacks costs
+ * at least one edit, so most candidates are ruled out before the distance check runs.
+ */
+public final class AnswerKey {
+    private static final String[] ARTICLES = { "a ", "an ", "the " };
+    private static final AnswerKey NONE = new AnswerKey(Collections.emptySet());
+
+    private final Set<String> accepted;
+    private final String[] table;      // open addressing, power-of-two size, null = empty
+    private final int[] tableHashes;   // String.hashCode() of each slot's form
+    private final String[][] byLength; // forms grouped by length, for fuzzy matching
+    private final long[][] masks;      // charMask of each form in byLength
+
+    private AnswerKey(Set<String> accepted) {
+        this.accepted = accepted;
+        int size = Integer.highestOneBit(Math.max(1, accepted.size()) * 2 - 1) << 1;
+        table = new String[size];
+        tableHashes = new int[size];
+        for (String f : accepted) {
+            int h = f.hashCode(), i = h & (size - 1);
+            while (table[i] != null) i = (i + 1) & (size - 1);
+            table[i] = f;
+            tableHashes[i] = h;
+        }
+        int max = 0;
+        for (String f : accepted) max = Math.max(max, f.length());
+        int[] counts = new int[max + 1];
+        for (String f : accepted) counts[f.length()]++;
+        byLength = new String[max + 1][];
+        for (int len = 0; len <= max; len++) byLength[len] = new String[counts[len]];
+        for (String f : accepted) byLength[f.length()][--counts[f.length()]] = f;
+        masks = new long[max + 1][];
+        for (int len = 0; len <= max; len++) {
+            masks[len] = new long[byLength[len].length];
+            for (int i = 0; i < masks[len].length; i++) masks[len][i] = charMask(byLength[len][i]);
+        }
+    }
+
+    /** One bit per letter, digit or (folded) other character present in s. */
+    static long charMask(CharSequence s) {
+        long m = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int bit = c >= 'a' && c <= 'z' ? c - 'a' : c >= '0' && c <= '9' ? 26 + c - '0' : 36 + c % 28;
+            m |= 1L << bit;
+        }
+        return m;
+    }
+
+    /**
+     * @param answer  the main answer (may be null)
+     * @param aliases other accepted answers (may be null)
+     * @return the key; answers that normalize to nothing are left out
+     */
+    public static AnswerKey of(String answer, List<String> aliases) {
+        Set<String> forms = new HashSet<>();
+        add(forms, answer);
+        if (aliases != null) for (String a : aliases) add(forms, a);
+        return forms.isEmpty() ? NONE : new AnswerKey(Collections.unmodifiableSet(forms));
+    }
+
+    private static void add(Set<String> forms, String answer) {
+        String n = normalize(answer);
+        if (!n.isEmpty()) forms.add(n);
+    }
+
+    /**
+     * @param userAnswer the player's input
+     * @return true if it normalizes to one of the accepted forms
+     */
+    public boolean matches(String userAnswer) {
+        if (accepted.isEmpty()) return false;
+        Normalized n = SCRATCH.get().of(userAnswer);
+        return n.length() > 0 && contains(n);
+    }
+
+    private boolean contains(Normalized n) {
+        int h = n.hash(), mask = table.length - 1;
+        for (int i = h & mask; table[i] != null; i = (i + 1) & mask) {
+            if (tableHashes[i] == h && n.contentEquals(table[i])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param userAnswer the player's input
+     * @param maxEdits   typo allowance k (see {@link FuzzyMatch}); 0 for exact matching
+     * @return true if it normalizes to an accepted form, or to within k edits of one
+     */
+    public boolean matches(String userAnswer, int maxEdits) {
+        if (accepted.isEmpty()) return false;
+        Normalized n = SCRATCH.get().of(userAnswer);
+        if (n.length() == 0) return false;
+        if (contains(n)) return true;
+        if (maxEdits <= 0) return false;
+        long mask = charMask(n);
+        int from = Math.max(1, n.length() - maxEdits), to = Math.min(byLength.length - 1, n.length() + maxEdits);
+        for (int len = from; len <= to; len++) {
+            int k = FuzzyMatch.allowance(maxEdits, len);
+            if (Math.abs(len - n.length()) > k) continue;
+            String[] forms = byLength[len];
+            long[] formMasks = masks[len];
+            for (int i = 0; i < forms.length; i++) {
+                long f = formMasks[i];
+                if (Long.bitCount(mask & ~f) > k || Long.bitCount(f & ~mask) > k) continue;
+                if (FuzzyMatch.within(n, forms[i], k)) return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return the canonical forms of every accepted answer (unmodifiable) */
+    public Set<String> forms() { return accepted; }
+
+    /**
+     * Canonical form of an answer: lower case, letters and digits only, single spaces
+     * between words, no leading article. An answer that is nothing but an article
+     * ("The") keeps it.
+     *
+     * @param s the text
+     * @return the canonical form, or "" for null or blank text
+     */
+    public static String normalize(String s) {
+        return new Normalized().of(s).toString();
+    }
+
+    private static final ThreadLocal<Normalized> SCRATCH = ThreadLocal.withInitial(Normalized::new);
+
+    /**
+     * The canonical form of one input, held in a reusable buffer. The view is only valid
+     * until the next {@link #of} on the same instance.
+     */
+    private static final class Normalized implements CharSequence {
+        private char[] buf = new char[32];
+        private int start, end;
+
+        Normalized of(String s) {
+            start = end = 0;
+            if (s == null) return this;
+            if (buf.length < s.length()) buf = new char[s.length() + 32];
+            boolean space = false;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (java.lang.Character.isLetterOrDigit(c)) {
+                    if (space && end > 0) buf[end++] = ' ';
+                    buf[end++] = java.lang.Character.toLowerCase(c);
+                    space = false;
+                } else if (java.lang.Character.isWhitespace(c)) {
+                    space = true;
+                }
+                // other punctuation is dropped without splitting the word
+            }
+            for (String article : ARTICLES) {
+                if (end > article.length() && startsWith(article)) {
+                    start = article.length();
+                    break;
+                }
+            }
+            return this;
+        }
+
+        private boolean startsWith(String prefix) {
+            for (int i = 0; i < prefix.length(); i++) if (buf[i] != prefix.charAt(i)) return false;
+            return true;
+        }
+
+        boolean contentEquals(String s) {
+            if (s.length() != length()) return false;
+            for (int i = 0; i < s.length(); i++) if (buf[start + i] != s.charAt(i)) return false;
+            return true;
+        }
+
+        /** @return the same value as {@link String#hashCode()} of the canonical form */
+        int hash() {
+            int h = 0;
+            for (int i = start; i < end; i++) h = 31 * h + buf[i];
+            return h;
+        }
+
+        @Override public int length() { return end - start; }
+        @Override public char charAt(int index) { return buf[start + index]; }
+        @Override public CharSequence subSequence(int from, int to) { return toString().subSequence(from, to); }
+        @Override public String toString() { return new String(buf, start, end - start); }
+    }
+}
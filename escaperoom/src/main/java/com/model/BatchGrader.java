@@ -0,0 +1,253 @@
+package com.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grades large batches of (puzzle id, answer) pairs against a shared {@link RoomCatalog},
+ * for bots, replays, load runs and content QA.
+ *
+ * The batch is split into ranges on a fork-join pool; each answer is checked with
+ * {@link Puzzle#matches(String)}, the pure check that ignores locks and attempt limits and
+ * never records anything on the puzzle, so catalog puzzles (and door attempt counters) are
+ * left exactly as they were. Play rules that depend on a player's history belong in a
+ * {@link PuzzleSession}.
+ *
+ * Usage:
+ *   BatchGrader selfcheck [rooms.json]          grade every stored answer against its own puzzle
+ *   BatchGrader bench [submissions] [puzzles]   load simulation on a generated catalog
+ */
+public final class BatchGrader {
+    /** Outcome codes in {@link Result#outcome(int)}. */
+    public static final byte WRONG = 0, CORRECT = 1, UNKNOWN_PUZZLE = 2;
+
+    /** Submissions per fork-join leaf. */
+    private static final int LEAF = 4096;
+
+    private final RoomCatalog catalog;
+    private final ForkJoinPool pool;
+
+    /**
+     * Grades on the common fork-join pool.
+     *
+     * @param catalog the puzzles to grade against
+     */
+    public BatchGrader(RoomCatalog catalog) {
+        this(catalog, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param catalog the puzzles to grade against
+     * @param pool    the pool to grade on
+     */
+    public BatchGrader(RoomCatalog catalog, ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.pool = pool;
+    }
+
+    /**
+     * Outcome of one batch: a code per submission plus totals and timing.
+     */
+    public static final class Result {
+        private final byte[] outcomes;
+        private final int correct;
+        private final int unknown;
+        private final long elapsedNanos;
+
+        Result(byte[] outcomes, long elapsedNanos) {
+            this.outcomes = outcomes;
+            this.elapsedNanos = elapsedNanos;
+            int c = 0, u = 0;
+            for (byte b : outcomes) {
+                if (b == CORRECT) c++;
+                else if (b == UNKNOWN_PUZZLE) u++;
+            }
+            correct = c;
+            unknown = u;
+        }
+
+        /** @return {@link #CORRECT}, {@link #WRONG} or {@link #UNKNOWN_PUZZLE} for submission i */
+        public byte outcome(int i) { return outcomes[i]; }
+
+        /** @return true if submission i was correct */
+        public boolean isCorrect(int i) { return outcomes[i] == CORRECT; }
+
+        public int size() { return outcomes.length; }
+        public int getCorrect() { return correct; }
+        public int getUnknown() { return unknown; }
+        public int getWrong() { return outcomes.length - correct - unknown; }
+        public long getElapsedMillis() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos); }
+
+        /** @return submissions graded per second */
+        public double getAnswersPerSecond() {
+            return elapsedNanos == 0 ? 0 : outcomes.length * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("graded=%d correct=%d wrong=%d unknown=%d in %d ms (%.0f answers/s)",
+                    size(), correct, getWrong(), unknown, getElapsedMillis(), getAnswersPerSecond());
+        }
+    }
+
+    /**
+     * Grades submission i as ({@code puzzleIds[i]}, {@code answers[i]}).
+     *
+     * @param puzzleIds external puzzle ids
+     * @param answers   answers, same length as puzzleIds
+     * @return per-submission outcomes and timing
+     */
+    public Result grade(int[] puzzleIds, String[] answers) {
+        if (puzzleIds.length != answers.length) {
+            throw new IllegalArgumentException(puzzleIds.length + " puzzle ids but " + answers.length + " answers");
+        }
+        byte[] out = new byte[puzzleIds.length];
+        long t0 = System.nanoTime();
+        if (out.length <= LEAF) gradeRange(catalog.getIndex(), puzzleIds, answers, out, 0, out.length);
+        else pool.invoke(new GradeTask(catalog.getIndex(), puzzleIds, answers, out, 0, out.length));
+        return new Result(out, System.nanoTime() - t0);
+    }
+
+    private static final class GradeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PuzzleIndex index;
+        private final int[] ids;
+        private final String[] answers;
+        private final byte[] out;
+        private final int from, to;
+
+        GradeTask(PuzzleIndex index, int[] ids, String[] answers, byte[] out, int from, int to) {
+            this.index = index;
+            this.ids = ids;
+            this.answers = answers;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF) {
+                gradeRange(index, ids, answers, out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GradeTask(index, ids, answers, out, from, mid),
+                      new GradeTask(index, ids, answers, out, mid, to));
+        }
+    }
+
+    private static void gradeRange(PuzzleIndex index, int[] ids, String[] answers, byte[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Puzzle p = index.byId(ids[i]);
+            if (p == null) {
+                out[i] = UNKNOWN_PUZZLE;
+                continue;
+            }
+            boolean ok;
+            try {
+                ok = p.matches(answers[i]);
+            } catch (RuntimeException e) {
+                ok = false;
+            }
+            out[i] = ok ? CORRECT : WRONG;
+        }
+    }
+
+    /**
+     * Content QA: grades every stored answer (and alias) of every puzzle against the
+     * puzzle's own checker.
+     *
+     * @return one message per stored answer that its puzzle rejects
+     */
+    public List<String> selfCheck() {
+        List<Integer> ids = new ArrayList<>();
+        List<String> answers = new ArrayList<>();
+        for (Puzzle p : catalog.getPuzzles()) {
+            for (String a : storedAnswers(p)) {
+                ids.add(p.getId());
+                answers.add(a);
+            }
+        }
+        int[] idArr = new int[ids.size()];
+        for (int i = 0; i < idArr.length; i++) idArr[i] = ids.get(i);
+        Result r = grade(idArr, answers.toArray(new String[0]));
+
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < r.size(); i++) {
+            if (!r.isCorrect(i)) problems.add("puzzle " + idArr[i] + " rejects its stored answer '" + answers.get(i) + "'");
+        }
+        return problems;
+    }
+
+    /**
+     * @param p a puzzle
+     * @return the answers its definition says are correct (empty if it has none)
+     */
+    static List<String> storedAnswers(Puzzle p) {
+        List<String> out = new ArrayList<>();
+        if (p instanceof MathPuzzle) {
+            out.add(Integer.toString(((MathPuzzle) p).getAnswer()));
+        } else if (p instanceof DoorPuzzle) {
+            out.add(Integer.toString(((DoorPuzzle) p).getCorrectDoor()));
+        } else if (p instanceof RiddlePuzzle) {
+            RiddlePuzzle r = (RiddlePuzzle) p;
+            if (r.getAnswer() != null) out.add(r.getAnswer());
+            out.addAll(r.getAliases());
+        } else if (p instanceof TriviaPuzzle) {
+            TriviaPuzzle t = (TriviaPuzzle) p;
+            if (t.getAnswer() != null) out.add(t.getAnswer());
+            out.addAll(t.getAliases());
+        }
+        return out;
+    }
+
+    /** Command-line entry point; see the class comment for arguments. */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 1 && args[0].equals("selfcheck")) {
+            RoomCatalog catalog = RoomCatalog.load(args.length > 1 ? args[1] : RoomCatalog.DEFAULT_PATH);
+            List<String> problems = new BatchGrader(catalog).selfCheck();
+            for (String p : problems) System.err.println(p);
+            System.out.println(catalog.getPuzzles().size() + " puzzles checked, " + problems.size() + " problems");
+            if (!problems.isEmpty()) System.exit(1);
+        } else if (args.length >= 1 && args[0].equals("bench")) {
+            bench(args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000, args.length > 2 ? Integer.parseInt(args[2]) : 10_000);
+        } else {
+            System.err.println("usage: BatchGrader selfcheck [rooms.json] | bench [submissions] [puzzles]");
+        }
+    }
+
+    private static void bench(int submissions, int puzzleCount) {
+        PuzzleGenerator gen = new PuzzleGenerator(11);
+        List<Puzzle> puzzles = new ArrayList<>(puzzleCount);
+        for (int i = 0; i < puzzleCount; i++) puzzles.add(gen.generate(i));
+        RoomCatalog catalog = new RoomCatalog("generated", new ArrayList<>(Arrays.asList(
+                new EscapeRoom("Generated", "bench", 1, puzzles))), HintIndex.empty(), null, null);
+
+        Random rnd = new Random(5);
+        int[] ids = new int[submissions];
+        String[] answers = new String[submissions];
+        for (int i = 0; i < submissions; i++) {
+            Puzzle p = catalog.getPuzzles().get(rnd.nextInt(puzzleCount));
+            ids[i] = p.getId();
+            List<String> stored = storedAnswers(p);
+            answers[i] = rnd.nextBoolean() && !stored.isEmpty() ? stored.get(0) : "wrong";
+        }
+
+        BatchGrader serial = new BatchGrader(catalog, new ForkJoinPool(1));
+        BatchGrader parallel = new BatchGrader(catalog);
+        for (int warm = 0; warm < 3; warm++) {
+            serial.grade(ids, answers);
+            parallel.grade(ids, answers);
+        }
+        System.out.println("1 thread:  " + serial.grade(ids, answers));
+        System.out.println(ForkJoinPool.commonPool().getParallelism() + " threads: " + parallel.grade(ids, answers));
+    }
+}
@@ -0,0 +1,64 @@
+package com.model;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Field handling shared by the files behind {@link LeaderboardService} and
+ * {@link RunHistory}: board keys for difficulties, lenient numbers, and JSON-lines reading.
+ */
+final class BoardJson {
+
+    private BoardJson() { }
+
+    /** @return the board key for a difficulty: lower case, or "all" for null */
+    static String board(String difficulty) {
+        return difficulty == null ? "all" : difficulty.toLowerCase();
+    }
+
+    /** @return the board key of a record's "difficulty" field */
+    static String difficultyOf(JSONObject j) {
+        Object d = j.get("difficulty");
+        return board(d == null ? null : d.toString());
+    }
+
+    /** @return a JSON number or numeric string as a long, 0 if missing or not a number */
+    static long number(Object v) {
+        if (v instanceof Number) return ((Number) v).longValue();
+        try { return v == null ? 0 : Long.parseLong(v.toString().trim()); }
+        catch (NumberFormatException e) { return 0; }
+    }
+
+    /**
+     * Parses a file of one JSON value per line. Blank lines are skipped, and so is a line
+     * that doesn't parse: one cut short by a crash, after which later lines are still good.
+     *
+     * @param file   the file
+     * @param action called with each parsed value, in file order
+     * @throws IOException if the file cannot be read
+     */
+    static void forEachLine(Path file, Consumer<Object> action) throws IOException {
+        JSONParser parser = new JSONParser();
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Object value;
+                try {
+                    value = parser.parse(line);
+                } catch (ParseException ex) {
+                    continue;
+                }
+                action.accept(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.model;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read side of the compiled content bundle written by {@link ContentBundleCompiler}.
+ *
+ * The bundle is the room catalog and hints already parsed, validated and laid out as
+ * flat tables, so loading it is a handful of buffer reads instead of JSON parsing:
+ *
+ *  header     magic "ERCB", version, length and modification time of the rooms JSON and of hints.txt
+ *  strings    count, blob length, count+1 offsets, UTF-8 blob (every text is stored once)
+ *  source     string ref of the rooms path the bundle was compiled for
+ *  rooms      count x (name, description, level, solved, first puzzle, puzzle count)
+ *  puzzles    count x fixed {@link #PUZZLE_RECORD}-byte records
+ *  hints      length, then the compiled {@link HintIndex} image (decoded lazily)
+ *  id table   external id of each puzzle, in puzzle order ({@link PuzzleIds})
+ *  room keys  one string ref per room ({@link PuzzleIndex#roomKey(String)})
+ *
+ * A puzzle's answer aliases are stored as one string, separated by newlines.
+ * All numbers are big-endian; a string ref of -1 means null. The bundle is mapped when
+ * it is a plain file and read into memory otherwise (e.g. inside a jar).
+ *
+ * A bundle is stale when the sources it was compiled from can still be found as plain files
+ * and their length or modification time no longer matches; {@link RoomCatalog} then falls
+ * back to the JSON. Only file attributes are read, so the check does not grow with the
+ * content; the build recompiles the bundle whenever a source changes.
+ */
+public final class ContentBundle {
+    /** Classpath location the build writes the bundle to. */
+    public static final String RESOURCE = "/com/model/content.bundle";
+
+    static final int MAGIC = 0x45524342; // "ERCB"
+    static final short VERSION = 5;
+    /** Bytes per puzzle record: 4 single-byte fields and 10 ints. */
+    static final int PUZZLE_RECORD = 44;
+    /** Bytes per room record: 5 ints and the solved byte. */
+    static final int ROOM_RECORD = 21;
+
+    static final byte TYPE_RIDDLE = 0, TYPE_TRIVIA = 1, TYPE_MATH = 2, TYPE_DOOR = 3;
+    static final byte FLAG_LOCKED = 1;
+
+    private final ByteBuffer buf;
+    private final long roomsLength;
+    private final long roomsModified;
+    private final long hintsLength;
+    private final long hintsModified;
+    private final int stringCount;
+    private final int offsetsAt;
+    private final int blobAt;
+    private final String[] strings;
+    private final String source;
+    private final int roomsAt;
+
+    private ContentBundle(ByteBuffer buf) throws IOException {
+        this.buf = buf;
+        try {
+            if (buf.getInt(0) != MAGIC) throw new IOException("not a content bundle");
+            if (buf.getShort(4) != VERSION) throw new IOException("unsupported bundle version " + buf.getShort(4));
+            roomsLength = buf.getLong(6);
+            roomsModified = buf.getLong(14);
+            hintsLength = buf.getLong(22);
+            hintsModified = buf.getLong(30);
+            stringCount = buf.getInt(38);
+            int blobLen = buf.getInt(42);
+            offsetsAt = 46;
+            blobAt = offsetsAt + 4 * (stringCount + 1);
+            strings = new String[stringCount];
+            int sourceAt = blobAt + blobLen;
+            source = string(buf.getInt(sourceAt));
+            roomsAt = sourceAt + 4;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("truncated content bundle");
+        }
+    }
+
+    /**
+     * Opens the bundle on the classpath at {@link #RESOURCE}.
+     *
+     * @return the bundle, or null if there is none or it cannot be read
+     */
+    public static ContentBundle openDefault() {
+        URL url = ContentBundle.class.getResource(RESOURCE);
+        if (url == null) return null;
+        try {
+            if ("file".equals(url.getProtocol())) return open(Paths.get(URI.create(url.toString())));
+            try (InputStream in = url.openStream()) {
+                return new ContentBundle(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring content bundle " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Maps a bundle file read-only.
+     *
+     * @param file the bundle
+     * @return the opened bundle
+     * @throws IOException if the file cannot be read or is not a bundle
+     */
+    public static ContentBundle open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ContentBundle(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** @return the rooms path this bundle was compiled for (e.g. {@link RoomCatalog#DEFAULT_PATH}) */
+    public String getSource() { return source; }
+
+    /**
+     * Checks the bundle against its sources: the rooms file (resolved like {@link RoomLoader})
+     * and, if hints were compiled in, {@link HintIndex#RESOURCE}. A source that can't be
+     * found as a plain file is not held against the bundle, so a packaged game without the
+     * JSON, or with its sources inside the same jar, still uses it.
+     *
+     * @return true if no source has changed since the bundle was compiled
+     */
+    public boolean isFresh() {
+        if (!matches(stamp(source), roomsLength, roomsModified)) return false;
+        return hintsLength < 0 || matches(stamp(HintIndex.RESOURCE), hintsLength, hintsModified);
+    }
+
+    private static boolean matches(long[] stamp, long length, long modified) {
+        return stamp == null || (stamp[0] == length && stamp[1] == modified);
+    }
+
+    /**
+     * Length and modification time of a classpath resource or file, looked up the same way
+     * {@link RoomLoader} does. Only the file's attributes are read.
+     *
+     * @param resourceOrPath classpath resource or filesystem path
+     * @return {length, modified millis}, or null if it is not a plain file (missing, or in a jar)
+     */
+    static long[] stamp(String resourceOrPath) {
+        if (resourceOrPath == null) return null;
+        try {
+            URL url = ContentBundle.class.getResource(resourceOrPath.startsWith("/") ? resourceOrPath : "/" + resourceOrPath);
+            if (url != null) return "file".equals(url.getProtocol()) ? stamp(Paths.get(URI.create(url.toString()))) : null;
+            Path p = Paths.get(resourceOrPath);
+            return Files.isRegularFile(p) ? stamp(p) : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param file a source file
+     * @return {length, modified millis}
+     * @throws IOException if its attributes cannot be read
+     */
+    static long[] stamp(Path file) throws IOException {
+        return new long[] { Files.size(file), Files.getLastModifiedTime(file).toMillis() };
+    }
+
+    /**
+     * Builds a catalog from the bundle. Puzzles are created from their records and frozen
+     * by the catalog, exactly as if they had come from the JSON. A bundle compiled without
+     * hints leaves the catalog to load them itself.
+     *
+     * @return the catalog
+     * @throws IOException if the embedded hints are not a valid hint image
+     */
+    RoomCatalog toCatalog() throws IOException {
+        int pos = roomsAt;
+        int roomCount = buf.getInt(pos); pos += 4;
+        int roomTable = pos;
+        pos += roomCount * ROOM_RECORD;
+
+        int puzzleCount = buf.getInt(pos); pos += 4;
+        Puzzle[] puzzles = new Puzzle[puzzleCount];
+        for (int i = 0; i < puzzleCount; i++, pos += PUZZLE_RECORD) puzzles[i] = readPuzzle(pos);
+
+        List<EscapeRoom> rooms = new ArrayList<>(roomCount);
+        for (int r = 0, at = roomTable; r < roomCount; r++, at += ROOM_RECORD) {
+            int first = buf.getInt(at + 13), count = buf.getInt(at + 17);
+            EscapeRoom room = new EscapeRoom(string(buf.getInt(at)), string(buf.getInt(at + 4)), buf.getInt(at + 8),
+                    new ArrayList<>(Arrays.asList(puzzles).subList(first, first + count)));
+            room.setSolved(buf.get(at + 12) != 0);
+            rooms.add(room);
+        }
+
+        int hintLen = buf.getInt(pos); pos += 4;
+        HintIndex hints = HintIndex.wrap(buf.slice(pos, hintLen));
+        pos += hintLen;
+
+        int idLen = buf.getInt(pos); pos += 4;
+        int[] idOf = new int[idLen];
+        for (int i = 0; i < idLen; i++, pos += 4) idOf[i] = buf.getInt(pos);
+
+        String[] roomKeys = new String[roomCount];
+        for (int r = 0; r < roomCount; r++, pos += 4) roomKeys[r] = string(buf.getInt(pos));
+
+        return new RoomCatalog(source, rooms, hintsLength < 0 ? null : hints, PuzzleIds.of(idOf), roomKeys);
+    }
+
+    private Puzzle readPuzzle(int at) {
+        byte type = buf.get(at);
+        byte diff = buf.get(at + 1);
+        byte flags = buf.get(at + 2);
+        byte reward = buf.get(at + 3);
+        int id = buf.getInt(at + 4);
+        String question = string(buf.getInt(at + 8));
+        String answer = string(buf.getInt(at + 12));
+        String category = string(buf.getInt(at + 16));
+        int intAnswer = buf.getInt(at + 20);
+        int numDoors = buf.getInt(at + 24);
+        int correctDoor = buf.getInt(at + 28);
+        int attempts = buf.getInt(at + 32);
+        String hidden = string(buf.getInt(at + 36));
+        String aliases = string(buf.getInt(at + 40));
+        Difficulty difficulty = diff < 0 ? null : Difficulty.values()[diff];
+
+        Puzzle p;
+        switch (type) {
+            case TYPE_MATH: p = new MathPuzzle(question, intAnswer, difficulty); break;
+            case TYPE_DOOR: p = new DoorPuzzle(numDoors, correctDoor, attempts, difficulty); break;
+            case TYPE_TRIVIA: {
+                TriviaPuzzle t = new TriviaPuzzle(question, answer, category, difficulty);
+                if (aliases != null) t.setAliases(Arrays.asList(aliases.split("\n")));
+                p = t;
+                break;
+            }
+            default: {
+                RiddlePuzzle r = new RiddlePuzzle(question, answer, category, difficulty);
+                if (aliases != null) r.setAliases(Arrays.asList(aliases.split("\n")));
+                p = r;
+                break;
+            }
+        }
+        p.setId(id);
+        if (reward >= 0) p.setReward(ItemName.values()[reward]);
+        p.setLocked((flags & FLAG_LOCKED) != 0);
+        if (hidden != null) p.setHiddenHint(hidden);
+        return p;
+    }
+
+    private String string(int ref) {
+        if (ref < 0) return null;
+        String s = strings[ref];
+        if (s == null) {
+            int start = buf.getInt(offsetsAt + 4 * ref);
+            int end = buf.getInt(offsetsAt + 4 * (ref + 1));
+            byte[] bytes = new byte[end - start];
+            buf.get(blobAt + start, bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[ref] = s;
+        }
+        return s;
+    }
+
+    /** @return number of pooled strings */
+    int stringCount() { return stringCount; }
+}
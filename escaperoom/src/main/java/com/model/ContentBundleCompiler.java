@@ -0,0 +1,233 @@
+package com.model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Build step that validates EscapeRoom.json and hints.txt and compiles them into the
+ * binary {@link ContentBundle}. Run by Maven in the process-classes phase:
+ *
+ *   java com.model.ContentBundleCompiler rooms.json hints.txt out.bundle [recordedRoomsPath]
+ *
+ * recordedRoomsPath is the path the game asks {@link RoomCatalog} for at runtime
+ * (default {@link RoomCatalog#DEFAULT_PATH}); the bundle is only used for that path.
+ * Validation errors are printed and end the process with status 1, failing the build.
+ */
+public final class ContentBundleCompiler {
+
+    private ContentBundleCompiler() { }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("usage: ContentBundleCompiler <rooms.json> <hints.txt> <out.bundle> [recordedRoomsPath]");
+            System.exit(2);
+        }
+        String recorded = args.length > 3 ? args[3] : RoomCatalog.DEFAULT_PATH;
+        try {
+            List<String> errors = compile(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]), recorded);
+            if (!errors.isEmpty()) {
+                for (String e : errors) System.err.println("content error: " + e);
+                System.exit(1);
+            }
+            System.out.println("Wrote content bundle " + args[2] + " (" + Files.size(Paths.get(args[2])) + " bytes)");
+        } catch (IOException e) {
+            System.err.println("Failed to compile content: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Loads, validates and writes the bundle. Nothing is written if validation fails.
+     *
+     * @param roomsJson  the rooms file to compile
+     * @param hintsTxt   the hints file to compile (may be missing)
+     * @param out        where to write the bundle
+     * @param recorded   rooms path the bundle is recorded under
+     * @return validation errors (empty on success)
+     * @throws IOException if a source cannot be read or the bundle cannot be written
+     */
+    public static List<String> compile(Path roomsJson, Path hintsTxt, Path out, String recorded) throws IOException {
+        // attributes first: an edit made while a source is read leaves the bundle stale
+        long[] roomsStamp = ContentBundle.stamp(roomsJson);
+        RoomCatalog catalog = RoomCatalog.fromJson(roomsJson.toString());
+
+        HintIndex hints = HintIndex.empty();
+        long[] hintsStamp = null;
+        if (hintsTxt != null && Files.isRegularFile(hintsTxt)) {
+            hintsStamp = ContentBundle.stamp(hintsTxt);
+            hints = HintIndex.load(hintsTxt);
+        }
+
+        List<String> errors = validate(catalog, hints);
+        if (!errors.isEmpty()) return errors;
+
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            write(catalog, hints, recorded, roomsStamp, hintsStamp, os);
+        }
+        Files.move(tmp, out, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        return errors;
+    }
+
+    /**
+     * Checks the content for mistakes the JSON loader would silently accept.
+     *
+     * @param catalog the parsed rooms
+     * @param hints   the parsed hints
+     * @return one message per problem found
+     */
+    static List<String> validate(RoomCatalog catalog, HintIndex hints) {
+        List<String> errors = new ArrayList<>();
+        if (catalog.getRooms().isEmpty()) errors.add("no rooms defined");
+
+        Set<String> roomKeys = new HashSet<>();
+        for (EscapeRoom room : catalog.getRooms()) {
+            if (!roomKeys.add(PuzzleIndex.roomKey(room.getName()))) errors.add("duplicate room name '" + room.getName() + "'");
+        }
+
+        PuzzleIds ids = catalog.getIds();
+        int dense = 0;
+        for (EscapeRoom room : catalog.getRooms()) {
+            for (Puzzle p : room.getPuzzles()) {
+                String where = "room '" + room.getName() + "' puzzle " + p.getId();
+                if (ids.dense(p.getId()) != dense++) errors.add(where + ": duplicate id");
+                if (p instanceof DoorPuzzle) {
+                    DoorPuzzle d = (DoorPuzzle) p;
+                    if (d.getCorrectDoor() < 1 || d.getCorrectDoor() > d.getNumDoors()) errors.add(where + ": correctDoor outside 1-" + d.getNumDoors());
+                } else if (p.getQuestion() == null || p.getQuestion().trim().isEmpty()) {
+                    errors.add(where + ": missing question");
+                }
+                if (p instanceof RiddlePuzzle || p instanceof TriviaPuzzle) {
+                    String answer = p instanceof RiddlePuzzle ? ((RiddlePuzzle) p).getAnswer() : ((TriviaPuzzle) p).getAnswer();
+                    if (answer == null || answer.trim().isEmpty()) errors.add(where + ": missing answer");
+                }
+            }
+        }
+
+        errors.addAll(MathPuzzle.compileAll(catalog.getPuzzles()));
+
+        for (int id : hints.ids()) {
+            if (ids.dense(id) < 0) errors.add("hints.txt: hints for unknown puzzle " + id);
+        }
+        return errors;
+    }
+
+    /**
+     * Writes the bundle layout described in {@link ContentBundle}.
+     *
+     * @param roomsStamp length and modification time of the rooms file
+     * @param hintsStamp the same for hints.txt, or null if no hints were compiled in
+     */
+    static void write(RoomCatalog catalog, HintIndex hints, String recorded, long[] roomsStamp, long[] hintsStamp, OutputStream os) throws IOException {
+        Map<String, Integer> pool = new LinkedHashMap<>();
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+
+        body.writeInt(ref(pool, recorded));
+
+        List<EscapeRoom> rooms = catalog.getRooms();
+        List<Puzzle> puzzles = catalog.getPuzzles();
+        body.writeInt(rooms.size());
+        int first = 0;
+        for (EscapeRoom room : rooms) {
+            body.writeInt(ref(pool, room.getName()));
+            body.writeInt(ref(pool, room.getDescription()));
+            body.writeInt(room.getLevel());
+            body.writeByte(room.isSolved() ? 1 : 0);
+            body.writeInt(first);
+            body.writeInt(room.getPuzzles().size());
+            first += room.getPuzzles().size();
+        }
+
+        body.writeInt(puzzles.size());
+        for (Puzzle p : puzzles) writePuzzle(body, pool, p);
+
+        byte[] hintImage = hints.image();
+        body.writeInt(hintImage.length);
+        body.write(hintImage);
+
+        PuzzleIds ids = catalog.getIds();
+        body.writeInt(ids.size());
+        for (int d = 0; d < ids.size(); d++) body.writeInt(ids.id(d));
+        for (EscapeRoom room : rooms) body.writeInt(ref(pool, PuzzleIndex.roomKey(room.getName())));
+        body.flush();
+
+        DataOutputStream dos = new DataOutputStream(os);
+        dos.writeInt(ContentBundle.MAGIC);
+        dos.writeShort(ContentBundle.VERSION);
+        dos.writeLong(roomsStamp[0]);
+        dos.writeLong(roomsStamp[1]);
+        dos.writeLong(hintsStamp == null ? -1 : hintsStamp[0]);
+        dos.writeLong(hintsStamp == null ? -1 : hintsStamp[1]);
+        List<byte[]> encoded = new ArrayList<>(pool.size());
+        int blobLen = 0;
+        for (String s : pool.keySet()) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            encoded.add(b);
+            blobLen += b.length;
+        }
+        dos.writeInt(encoded.size());
+        dos.writeInt(blobLen);
+        int off = 0;
+        dos.writeInt(0);
+        for (byte[] b : encoded) dos.writeInt(off += b.length);
+        for (byte[] b : encoded) dos.write(b);
+        bodyBytes.writeTo(dos);
+        dos.flush();
+    }
+
+    private static void writePuzzle(DataOutputStream out, Map<String, Integer> pool, Puzzle p) throws IOException {
+        byte type = ContentBundle.TYPE_RIDDLE;
+        String answer = null, category = null;
+        List<String> aliases = Collections.emptyList();
+        int intAnswer = 0, numDoors = 0, correctDoor = 0, attempts = 0;
+        if (p instanceof MathPuzzle) {
+            type = ContentBundle.TYPE_MATH;
+            intAnswer = ((MathPuzzle) p).getAnswer();
+        } else if (p instanceof DoorPuzzle) {
+            DoorPuzzle d = (DoorPuzzle) p;
+            type = ContentBundle.TYPE_DOOR;
+            numDoors = d.getNumDoors();
+            correctDoor = d.getCorrectDoor();
+            attempts = d.getAttemptsAllowed();
+        } else if (p instanceof TriviaPuzzle) {
+            type = ContentBundle.TYPE_TRIVIA;
+            answer = ((TriviaPuzzle) p).getAnswer();
+            category = ((TriviaPuzzle) p).getCategory();
+            aliases = ((TriviaPuzzle) p).getAliases();
+        } else if (p instanceof RiddlePuzzle) {
+            answer = ((RiddlePuzzle) p).getAnswer();
+            category = ((RiddlePuzzle) p).getCategory();
+            aliases = ((RiddlePuzzle) p).getAliases();
+        }
+        out.writeByte(type);
+        out.writeByte(p.getDifficulty() == null ? -1 : p.getDifficulty().ordinal());
+        out.writeByte(p.isLocked() ? ContentBundle.FLAG_LOCKED : 0);
+        out.writeByte(p.getReward() == null ? -1 : p.getReward().ordinal());
+        out.writeInt(p.getId());
+        out.writeInt(ref(pool, p.getQuestion()));
+        out.writeInt(ref(pool, answer));
+        out.writeInt(ref(pool, category));
+        out.writeInt(intAnswer);
+        out.writeInt(numDoors);
+        out.writeInt(correctDoor);
+        out.writeInt(attempts);
+        out.writeInt(ref(pool, p.getHiddenHint()));
+        out.writeInt(ref(pool, aliases.isEmpty() ? null : String.join("\n", aliases)));
+    }
+
+    private static int ref(Map<String, Integer> pool, String s) {
+        if (s == null) return -1;
+        Integer r = pool.get(s);
+        if (r == null) {
+            r = pool.size();
+            pool.put(s, r);
+        }
+        return r;
+    }
+}
@@ -0,0 +1,155 @@
+package com.model;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the rooms JSON and hints.txt and hot-reloads the {@link RoomCatalog} when
+ * either changes.
+ *
+ * A single daemon thread waits on a {@link WatchService} for the directories holding the
+ * two files. Bursts of events (editors often write a file several times) are collapsed:
+ * the reload runs once the directory has been quiet for the debounce interval. The reload
+ * itself happens on the watcher thread via {@link RoomCatalog#reload(String, Path)}, so the
+ * UI and console threads never wait on it, and a file that fails to parse or validate
+ * leaves the current catalog in place.
+ */
+public final class ContentWatcher {
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+    /** System property naming the hints file to watch instead of the default. */
+    public static final String HINTS_PROPERTY = "escaperoom.hints";
+    private static final String SOURCE_HINTS = "src/main/resources" + HintIndex.RESOURCE;
+
+    private final String roomsPath;
+    private final Path roomsFile;
+    private final Path hintsFile;
+    private final long debounceMillis;
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile int reloads;
+
+    /**
+     * @param roomsPath      rooms path as used with {@link RoomCatalog#load(String)}
+     * @param hintsFile      hints file to watch and reload from (may be null)
+     * @param debounceMillis quiet time to wait after a change before reloading
+     */
+    public ContentWatcher(String roomsPath, Path hintsFile, long debounceMillis) {
+        this.roomsPath = roomsPath;
+        this.roomsFile = Paths.get(roomsPath).toAbsolutePath().normalize();
+        this.hintsFile = hintsFile == null ? null : hintsFile.toAbsolutePath().normalize();
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * Starts watching {@link RoomCatalog#DEFAULT_PATH} and the hints the game loads.
+     * Failures are printed and give null; the game then simply runs without hot reload.
+     *
+     * @return the running watcher, or null
+     */
+    public static ContentWatcher startDefault() {
+        try {
+            return new ContentWatcher(RoomCatalog.DEFAULT_PATH, defaultHintsFile(), DEFAULT_DEBOUNCE_MILLIS).start();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Content hot reload disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The hints file to watch: the {@value #HINTS_PROPERTY} system property if set, else the
+     * source copy under src/main/resources (the build only copies it to the classpath, so
+     * edits land there), else the classpath file behind {@link HintIndex#RESOURCE}, else
+     * JSON/hints.txt.
+     */
+    static Path defaultHintsFile() {
+        String configured = System.getProperty(HINTS_PROPERTY);
+        if (configured != null && !configured.isBlank()) return Paths.get(configured);
+        Path source = Paths.get(System.getProperty("user.dir"), SOURCE_HINTS);
+        if (Files.isRegularFile(source)) return source;
+        URL url = HintIndex.class.getResource(HintIndex.RESOURCE);
+        if (url != null && "file".equals(url.getProtocol())) return Paths.get(URI.create(url.toString()));
+        return Paths.get("JSON", "hints.txt");
+    }
+
+    /**
+     * Registers the watched directories and starts the watcher thread.
+     *
+     * @return this watcher
+     * @throws IOException if a directory cannot be watched
+     */
+    public synchronized ContentWatcher start() throws IOException {
+        if (running) return this;
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> dirs = new LinkedHashSet<>();
+        if (roomsFile.getParent() != null) dirs.add(roomsFile.getParent());
+        if (hintsFile != null && hintsFile.getParent() != null) dirs.add(hintsFile.getParent());
+        try {
+            for (Path dir : dirs) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        running = true;
+        thread = new Thread(this::watchLoop, "content-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /** Stops the watcher thread; the current catalog stays published. */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+        try {
+            if (watchService != null) watchService.close();
+        } catch (IOException ignored) { }
+    }
+
+    /** @return number of reloads attempted since start */
+    public int getReloadCount() { return reloads; }
+
+    private void watchLoop() {
+        try {
+            while (running) {
+                WatchKey key = watchService.take();
+                boolean relevant = drain(key);
+                // wait for the burst to settle before reading the files
+                while (true) {
+                    WatchKey more = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                    if (more == null) break;
+                    relevant |= drain(more);
+                }
+                if (relevant) {
+                    reloads++;
+                    if (RoomCatalog.reload(roomsPath, hintsFile) != null) {
+                        System.out.println("Reloaded content from " + roomsPath);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        }
+    }
+
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (ev.kind() == StandardWatchEventKinds.OVERFLOW) { relevant = true; continue; }
+            Path changed = dir.resolve((Path) ev.context()).toAbsolutePath().normalize();
+            if (changed.equals(roomsFile) || changed.equals(hintsFile)) relevant = true;
+        }
+        key.reset();
+        return relevant;
+    }
+}
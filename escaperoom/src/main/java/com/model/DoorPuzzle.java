@@ -63,6 +63,7 @@ public class DoorPuzzle extends Puzzle {
      * @param correctDoor the 1-based index to set
      */
     public void setCorrectDoor(int correctDoor) {
+        checkMutable();
         if (correctDoor < 1) correctDoor = 1;
         if (correctDoor > this.numDoors) correctDoor = this.numDoors;
         this.correctDoor = correctDoor;
@@ -83,6 +84,7 @@ public class DoorPuzzle extends Puzzle {
      * @param attemptsAllowed new maximum attempts (0 = unlimited).
      */
     public void setAttemptsAllowed(int attemptsAllowed) {
+        checkMutable();
         this.attemptsAllowed = Math.max(0, attemptsAllowed);
     }
 
@@ -101,6 +103,7 @@ public class DoorPuzzle extends Puzzle {
      * @param attemptsMade attempts to record.
      */
     public void setAttemptsMade(int attemptsMade) {
+        checkMutable();
         this.attemptsMade = Math.max(0, attemptsMade);
     }
 
@@ -119,13 +122,14 @@ public class DoorPuzzle extends Puzzle {
      * @param blocked true to mark as blocked.
      */
     public void setBlocked(boolean blocked) {
+        checkMutable();
         this.blocked = blocked;
     }
 
     /**
      * Checks the player’s answer by parsing a numeric door choice and comparing it
      * to the correct door. Returns false if locked, blocked, invalid, or over the
-     * allowed attempt limit.
+     * allowed attempt limit. Attempts are only counted on puzzles that are not frozen.
      *
      * @param userAnswer player input string
      * @return true if the chosen door is correct and valid; false otherwise
@@ -141,29 +145,10 @@ public class DoorPuzzle extends Puzzle {
             return false;
         }
 
-        if (userAnswer == null) return false;
-        String trimmed = userAnswer.trim();
-        if (trimmed.isEmpty()) return false;
+        int choice = parseChoice(userAnswer);
+        if (choice < 0) return false;
 
-        // Try to parse an integer choice; allow inputs like "2" or "door 2" (take last token)
-        String token = trimmed;
-        if (!trimmed.matches("^-?\\d+$")) {
-            // attempt to extract trailing number
-            String[] toks = trimmed.split("\\s+");
-            token = toks[toks.length - 1];
-        }
-
-        int choice;
-        try {
-            choice = Integer.parseInt(token);
-        } catch (NumberFormatException e) {
-            return false;
-        }
-
-        // enforce range
-        if (choice < 1 || choice > numDoors) return false;
-
-        attemptsMade++;
+        if (!isFrozen()) attemptsMade++;
         // If attemptsAllowed > 0 and we've exceeded, don't allow further success
         if (attemptsAllowed > 0 && attemptsMade > attemptsAllowed) {
             return false;
@@ -172,6 +157,31 @@ public class DoorPuzzle extends Puzzle {
         return choice == correctDoor;
     }
 
+    /**
+     * Pure check of a door choice: true if the answer names the correct door.
+     * Ignores lock, blocked state and attempt limits.
+     *
+     * @param userAnswer player input string
+     * @return true if the answer is the correct door
+     */
+    @Override
+    public boolean matches(String userAnswer) {
+        return parseChoice(userAnswer) == correctDoor;
+    }
+
+    /**
+     * Parses a door choice such as "2" or "door 2" (the last token is used), reading the
+     * input in place with {@link NumberScanner}.
+     *
+     * @param userAnswer player input string
+     * @return the door number, or -1 if the input is not a number in 1..numDoors
+     */
+    public int parseChoice(String userAnswer) {
+        long choice = NumberScanner.trailingInt(userAnswer);
+        if (choice < 1 || choice > numDoors) return -1;
+        return (int) choice;
+    }
+
     @Override
     public String toString() {
         return "DoorPuzzle{numDoors=" + numDoors + ", correctDoor=" + correctDoor +
@@ -1,15 +1,11 @@
 package com.model;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import com.speech.Speek;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 /**
  * Console-driven user interface and game loop for the Escape Room application.
@@ -22,26 +18,23 @@ import java.util.*;
  *    scoring, and persisting progress/leaderboard entries
  *
  * This class is intentionally imperative and interacts with the console Scanner.
- * It persists user progress through {@link DataLoader} and updates a simple
- * leaderboard JSON file under the JSON directory.
+ * It persists user progress through {@link DataLoader} and records finished runs
+ * on the {@link LeaderboardService}.
  */
 public class EscapeRoomGameUI {
     private final Scanner in = new Scanner(System.in);
     private final UserList userList = UserList.getInstance();
-    private final RoomLoader roomLoader = new RoomLoader();
 
     /**
      * Entry point for running the console UI.
      */
     public static void main(String[] args) {
+        ContentWatcher.startDefault();
         EscapeRoomGameUI ui = new EscapeRoomGameUI();
         ui.run();
     }
 
     private static final String JSON_DIR = System.getProperty("user.dir") + "/JSON";
-    private static final String LEADERBOARD_PATH = JSON_DIR + "/leaderboard.json";
-    private static final String EXPLICIT_HINTS_PATH = System.getProperty("user.dir")
-            + "/escaperoom/src/main/java/com/model/hints.txt";
 
     private static final Map<String, Integer> POINTS;
     static {
@@ -61,32 +54,12 @@ public class EscapeRoomGameUI {
         HINT_PENALTY_SCALED.put("hard", 120);
     }
 
-    private final HintList hintList = new HintList();
-    private final Map<Integer, List<String>> hints = new HashMap<>();
-
     /**
-     * Start the main UI loop. Ensures JSON directory exists, attempts to load hints,
-     * and repeatedly shows the main menu until the user exits.
+     * Start the main UI loop. Ensures JSON directory exists and repeatedly shows the main menu until the user exits.
      */
     public void run() {
         try { Files.createDirectories(Paths.get(JSON_DIR)); } catch (IOException ignored) {}
 
-        try {
-            String loadedPath = null;
-            if (Files.exists(Paths.get(EXPLICIT_HINTS_PATH))) {
-                loadedPath = hintList.load(EXPLICIT_HINTS_PATH);
-                if (loadedPath != null) System.out.println("Hints loaded from explicit path: " + loadedPath + " (entries: " + hintList.size() + ")");
-            }
-            if (loadedPath == null) {
-                loadedPath = hintList.load();
-                if (loadedPath != null) System.out.println("Hints loaded from HintList: " + loadedPath + " (entries: " + hintList.size() + ")");
-                else loadHintsFromDefaults();
-            }
-        } catch (Throwable t) {
-            System.err.println("HintList.load() threw: " + t.getMessage() + " — falling back.");
-            loadHintsFromDefaults();
-        }
-
         while (true) {
             System.out.println("\n==== WELCOME TO THE SPOOKY STRINGS: HAUNTED MANSION ====");
             System.out.println("\nMain Menu: [1] Login  [2] Sign Up  [3] Show Leaderboard  [0] Exit");
@@ -100,6 +73,7 @@ public class EscapeRoomGameUI {
                 case "0" -> {
                     System.out.println("Exiting.");
                     DataLoader.saveUsers(userList.getAllUsers());
+                    RunHistory.getInstance().compact();
                     return;
                 }
                 default -> System.out.println("Invalid choice.");
@@ -107,43 +81,6 @@ public class EscapeRoomGameUI {
         }
     }
 
-    /**
-     * Attempt loading hints from a small set of default locations.
-     * The first existing file found will be parsed into the local hints map.
-     */
-    private void loadHintsFromDefaults() {
-        String jsonCandidate = System.getProperty("user.dir") + "/JSON/hints.txt";
-        String projectCandidate = System.getProperty("user.dir") + "/hints.txt";
-        String modelCandidate = System.getProperty("user.dir") + "/escaperoom/src/main/java/com/model/hints.txt";
-
-        if (Files.exists(Paths.get(jsonCandidate))) { loadHintsFromFile(jsonCandidate); System.out.println("Hints loaded from: " + jsonCandidate); return; }
-        if (Files.exists(Paths.get(projectCandidate))) { loadHintsFromFile(projectCandidate); System.out.println("Hints loaded from: " + projectCandidate); return; }
-        if (Files.exists(Paths.get(modelCandidate))) { loadHintsFromFile(modelCandidate); System.out.println("Hints loaded from: " + modelCandidate); return; }
-    }
-
-    /**
-     * Parse a hints file and populate the in-memory hints map.
-     *
-     * @param path path to a readable hints file using the format "index|hint1, hint2,..."
-     */
-    private void loadHintsFromFile(String path) {
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                String[] parts = line.split("\\|", 2);
-                if (parts.length < 2) continue;
-                int idx;
-                try { idx = Integer.parseInt(parts[0].trim()); } catch (NumberFormatException ex) { continue; }
-                String[] hintParts = parts[1].split(",");
-                List<String> list = new ArrayList<>();
-                for (String h : hintParts) { String t = h.trim(); if (!t.isEmpty()) list.add(t); }
-                if (!list.isEmpty()) hints.put(idx, list);
-            }
-        } catch (IOException e) { System.err.println("Failed to load hints from " + path + ": " + e.getMessage()); }
-    }
-
     /**
      * Handle user login flow: prompt for username and password, then resume a play session.
      * Successful login will display user progress before starting a session.
@@ -227,31 +164,31 @@ public class EscapeRoomGameUI {
     }
     
     /**
-     * Print the leaderboard sorted by score (desc) and time (asc).
-     * Reads leaderboard JSON and displays a formatted ranking.
+     * Print the leaderboard sorted by score (desc) and time (asc), for all time, this week
+     * or today. Reads the ranked entries from {@link LeaderboardService}.
      */
     private void showLeaderboard() {
-        JSONArray arr = loadLeaderboardJson();
-        if (arr == null || arr.isEmpty()) { System.out.println("\n=== LEADERBOARD ===\nNo entries yet."); return; }
-        List<JSONObject> list = new ArrayList<>();
-        for (Object o : arr) if (o instanceof JSONObject) list.add((JSONObject) o);
-        list.sort((a, b) -> {
-            long scoreA = ((Number) a.getOrDefault("score", 0)).longValue();
-            long scoreB = ((Number) b.getOrDefault("score", 0)).longValue();
-            if (scoreA != scoreB) return Long.compare(scoreB, scoreA);
-            long timeA = ((Number) a.getOrDefault("timeSpent", Long.MAX_VALUE)).longValue();
-            long timeB = ((Number) b.getOrDefault("timeSpent", Long.MAX_VALUE)).longValue();
-            return Long.compare(timeA, timeB);
-        });
-        System.out.println("\n=== LEADERBOARD ===");
+        System.out.println("\nShow: [1] All time  [2] This week  [3] Today");
+        System.out.print("> ");
+        String choice = in.nextLine().trim();
+        LeaderboardService.Window window = switch (choice) {
+            case "2" -> LeaderboardService.Window.WEEKLY;
+            case "3" -> LeaderboardService.Window.DAILY;
+            default -> LeaderboardService.Window.ALL_TIME;
+        };
+        String title = switch (window) {
+            case WEEKLY -> "\n=== LEADERBOARD: THIS WEEK ===";
+            case DAILY -> "\n=== LEADERBOARD: TODAY ===";
+            default -> "\n=== LEADERBOARD ===";
+        };
+        LeaderboardService board = LeaderboardService.getInstance();
+        List<LeaderboardEntry> list = board.top(window, null, board.size(window, null));
+        if (list.isEmpty()) { System.out.println(title + "\nNo entries yet."); return; }
+        System.out.println(title);
         int rank = 1;
-        for (JSONObject e : list) {
-            String user = String.valueOf(e.getOrDefault("username", "unknown"));
-            long score = ((Number) e.getOrDefault("score", 0)).longValue();
-            String diff = String.valueOf(e.getOrDefault("difficulty", "N/A"));
-            long timeSpent = ((Number) e.getOrDefault("timeSpent", 0)).longValue();
-            String timeStr = formatSeconds(timeSpent);
-            System.out.printf("%2d. %s — %d pts [%s]  (%s)%n", rank++, user, score, diff.toUpperCase(), timeStr);
+        for (LeaderboardEntry e : list) {
+            String timeStr = formatSeconds(e.getTimeSpent());
+            System.out.printf("%2d. %s — %d pts [%s]  (%s)%n", rank++, e.getUsername(), e.getScore(), e.getDifficulty().toUpperCase(), timeStr);
         }
     }
 
@@ -452,7 +389,9 @@ public class EscapeRoomGameUI {
 
     /**
      * Run a play session for the given user at the selected difficulty. This method:
-     *  - loads rooms and flattens puzzles into an id map
+     *  - looks puzzles up in the shared catalog index (by id and difficulty)
+     *  - keeps locks, attempts and revealed hints in a per-session PuzzleSession
+     *  - moves onto hot-reloaded content between puzzles (see ContentWatcher)
      *  - allows the player to choose puzzles, request hints, use inventory, and submit answers
      *  - awards points, time penalties, and optional item rewards
      *  - persists progress and updates the leaderboard on session completion
@@ -465,34 +404,19 @@ public class EscapeRoomGameUI {
 
         printBackstory();
 
-        List<EscapeRoom> rooms;
+        RoomCatalog catalog;
         try {
-            rooms = roomLoader.loadRooms("JSON/EscapeRoom.json");
+            catalog = RoomCatalog.load(RoomCatalog.DEFAULT_PATH);
         } catch (IOException e) {
             System.err.println("Failed to load rooms: " + e.getMessage());
             return;
         }
+        PuzzleSession session = new PuzzleSession(catalog);
+        HintPrefetcher hintPrefetcher = new HintPrefetcher(id -> session.getCatalog().getHintsFor(id), true);
 
         long startTimeTotal = currentUser.getProgress().getTimeSpent();
         final long wallStart = System.currentTimeMillis() / 1000L;
 
-        // Flatten puzzles and build id map
-        Map<Integer, Puzzle> puzzleById = new LinkedHashMap<>();
-        int generatedId = 1;
-        for (EscapeRoom room : rooms) {
-            List<Puzzle> pz = room.getPuzzles();
-            if (pz == null) continue;
-            for (Puzzle pu : pz) {
-                int pid = pu.getId();
-                if (pid < 0) {
-                    while (puzzleById.containsKey(generatedId)) generatedId++;
-                    pid = generatedId++;
-                    pu.setId(pid);
-                }
-                puzzleById.put(pid, pu);
-            }
-        }
-
         boolean loggedOut = false;
         int puzzlesSolved = 0;
         int sessionHintsUsed = 0;
@@ -500,14 +424,10 @@ public class EscapeRoomGameUI {
         System.out.println("\nYou may tackle puzzles in any order. Type 'list' to show available puzzles.");
         Runnable listAvailable = () -> {
             System.out.println("\n=== AVAILABLE PUZZLES ===");
-            for (Map.Entry<Integer, Puzzle> e : puzzleById.entrySet()) {
-                int pid = e.getKey();
-                Puzzle pu = e.getValue();
-                String pd = pu.getDifficulty() == null ? "easy" : pu.getDifficulty().name().toLowerCase();
-                if (chosen != Difficulty.ALL && !pd.equals(chosen.name().toLowerCase())) continue;
+            for (Puzzle pu : session.getCatalog().getIndex().byDifficulty(chosen)) {
                 if (currentUser.getProgress().hasCompletedByEither(pu.getId(), pu.getQuestion())) continue;
-                String lock = pu.isLocked() ? " (LOCKED)" : "";
-                System.out.printf(" %3d : %s [%s]%s%n", pid, pu.getQuestion(), pd.toUpperCase(), lock);
+                String lock = session.isLocked(pu) ? " (LOCKED)" : "";
+                System.out.printf(" %3d : %s [%s]%s%n", pu.getId(), pu.getQuestion(), pu.getDifficulty().name(), lock);
             }
             System.out.println("Commands: enter puzzle id to play it, 'list', 'inventory', 'logout', 'leaderboard'.");
         };
@@ -516,6 +436,8 @@ public class EscapeRoomGameUI {
 
         selectionLoop:
         while (true) {
+            // between puzzles: pick up content that was hot-reloaded since the last one
+            if (session.refresh()) System.out.println("(Puzzle content has been updated.)");
             System.out.print("\nSelect> ");
             String cmd = in.nextLine().trim();
             if (cmd.isEmpty()) continue;
@@ -525,6 +447,7 @@ public class EscapeRoomGameUI {
             if (cmd.equalsIgnoreCase("logout") || cmd.equalsIgnoreCase("exit")) {
                 long wallElapsed = (System.currentTimeMillis() / 1000L) - wallStart;
                 if (wallElapsed > 0) currentUser.getProgress().addTime(wallElapsed);
+                currentUser.getProgress().markActive();
                 DataLoader.saveUsers(userList.getAllUsers());
                 System.out.println("Saved progress. Logged out.");
                 loggedOut = true;
@@ -532,13 +455,16 @@ public class EscapeRoomGameUI {
             }
             int selId;
             try { selId = Integer.parseInt(cmd); } catch (NumberFormatException ex) { System.out.println("Unknown command. Type 'list' or enter a puzzle id."); continue; }
-            Puzzle p = puzzleById.get(selId);
+            Puzzle p = session.getCatalog().getIndex().byId(selId);
             if (p == null) { System.out.println("No puzzle with id: " + selId); continue; }
-            String pdRaw = p.getDifficulty() == null ? "easy" : p.getDifficulty().name().toLowerCase();
-            if (chosen != Difficulty.ALL && !pdRaw.equals(chosen.name().toLowerCase())) { System.out.println("This puzzle is not available for the chosen difficulty."); continue; }
+            if (chosen != Difficulty.ALL && p.getDifficulty() != chosen) { System.out.println("This puzzle is not available for the chosen difficulty."); continue; }
+            String pdRaw = p.getDifficulty().name().toLowerCase();
             if (currentUser.getProgress().hasCompletedByEither(p.getId(), p.getQuestion())) { System.out.println("You already completed this puzzle."); continue; }
 
             // Per-puzzle interactive loop
+            int hintPenalty = computeHintPenaltySeconds(pdRaw);
+            UnaryOperator<String> hintSpeech = h -> "[HINT] " + h + " (Penalty +" + formatSeconds(hintPenalty) + ")";
+            hintPrefetcher.prefetch(p.getId(), currentUser.getProgress().getHintsUsedFor(p.getId()), hintSpeech);
             printPuzzleIntro(p);
             System.out.println("\nPuzzle: " + p.getQuestion());
             String puzzleMessage = "\nPuzzle: " + p.getQuestion();
@@ -581,13 +507,13 @@ public class EscapeRoomGameUI {
                                 System.out.println(template != null ? template.getUseText() : "You use the " + name.name() + ".");
                                 // effects
                                 if (name == ItemName.KEY) {
-                                    if (p.isLocked()) { p.setLocked(false); System.out.println("The key turns — the lock clicks open. You can now attempt the puzzle."); }
+                                    if (session.isLocked(p)) { session.unlock(p); System.out.println("The key turns — the lock clicks open. You can now attempt the puzzle."); }
                                     else System.out.println("There is nothing to use the key on here.");
                                 }
                                 if (name == ItemName.TORCH) {
-                                    if (!p.isHiddenHintShown()) {
+                                    if (!session.isHiddenHintShown(p)) {
                                         String hidden = p.getHiddenHint();
-                                        if (hidden != null && !hidden.isEmpty()) { System.out.println("[TORCH] Revealed: " + hidden); p.setHiddenHintShown(true); }
+                                        if (hidden != null && !hidden.isEmpty()) { System.out.println("[TORCH] Revealed: " + hidden); session.markHiddenHintShown(p); }
                                         else System.out.println("The torch lights the room but reveals nothing new.");
                                     } else System.out.println("You already revealed the hidden details here.");
                                 }
@@ -604,35 +530,30 @@ public class EscapeRoomGameUI {
                 }
                 if (answer.equalsIgnoreCase("hint")) {
                     int used = currentUser.getProgress().getHintsUsedFor(p.getId());
-                    String nextHint = null;
-                    try { nextHint = hintList.getNextHintFor(p.getId(), used); } catch (Throwable ignore) {}
-                    if (nextHint == null) {
-                        List<String> local = hints.get(p.getId());
-                        if (local != null && used < local.size()) nextHint = local.get(used);
-                    }
+                    HintPrefetcher.Prefetched next = hintPrefetcher.take(p.getId(), used);
+                    String nextHint = next.getText();
                     if (nextHint == null) { System.out.println("No hints available."); }
                     else {
                         currentUser.getProgress().incrementHintsUsedFor(p.getId());
                         sessionHintsUsed++;
-                        int penalty = computeHintPenaltySeconds(pdRaw);
-                        currentUser.getProgress().addTime(penalty);
-                        System.out.println("[HINT] " + nextHint + " (Penalty +" + formatSeconds(penalty) + ")");
-                        String hintMessage = "[HINT] " + nextHint + " (Penalty +" + formatSeconds(penalty) + ")";
-                        Speek.speak(hintMessage);
+                        currentUser.getProgress().addTime(hintPenalty);
+                        System.out.println(hintSpeech.apply(nextHint));
+                        next.speak();
+                        hintPrefetcher.prefetch(p.getId(), used + 1, hintSpeech);
                         DataLoader.saveUsers(userList.getAllUsers());
                     }
                     continue;
                 }
 
                 // attempt answer (respect lock)
-                if (p.isLocked()) { 
+                if (session.isLocked(p)) { 
                     System.out.println("This puzzle is locked. Try to 'use KEY' first.");
                     String lockedMessage = "This puzzle is locked. Try to 'use KEY' first.";
                     Speek.speak(lockedMessage);
                     continue;
                 }
                 boolean correct = false;
-                try { correct = p.checkAnswer(answer); } catch (Exception e) { correct = false; }
+                try { correct = session.attempt(p, answer); } catch (Exception e) { correct = false; }
                 if (correct) {
                     System.out.println("Correct!");
                     String correctMessage = "Correct!";
@@ -667,9 +588,7 @@ public class EscapeRoomGameUI {
 
             // check if there are any puzzles left for chosen difficulty
             boolean anyLeft = false;
-            for (Puzzle pu : puzzleById.values()) {
-                String pd = pu.getDifficulty() == null ? "easy" : pu.getDifficulty().name().toLowerCase();
-                if (chosen != Difficulty.ALL && !pd.equals(chosen.name().toLowerCase())) continue;
+            for (Puzzle pu : session.getCatalog().getIndex().byDifficulty(chosen)) {
                 if (!currentUser.getProgress().hasCompletedByEither(pu.getId(), pu.getQuestion())) { anyLeft = true; break; }
             }
             if (!anyLeft) { System.out.println("All puzzles for the chosen difficulty are complete!"); break selectionLoop; }
@@ -678,6 +597,7 @@ public class EscapeRoomGameUI {
         if (!loggedOut) {
             long wallElapsed = (System.currentTimeMillis() / 1000L) - wallStart;
             if (wallElapsed > 0) currentUser.getProgress().addTime(wallElapsed);
+            currentUser.getProgress().markActive();
 
             System.out.println("\n===                 Haunted House Escaped                 ===");
             System.out.println("\nYOU'VE ESCAPED ME FOR NOW BUT THIS IS ONLY THE BEGINNING.....");
@@ -715,7 +635,9 @@ public class EscapeRoomGameUI {
 
             String diffStr = chosen == Difficulty.ALL ? "all" : chosen.name().toLowerCase();
             long totalTime = currentUser.getProgress().getTimeSpent();
-            updateLeaderboardJson(currentUser.getName(), currentUser.getProgress().getScore(), diffStr, totalTime);
+            LeaderboardService.getInstance().submit(currentUser.getName(), currentUser.getProgress().getScore(), diffStr, totalTime);
+            RunHistory.getInstance().record(currentUser.getName(), diffStr, currentUser.getProgress().getScore(), totalTime,
+                    puzzlesSolved, sessionHintsUsed);
             DataLoader.saveUsers(userList.getAllUsers());
             System.out.println("Progress saved.");
         }
@@ -833,22 +755,13 @@ public class EscapeRoomGameUI {
         // Load rooms to determine total puzzle count for the chosen difficulty
         int totalPuzzlesForDifficulty = 0;
         int completedCountForDifficulty = 0;
-        List<EscapeRoom> rooms = Collections.emptyList();
         try {
-            rooms = roomLoader.loadRooms("JSON/EscapeRoom.json");
-            for (EscapeRoom r : rooms) {
-                List<Puzzle> pz = r.getPuzzles();
-                if (pz == null) continue;
-                for (Puzzle pu : pz) {
-                    String pd = pu.getDifficulty() == null ? "easy" : pu.getDifficulty().name().toLowerCase();
-                    boolean matches = (chosen == Difficulty.ALL) || pd.equals(chosen.name().toLowerCase());
-                    if (matches) {
-                        totalPuzzlesForDifficulty++;
-                        // count as completed if progress contains the puzzle id OR the question string (compatibility)
-                        if (prog.hasCompletedByEither(pu.getId(), pu.getQuestion())) {
-                            completedCountForDifficulty++;
-                        }
-                    }
+            List<Puzzle> matching = RoomCatalog.load(RoomCatalog.DEFAULT_PATH).getIndex().byDifficulty(chosen);
+            totalPuzzlesForDifficulty = matching.size();
+            for (Puzzle pu : matching) {
+                // count as completed if progress contains the puzzle id OR the question string (compatibility)
+                if (prog.hasCompletedByEither(pu.getId(), pu.getQuestion())) {
+                    completedCountForDifficulty++;
                 }
             }
         } catch (IOException e) {
@@ -894,29 +807,18 @@ public class EscapeRoomGameUI {
                 int idx = e.getKey();
                 int count = e.getValue();
                 System.out.printf("  - Puzzle index %d : %d hint(s) used%n", idx, count);
-                // If we have a HintList entry, print the actual hints that were used (up to 'count')
+                // print the actual hints that were used (up to 'count')
                 try {
-                    Hint h = hintList.getHint(idx);
-                    if (h != null) {
-                        for (int i = 0; i < Math.min(count, h.getCount()); i++) {
-                            System.out.printf("Hint %d: %s%n", i+1, h.getNextHint(i));
+                    List<String> texts = HintRepository.getInstance().hintsFor(idx);
+                    if (!texts.isEmpty()) {
+                        for (int i = 0; i < Math.min(count, texts.size()); i++) {
+                            System.out.printf("Hint %d: %s%n", i+1, texts.get(i));
                         }
-                        if (count > h.getCount()) {
-                            System.out.printf("(user used %d hints; only %d hints are in hints.txt)%n", count, h.getCount());
+                        if (count > texts.size()) {
+                            System.out.printf("(user used %d hints; only %d hints are in hints.txt)%n", count, texts.size());
                         }
                     } else {
-                        // try fallback local hints map
-                        List<String> local = hints.get(idx);
-                        if (local != null && !local.isEmpty()) {
-                            for (int i = 0; i < Math.min(count, local.size()); i++) {
-                                System.out.printf("Hint %d: %s%n", i+1, local.get(i));
-                            }
-                            if (count > local.size()) {
-                                System.out.printf("(user used %d hints; only %d hints are in hints.txt)%n", count, local.size());
-                            }
-                        } else {
-                            System.out.println("(no hint texts available for this puzzle)");
-                        }
+                        System.out.println("(no hint texts available for this puzzle)");
                     }
                 } catch (Throwable ignore) {
                     System.out.println("(hint text lookup failed)");
@@ -924,68 +826,4 @@ public class EscapeRoomGameUI {
             }
         }
     }
-    
-
-    // Leaderboard helpers
-
-    /**
-     * Read the leaderboard JSON file and return a JSONArray (empty if missing or unreadable).
-     *
-     * @return parsed leaderboard array or an empty JSONArray
-     */
-    private JSONArray loadLeaderboardJson() {
-        JSONParser parser = new JSONParser();
-        try (FileReader fr = new FileReader(LEADERBOARD_PATH)) {
-            Object obj = parser.parse(fr);
-            if (obj instanceof JSONArray) return (JSONArray) obj;
-            else return new JSONArray();
-        } catch (FileNotFoundException e) { return new JSONArray(); }
-        catch (IOException | ParseException e) { System.err.println("Failed to read leaderboard.json: " + e.getMessage()); return new JSONArray(); }
-    }
-
-    /**
-     * Update or append an entry in the leaderboard file. If an entry for the same user
-     * and difficulty exists, it is replaced only if the new score is higher or the same
-     * score was achieved in less time.
-     *
-     * @param username player's name
-     * @param newScore player's score
-     * @param difficulty difficulty key (lowercase or "all")
-     * @param newTimeSpent total time in seconds for this player
-     */
-    @SuppressWarnings("unchecked")
-    private void updateLeaderboardJson(String username, long newScore, String difficulty, long newTimeSpent) {
-        if (username == null) return;
-        JSONArray arr = loadLeaderboardJson();
-        boolean updatedOrAdded = false;
-        for (Object o : arr) {
-            if (!(o instanceof JSONObject)) continue;
-            JSONObject entry = (JSONObject) o;
-            String user = String.valueOf(entry.getOrDefault("username", ""));
-            String diff = String.valueOf(entry.getOrDefault("difficulty", "all")).toLowerCase();
-            if (user.equals(username) && diff.equals(difficulty.toLowerCase())) {
-                long oldScore = ((Number) entry.getOrDefault("score", 0)).longValue();
-                long oldTime = ((Number) entry.getOrDefault("timeSpent", Long.MAX_VALUE)).longValue();
-                if (newScore > oldScore || (newScore == oldScore && newTimeSpent < oldTime)) {
-                    entry.put("score", newScore);
-                    entry.put("timeSpent", newTimeSpent);
-                    entry.put("timestamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date()));
-                }
-                updatedOrAdded = true;
-                break;
-            }
-        }
-        if (!updatedOrAdded) {
-            JSONObject newEntry = new JSONObject();
-            newEntry.put("username", username);
-            newEntry.put("score", newScore);
-            newEntry.put("difficulty", difficulty.toLowerCase());
-            newEntry.put("timeSpent", newTimeSpent);
-            newEntry.put("timestamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date()));
-            arr.add(newEntry);
-        }
-        try (FileWriter fw = new FileWriter(LEADERBOARD_PATH)) {
-            fw.write(arr.toJSONString()); fw.flush();
-        } catch (IOException e) { System.err.println("Failed to write leaderboard.json: " + e.getMessage()); }
-    }
 }
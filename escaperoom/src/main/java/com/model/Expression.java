@@ -0,0 +1,150 @@
+package com.model;
+
+import java.util.Arrays;
+
+/**
+ * A compiled arithmetic expression, as used by {@link MathPuzzle} equations.
+ *
+ * {@link #compile(String)} parses text like "Solve: 14 * 27 / 9" once into a postfix
+ * program (a constant pool plus an opcode array) that {@link #evaluate()} runs on a small
+ * array stack, without re-reading the text. Anything before a ':' is treated as a prompt
+ * and anything from a '=' or '?' on is ignored. Supported: numbers with an optional
+ * fraction, + - * / (also x, × and ÷), unary minus and parentheses, with the usual
+ * precedence. Numbers are read with {@link NumberScanner}, the same scanner answer
+ * checks use.
+ */
+public final class Expression {
+    private static final byte PUSH = 0, ADD = 1, SUB = 2, MUL = 3, DIV = 4, NEG = 5;
+
+    private final String text;
+    private final byte[] code;
+    private final double[] constants;
+    private final int maxStack;
+
+    private Expression(String text, byte[] code, double[] constants, int maxStack) {
+        this.text = text;
+        this.code = code;
+        this.constants = constants;
+        this.maxStack = maxStack;
+    }
+
+    /**
+     * Compiles an equation.
+     *
+     * @param text the equation, optionally prefixed by a prompt ending in ':'
+     * @return the compiled expression, or null if the text is not a well-formed expression
+     */
+    public static Expression compile(String text) {
+        if (text == null) return null;
+        int from = text.lastIndexOf(':') + 1;
+        int to = text.length();
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '=' || c == '?') { to = i; break; }
+        }
+        Parser p = new Parser(text, from, to);
+        if (!p.expr() || p.skipSpace() != to || p.codeLen == 0) return null;
+        return new Expression(text, Arrays.copyOf(p.code, p.codeLen), Arrays.copyOf(p.constants, p.constLen), p.maxDepth);
+    }
+
+    /**
+     * Runs the compiled program.
+     *
+     * @return the value (infinite or NaN on division by zero)
+     */
+    public double evaluate() {
+        double[] stack = new double[maxStack];
+        int sp = 0, k = 0;
+        for (byte op : code) {
+            switch (op) {
+                case PUSH: stack[sp++] = constants[k++]; break;
+                case NEG: stack[sp - 1] = -stack[sp - 1]; break;
+                case ADD: sp--; stack[sp - 1] += stack[sp]; break;
+                case SUB: sp--; stack[sp - 1] -= stack[sp]; break;
+                case MUL: sp--; stack[sp - 1] *= stack[sp]; break;
+                default:  sp--; stack[sp - 1] /= stack[sp]; break;
+            }
+        }
+        return stack[0];
+    }
+
+    /** @return the text this expression was compiled from */
+    public String getText() { return text; }
+
+    /** Recursive descent over [pos, end), emitting postfix code. */
+    private static final class Parser {
+        private final String s;
+        private final int end;
+        private int pos;
+        byte[] code = new byte[16];
+        double[] constants = new double[8];
+        int codeLen, constLen, depth, maxDepth;
+
+        Parser(String s, int from, int to) {
+            this.s = s;
+            this.pos = from;
+            this.end = to;
+        }
+
+        int skipSpace() {
+            while (pos < end && java.lang.Character.isWhitespace(s.charAt(pos))) pos++;
+            return pos;
+        }
+
+        boolean expr() {
+            if (!term()) return false;
+            while (skipSpace() < end) {
+                char c = s.charAt(pos);
+                if (c != '+' && c != '-') break;
+                pos++;
+                if (!term()) return false;
+                emit(c == '+' ? ADD : SUB, -1);
+            }
+            return true;
+        }
+
+        boolean term() {
+            if (!factor()) return false;
+            while (skipSpace() < end) {
+                char c = s.charAt(pos);
+                boolean mul = c == '*' || c == 'x' || c == 'X' || c == '×';
+                if (!mul && c != '/' && c != '÷') break;
+                pos++;
+                if (!factor()) return false;
+                emit(mul ? MUL : DIV, -1);
+            }
+            return true;
+        }
+
+        boolean factor() {
+            if (skipSpace() >= end) return false;
+            char c = s.charAt(pos);
+            if (c == '-' || c == '+') {
+                pos++;
+                if (!factor()) return false;
+                if (c == '-') emit(NEG, 0);
+                return true;
+            }
+            if (c == '(') {
+                pos++;
+                if (!expr() || skipSpace() >= end || s.charAt(pos) != ')') return false;
+                pos++;
+                return true;
+            }
+            int stop = NumberScanner.scanDecimal(s, pos, end);
+            if (stop == pos) return false;
+            if (constLen == constants.length) constants = Arrays.copyOf(constants, constLen * 2);
+            constants[constLen++] = NumberScanner.decimalValue(s, pos, stop);
+            pos = stop;
+            emit(PUSH, 1);
+            return true;
+        }
+
+        private void emit(byte op, int stackDelta) {
+            if (codeLen == code.length) code = Arrays.copyOf(code, codeLen * 2);
+            code[codeLen++] = op;
+            depth += stackDelta;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Optional typo tolerance for riddle and trivia answers.
+ *
+ * When enabled, an answer that is not an exact (normalized) match is still accepted if it
+ * is within k edits (insert, delete or substitute one character) of an accepted answer,
+ * where k comes from a per-{@link Difficulty} table. Short answers get less slack: an
+ * answer of n characters allows at most (n - 1) / 4 edits, so "lead" never accepts "load".
+ *
+ * The distance check is a Levenshtein DP restricted to the diagonal band of width 2k + 1,
+ * stopping as soon as a whole row exceeds k. Its two rows live in per-thread buffers that
+ * are reused, so a check allocates nothing once the buffers have grown to the longest
+ * answer seen.
+ *
+ * Off by default; switch on with {@link #setEnabled(boolean)} or
+ * {@code -Descaperoom.fuzzyAnswers=true}.
+ */
+public final class FuzzyMatch {
+    // edits allowed per Difficulty ordinal; replaced (never written) so readers need no lock
+    private static volatile int[] maxEdits = defaultMaxEdits();
+    private static volatile boolean enabled = Boolean.getBoolean("escaperoom.fuzzyAnswers");
+
+    private static int[] defaultMaxEdits() {
+        int[] k = new int[Difficulty.values().length];
+        k[Difficulty.EASY.ordinal()] = 2;
+        k[Difficulty.MEDIUM.ordinal()] = 1;
+        k[Difficulty.HARD.ordinal()] = 0;
+        k[Difficulty.ALL.ordinal()] = 1;
+        return k;
+    }
+
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    private FuzzyMatch() { }
+
+    /** @return true if typo tolerance is switched on */
+    public static boolean isEnabled() { return enabled; }
+
+    /** Switches typo tolerance on or off for every puzzle. */
+    public static void setEnabled(boolean on) { enabled = on; }
+
+    /**
+     * @param difficulty a puzzle difficulty (null counts as EASY)
+     * @return edits allowed at that difficulty, or 0 while typo tolerance is off
+     */
+    public static int maxEdits(Difficulty difficulty) {
+        if (!enabled) return 0;
+        return maxEdits[(difficulty == null ? Difficulty.EASY : difficulty).ordinal()];
+    }
+
+    /**
+     * Sets the edits allowed at one difficulty.
+     *
+     * @param difficulty the difficulty
+     * @param edits      0 or more
+     */
+    public static synchronized void setMaxEdits(Difficulty difficulty, int edits) {
+        if (difficulty == null || edits < 0) {
+            System.err.println("Ignoring max edits " + edits + " for " + difficulty);
+            return;
+        }
+        int[] k = maxEdits.clone();
+        k[difficulty.ordinal()] = edits;
+        maxEdits = k;
+    }
+
+    /**
+     * Edits allowed against an accepted answer of a given length.
+     *
+     * @param k      the difficulty's allowance
+     * @param length length of the accepted answer
+     * @return min(k, (length - 1) / 4)
+     */
+    static int allowance(int k, int length) {
+        return Math.min(k, Math.max(0, (length - 1) / 4));
+    }
+
+    /**
+     * Bounded Levenshtein distance test.
+     *
+     * @param a first string
+     * @param b second string
+     * @param k maximum edits
+     * @return true if a can be turned into b with at most k edits
+     */
+    public static boolean within(CharSequence a, CharSequence b, int k) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > k) return false;
+        if (k == 0) {
+            for (int i = 0; i < n; i++) if (a.charAt(i) != b.charAt(i)) return false;
+            return true;
+        }
+        int[][] rows = ROWS.get();
+        if (rows[0].length <= m) {
+            rows[0] = new int[m + 32];
+            rows[1] = new int[m + 32];
+        }
+        int[] prev = rows[0], cur = rows[1];
+        int big = k + 1;
+        for (int j = 0; j <= m; j++) prev[j] = j <= k ? j : big;
+
+        for (int i = 1; i <= n; i++) {
+            int lo = Math.max(1, i - k), hi = Math.min(m, i + k);
+            cur[0] = i <= k ? i : big;
+            if (lo > 1) cur[lo - 1] = big;
+            int rowMin = cur[0];
+            char ca = a.charAt(i - 1);
+            for (int j = lo; j <= hi; j++) {
+                int v = prev[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                if (prev[j] + 1 < v) v = prev[j] + 1;
+                if (cur[j - 1] + 1 < v) v = cur[j - 1] + 1;
+                cur[j] = v > big ? big : v;
+                if (v < rowMin) rowMin = v;
+            }
+            if (hi < m) cur[hi + 1] = big;
+            if (rowMin > k) return false;
+            int[] t = prev; prev = cur; cur = t;
+        }
+        return prev[m] <= k;
+    }
+
+    /**
+     * Throughput check: {@code FuzzyMatch [acceptedAnswers] [checks]}.
+     * Builds one key with the given number of random accepted answers and times exact
+     * hits, near misses (one typo) and misses against it, then per-puzzle typo checks
+     * over a generated catalog of the same size.
+     */
+    public static void main(String[] args) {
+        int answers = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int checks = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        setEnabled(true);
+
+        Random rnd = new Random(7);
+        List<String> words = new ArrayList<>(answers);
+        while (words.size() < answers) words.add(randomWord(rnd, 4 + rnd.nextInt(14)));
+        AnswerKey key = AnswerKey.of(null, words);
+
+        String[] hits = new String[checks], typos = new String[checks], misses = new String[checks];
+        for (int i = 0; i < checks; i++) {
+            String w = words.get(i % answers);
+            hits[i] = w;
+            int at = w.length() / 2;
+            typos[i] = w.substring(0, at) + (char) ('a' + (w.charAt(at) - 'a' + 1) % 26) + w.substring(at + 1);
+            misses[i] = randomWord(rnd, 4 + rnd.nextInt(14));
+        }
+        bench("exact hits", key, hits);
+        bench("one typo", key, typos);
+        bench("misses", key, misses);
+
+        PuzzleGenerator gen = new PuzzleGenerator(7);
+        List<Puzzle> catalog = new ArrayList<>(answers);
+        for (int i = 0; i < answers; i++) {
+            catalog.add(gen.generate(i, i % 2 == 0 ? PuzzleGenerator.Kind.RIDDLE : PuzzleGenerator.Kind.TRIVIA, Difficulty.EASY));
+        }
+        String[] typed = new String[answers];
+        for (int i = 0; i < answers; i++) {
+            Puzzle p = catalog.get(i);
+            typed[i] = (p instanceof RiddlePuzzle ? ((RiddlePuzzle) p).getAnswer() : ((TriviaPuzzle) p).getAnswer()) + "s";
+        }
+        long t0 = System.nanoTime();
+        int ok = 0;
+        for (int i = 0; i < checks; i++) if (catalog.get(i % answers).matches(typed[i % answers])) ok++;
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("per-puzzle typo checks: %,.0f/s (%d accepted)%n", checks / secs, ok);
+    }
+
+    private static String randomWord(Random rnd, int length) {
+        char[] c = new char[length];
+        for (int i = 0; i < length; i++) c[i] = (char) ('a' + rnd.nextInt(26));
+        return new String(c);
+    }
+
+    private static void bench(String label, AnswerKey key, String[] inputs) {
+        for (int warm = 0; warm < 2; warm++) for (String s : inputs) key.matches(s, 2);
+        long t0 = System.nanoTime();
+        int ok = 0;
+        for (String s : inputs) if (key.matches(s, 2)) ok++;
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%-10s vs %,d answers: %,.0f checks/s (%d accepted)%n", label, key.forms().size(), inputs.length / secs, ok);
+    }
+}
@@ -9,10 +9,15 @@ import java.util.List;
  * This class holds an integer {@code index} (the puzzle id) and an ordered
  * {@code List<String>} of hints. Hints should be added in increasing specificity
  * (e.g., easiest -> most direct).
+ *
+ * A Hint made by {@link #of(int, List)} reads straight from the shared {@link HintIndex}
+ * view, so only the hints actually asked for are decoded; the list is copied the first time
+ * it is handed out for modification.
  */
 public class Hint {
     private final int index;          // global puzzle index (1-based)
-    private final List<String> hints; // ordered hints
+    private List<String> hints;       // ordered hints
+    private boolean shared;           // hints is a read-only view, copy before writing
 
     /**
      * Create a Hint container for the given puzzle index.
@@ -36,6 +41,28 @@ public class Hint {
         if (hints != null) this.hints.addAll(hints);
     }
 
+    /**
+     * Wrap a read-only hint list without copying it.
+     *
+     * @param index global puzzle index.
+     * @param hints the puzzle's hints, e.g. from {@link HintIndex#get(int)}.
+     * @return a Hint reading from that list.
+     */
+    static Hint of(int index, List<String> hints) {
+        Hint h = new Hint(index);
+        h.hints = hints;
+        h.shared = true;
+        return h;
+    }
+
+    private List<String> own() {
+        if (shared) {
+            hints = new ArrayList<>(hints);
+            shared = false;
+        }
+        return hints;
+    }
+
     /**
      * Get the puzzle index this hint set belongs to.
      *
@@ -51,7 +78,7 @@ public class Hint {
      * @return modifiable list of hints (may be empty).
      */
     public List<String> getHints() {
-        return hints;
+        return own();
     }
 
     /**
@@ -84,7 +111,7 @@ public class Hint {
      * @param hint hint text to add; ignored if null or blank.
      */
     public void addHint(String hint) {
-        if (hint != null && !hint.isBlank()) hints.add(hint.trim());
+        if (hint != null && !hint.isBlank()) own().add(hint.trim());
     }
 }
 
@@ -0,0 +1,373 @@
+package com.model;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only snapshot of hints.txt: puzzle id -> ordered hints.
+ *
+ * Expected format (UTF-8), one puzzle per line:
+ *  id|hint1, hint2, hint3
+ *
+ * Lines without a numeric id or without any hint are skipped.
+ *
+ * The hints are held in a compiled binary image rather than as strings (big-endian):
+ *
+ *  header   magic "ERHS", version, modification time and byte length of the hints.txt it came from
+ *  table    count x (id, first hint, hint count), ascending by id
+ *  offsets  hint count + 1 blob offsets
+ *  blob     the UTF-8 text of every hint
+ *
+ * The build compiles hints.txt to {@link #STORE_RESOURCE} (see {@link #main(String[])}),
+ * which {@link #load()} maps, so startup reads a header and nothing else however large the
+ * corpus is. A lookup is a binary search over the mapped table, and a hint's text is only
+ * decoded when it is read from the returned list; hints.txt parsed at runtime is compiled
+ * into the same layout in memory. Lists are unmodifiable, so one index can be shared by
+ * every session; {@link RoomCatalog#getHintsFor(int)} goes one step further and indexes by
+ * dense puzzle index.
+ */
+public final class HintIndex {
+    /** Classpath location of the hints shipped with the game. */
+    public static final String RESOURCE = "/com/example/hints.txt";
+    /** Classpath location the build writes the compiled hints to. */
+    public static final String STORE_RESOURCE = "/com/model/hints.store";
+
+    static final int MAGIC = 0x45524853; // "ERHS"
+    static final short VERSION = 2;
+    private static final int HEADER = 30;
+    private static final int ENTRY = 12;
+
+    private static final HintIndex EMPTY = of(Collections.emptyMap());
+
+    private final ByteBuffer buf;
+    private final long sourceModified;
+    private final long sourceLength;
+    private final int count;     // puzzles with hints
+    private final int offsetsAt;
+    private final int blobAt;
+
+    private HintIndex(ByteBuffer buf) throws IOException {
+        this.buf = buf;
+        try {
+            if (buf.getInt(0) != MAGIC) throw new IOException("not a hint store");
+            if (buf.getShort(4) != VERSION) throw new IOException("unsupported hint store version " + buf.getShort(4));
+            sourceModified = buf.getLong(6);
+            sourceLength = buf.getLong(14);
+            count = buf.getInt(22);
+            int hintCount = buf.getInt(26);
+            offsetsAt = HEADER + count * ENTRY;
+            blobAt = offsetsAt + 4 * (hintCount + 1);
+            if (blobAt + buf.getInt(blobAt - 4) > buf.limit()) throw new IOException("truncated hint store");
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("truncated hint store");
+        }
+    }
+
+    /** @return an index with no hints */
+    public static HintIndex empty() { return EMPTY; }
+
+    /**
+     * Opens a compiled image held in a buffer (e.g. a section of the content bundle).
+     *
+     * @param image the image; read with absolute gets only, so it may be shared
+     * @return the index
+     * @throws IOException if the buffer is not a hint store
+     */
+    static HintIndex wrap(ByteBuffer image) throws IOException {
+        return new HintIndex(image);
+    }
+
+    /**
+     * Maps a compiled hint store read-only.
+     *
+     * @param store the file written by {@link #compile(Path, Path)}
+     * @return the index
+     * @throws IOException if the file cannot be read or is not a hint store
+     */
+    public static HintIndex open(Path store) throws IOException {
+        try (FileChannel ch = FileChannel.open(store, StandardOpenOption.READ)) {
+            return new HintIndex(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Loads hints from the first of these that exists: the compiled
+     * {@link #STORE_RESOURCE} (unless hints.txt has changed since it was built), the
+     * classpath resources {@link #RESOURCE}, /hints.txt and /com/model/hints.txt, then
+     * JSON/hints.txt, hints.txt and escaperoom/src/main/java/com/model/hints.txt under
+     * the working directory. Nothing found gives an empty index. Only
+     * {@link HintRepository} should need to call this.
+     *
+     * @return the loaded hints
+     */
+    public static HintIndex load() {
+        HintIndex store = openDefaultStore();
+        if (store != null) return store;
+        for (String res : new String[] { RESOURCE, "/hints.txt", "/com/model/hints.txt" }) {
+            InputStream in = HintIndex.class.getResourceAsStream(res);
+            if (in == null) continue;
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                return parse(br);
+            } catch (IOException e) {
+                System.err.println("Failed to read hints from " + res + ": " + e.getMessage());
+            }
+        }
+        String dir = System.getProperty("user.dir");
+        for (String cand : new String[] { "JSON/hints.txt", "hints.txt", "escaperoom/src/main/java/com/model/hints.txt" }) {
+            Path file = Paths.get(dir, cand);
+            if (!Files.isRegularFile(file)) continue;
+            try {
+                return load(file);
+            } catch (IOException e) {
+                System.err.println("Failed to read hints from " + file + ": " + e.getMessage());
+            }
+        }
+        return EMPTY;
+    }
+
+    private static HintIndex openDefaultStore() {
+        URL url = HintIndex.class.getResource(STORE_RESOURCE);
+        if (url == null) return null;
+        try {
+            HintIndex store;
+            if ("file".equals(url.getProtocol())) {
+                store = open(Paths.get(URI.create(url.toString())));
+            } else {
+                try (InputStream in = url.openStream()) {
+                    store = new HintIndex(ByteBuffer.wrap(in.readAllBytes()));
+                }
+            }
+            if (!store.isFresh()) {
+                System.out.println("Hint store is out of date; reading " + RESOURCE + " instead.");
+                return null;
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring hint store " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Staleness check at startup against {@link #RESOURCE} when that is a plain file. Edits
+     * made while the game runs reach the game through
+     * {@link RoomCatalog#reload(String, Path)} instead, and the build recompiles the store
+     * whenever it copies a new hints.txt.
+     *
+     * @return false if the source is known to have changed since the store was compiled
+     */
+    boolean isFresh() {
+        URL src = HintIndex.class.getResource(RESOURCE);
+        if (src == null || !"file".equals(src.getProtocol())) return true;
+        return isFreshAgainst(Paths.get(URI.create(src.toString())));
+    }
+
+    /**
+     * Compares a hints.txt with the length and modification time recorded when this store
+     * was compiled. Only the file's attributes are read, so the check costs the same however
+     * large the corpus is.
+     *
+     * @param hintsTxt the source file
+     * @return false if it differs from the one the store came from
+     */
+    boolean isFreshAgainst(Path hintsTxt) {
+        if (sourceLength < 0) return true;
+        try {
+            return Files.size(hintsTxt) == sourceLength
+                    && Files.getLastModifiedTime(hintsTxt).toMillis() == sourceModified;
+        } catch (IOException | RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Loads hints from a hints.txt file.
+     *
+     * @param file the hints file
+     * @return the parsed hints
+     * @throws IOException if the file cannot be read
+     */
+    public static HintIndex load(Path file) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(br);
+        }
+    }
+
+    /**
+     * Parses hints.txt content.
+     *
+     * @param br reader over the file
+     * @return the parsed hints
+     * @throws IOException if reading fails
+     */
+    public static HintIndex parse(BufferedReader br) throws IOException {
+        return of(parseLines(br));
+    }
+
+    private static Map<Integer, List<String>> parseLines(BufferedReader br) throws IOException {
+        Map<Integer, List<String>> parsed = new HashMap<>();
+        String line;
+        while ((line = br.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            String[] parts = line.split("\\|", 2);
+            if (parts.length < 2) continue;
+            int id;
+            try { id = Integer.parseInt(parts[0].trim()); }
+            catch (NumberFormatException ex) { continue; }
+            List<String> list = new ArrayList<>();
+            for (String p : parts[1].split(",")) {
+                String t = p.trim();
+                if (!t.isEmpty()) list.add(t);
+            }
+            if (!list.isEmpty()) parsed.put(id, list);
+        }
+        return parsed;
+    }
+
+    static HintIndex of(Map<Integer, List<String>> parsed) {
+        try {
+            return new HintIndex(ByteBuffer.wrap(encode(parsed, -1, -1)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // an in-memory image is always well formed
+        }
+    }
+
+    /**
+     * Compiles a hints.txt file into a store that {@link #open(Path)} can map.
+     *
+     * @param hintsTxt the source
+     * @param out      where to write the store
+     * @return the compiled hints
+     * @throws IOException if the source cannot be read or the store cannot be written
+     */
+    public static HintIndex compile(Path hintsTxt, Path out) throws IOException {
+        // attributes first: an edit made while the file is read leaves the store stale
+        long modified = Files.getLastModifiedTime(hintsTxt).toMillis();
+        byte[] source = Files.readAllBytes(hintsTxt);
+        Map<Integer, List<String>> parsed;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8))) {
+            parsed = parseLines(br);
+        }
+        byte[] image = encode(parsed, modified, source.length);
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        Files.write(tmp, image);
+        Files.move(tmp, out, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        return new HintIndex(ByteBuffer.wrap(image));
+    }
+
+    private static byte[] encode(Map<Integer, List<String>> parsed, long modified, long length) throws IOException {
+        int[] ids = new int[parsed.size()];
+        int n = 0;
+        for (Integer id : parsed.keySet()) ids[n++] = id;
+        Arrays.sort(ids);
+
+        List<byte[]> texts = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int hintCount = 0;
+        for (int id : ids) hintCount += parsed.get(id).size();
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(modified);
+        out.writeLong(length);
+        out.writeInt(ids.length);
+        out.writeInt(hintCount);
+        for (int id : ids) {
+            out.writeInt(id);
+            out.writeInt(texts.size());
+            out.writeInt(parsed.get(id).size());
+            for (String h : parsed.get(id)) texts.add(h.getBytes(StandardCharsets.UTF_8));
+        }
+        int off = 0;
+        out.writeInt(0);
+        for (byte[] t : texts) out.writeInt(off += t.length);
+        for (byte[] t : texts) out.write(t);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /** @return the compiled image, for embedding in the content bundle */
+    byte[] image() {
+        byte[] b = new byte[buf.limit()];
+        buf.get(0, b);
+        return b;
+    }
+
+    /** @return the hints for a puzzle id, in order (empty if none); texts decode on read */
+    public List<String> get(int id) {
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int at = HEADER + mid * ENTRY;
+            int v = buf.getInt(at);
+            if (v < id) lo = mid + 1;
+            else if (v > id) hi = mid - 1;
+            else return new Hints(buf.getInt(at + 4), buf.getInt(at + 8));
+        }
+        return Collections.emptyList();
+    }
+
+    /** One puzzle's hints as a view over the image. */
+    private final class Hints extends AbstractList<String> implements RandomAccess {
+        private final int first;
+        private final int size;
+
+        Hints(int first, int size) {
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public String get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("hint " + i + " of " + size);
+            int k = first + i;
+            int start = buf.getInt(offsetsAt + 4 * k);
+            int end = buf.getInt(offsetsAt + 4 * (k + 1));
+            byte[] b = new byte[end - start];
+            buf.get(blobAt + start, b);
+            return new String(b, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    /** @return the puzzle ids that have hints, ascending */
+    public int[] ids() {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) ids[i] = buf.getInt(HEADER + i * ENTRY);
+        return ids;
+    }
+
+    /** @return number of puzzles with hints */
+    public int size() { return count; }
+
+    /**
+     * Build step: {@code HintIndex <hints.txt> <out.store>} compiles hints.txt into the
+     * binary store that {@link #load()} maps at startup.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: HintIndex <hints.txt> <out.store>");
+            System.exit(2);
+        }
+        try {
+            HintIndex compiled = compile(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println("Hint store written to " + args[1] + " (entries: " + compiled.size() + ")");
+        } catch (IOException e) {
+            System.err.println("Could not compile hints: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
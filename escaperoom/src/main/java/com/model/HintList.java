@@ -1,14 +1,13 @@
 package com.model;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 
 /**
- * Loads and provides lookup for hint entries read from a hints.txt file.
+ * Loads and provides lookup for hint entries read from a specific hints.txt file
+ * (tools and tests). The game itself uses the shared {@link HintRepository}.
  *
  * Expected hints.txt format (UTF-8):
  *  index|hint1, hint2, hint3
@@ -16,7 +15,7 @@ import java.util.*;
  * Index is 1-based and should match the global puzzle ordering used by RoomLoader.
  */
 public class HintList {
-    private final Map<Integer, Hint> hints = new HashMap<>();
+    private HintIndex hints = HintIndex.empty();
     private final String[] defaultCandidates;
 
     /**
@@ -61,46 +60,22 @@ public class HintList {
     }
 
     /**
-     * Parse the file at the given path and populate the internal hints map.
+     * Parse the file at the given path with {@link HintIndex} and keep the result.
      * Commits parsed hints only if at least one valid entry was found.
      *
      * @param path path to the hints file
      * @return the same path on success, or null on failure
      */
     private String loadFromPath(String path) {
-        Map<Integer, Hint> tmp = new HashMap<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                String[] parts = line.split("\\|", 2);
-                if (parts.length < 2) continue;
-                int idx;
-                try { idx = Integer.parseInt(parts[0].trim()); }
-                catch (NumberFormatException ex) { continue; }
-                String[] pieces = parts[1].split(",");
-                List<String> list = new ArrayList<>();
-                for (String p : pieces) {
-                    String t = p.trim();
-                    if (!t.isEmpty()) list.add(t);
-                }
-                if (!list.isEmpty()) {
-                    Hint h = new Hint(idx, list);
-                    tmp.put(idx, h);
-                }
-            }
-            // commit parsed hints only if we parsed at least one
-            if (!tmp.isEmpty()) {
-                hints.clear();
-                hints.putAll(tmp);
-                return path;
-            } else {
-                return null;
-            }
+        HintIndex parsed;
+        try {
+            parsed = HintIndex.load(Paths.get(path));
         } catch (IOException e) {
             return null;
         }
+        if (parsed.size() == 0) return null;
+        hints = parsed;
+        return path;
     }
 
     /**
@@ -110,7 +85,8 @@ public class HintList {
      * @return the {@link Hint} if present, otherwise null
      */
     public Hint getHint(int globalIndex) {
-        return hints.get(globalIndex);
+        List<String> list = hints.get(globalIndex);
+        return list.isEmpty() ? null : Hint.of(globalIndex, list);
     }
 
     /**
@@ -122,9 +98,9 @@ public class HintList {
      * @return the next hint string, or null if no hint is available
      */
     public String getNextHintFor(int globalIndex, int alreadyUsed) {
-        Hint h = getHint(globalIndex);
-        if (h == null) return null;
-        return h.getNextHint(alreadyUsed);
+        List<String> list = hints.get(globalIndex);
+        if (alreadyUsed < 0) alreadyUsed = 0;
+        return alreadyUsed < list.size() ? list.get(alreadyUsed) : null;
     }
 
     /**
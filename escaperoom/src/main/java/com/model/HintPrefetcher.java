@@ -0,0 +1,188 @@
+package com.model;
+
+import com.speech.Narration;
+import com.speech.Speek;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Gets a player's next hint ready before they ask for it.
+ *
+ * When a puzzle is opened the screen calls {@link #prefetch} with the number of hints the
+ * player has already used on it ({@link Progress#getHintsUsedFor(int)}); the hint text is
+ * looked up and, if narration is on, synthesized to audio on a background thread. The
+ * "hint" command then {@link #take}s the prepared entry, so showing and speaking it costs
+ * neither a lookup nor synthesis. Asking before the background work is done, or for a hint
+ * that wasn't prefetched, still works: the text is looked up directly and spoken live.
+ *
+ * One prefetcher belongs to one play session and keeps only the last few puzzles.
+ */
+public final class HintPrefetcher {
+    private static final int CAPACITY = 8;
+    private static ExecutorService background;
+
+    private final IntFunction<List<String>> hints;
+    private final Function<String, Narration> renderer; // null: no narration
+    private final Executor executor;
+
+    private final Map<Integer, Prefetched> cache = new LinkedHashMap<Integer, Prefetched>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Prefetched> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    /**
+     * @param hints   puzzle id -> its hints in order (e.g. the session catalog's getHintsFor)
+     * @param narrate true to also synthesize each hint's narration ahead of time
+     */
+    public HintPrefetcher(IntFunction<List<String>> hints, boolean narrate) {
+        this(hints, narrate ? Speek::render : null, sharedExecutor());
+    }
+
+    HintPrefetcher(IntFunction<List<String>> hints, Function<String, Narration> renderer, Executor executor) {
+        this.hints = hints;
+        this.renderer = renderer;
+        this.executor = executor;
+    }
+
+    private static synchronized ExecutorService sharedExecutor() {
+        if (background == null) {
+            background = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "hint-prefetch");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return background;
+    }
+
+    /**
+     * Starts preparing a puzzle's next hint without narration.
+     *
+     * @see #prefetch(int, int, UnaryOperator)
+     */
+    public void prefetch(int puzzleId, int used) {
+        prefetch(puzzleId, used, null);
+    }
+
+    /**
+     * Starts preparing a puzzle's next hint in the background. Does nothing if that hint
+     * is already prepared or being prepared.
+     *
+     * @param puzzleId external puzzle id
+     * @param used     hints the player has already used on it
+     * @param spoken   turns the hint into what should be said (null: the hint itself)
+     */
+    public synchronized void prefetch(int puzzleId, int used, UnaryOperator<String> spoken) {
+        Prefetched p = cache.get(puzzleId);
+        if (p != null && p.used == used) return;
+        CompletableFuture<String> text = CompletableFuture.supplyAsync(() -> lookup(puzzleId, used), executor);
+        CompletableFuture<Narration> audio = renderer == null
+                ? CompletableFuture.completedFuture(null)
+                : text.thenApplyAsync(h -> h == null ? null : render(spokenForm(spoken, h)), executor);
+        cache.put(puzzleId, new Prefetched(used, text, audio, spoken));
+    }
+
+    /**
+     * Hands out the next hint, prepared or not. The entry leaves the cache; prefetch the
+     * following hint once this one has been used.
+     *
+     * @param puzzleId external puzzle id
+     * @param used     hints the player has already used on it
+     * @return the hint; {@link Prefetched#getText()} is null if there is none
+     */
+    public synchronized Prefetched take(int puzzleId, int used) {
+        Prefetched p = cache.get(puzzleId);
+        if (p != null && p.used == used) {
+            cache.remove(puzzleId);
+            return p;
+        }
+        return new Prefetched(used, CompletableFuture.completedFuture(lookup(puzzleId, used)),
+                CompletableFuture.completedFuture(null), null);
+    }
+
+    /** Drops everything prepared so far. */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /** @return number of puzzles with a prepared hint */
+    synchronized int size() {
+        return cache.size();
+    }
+
+    private String lookup(int puzzleId, int used) {
+        List<String> list = hints.apply(puzzleId);
+        return list != null && used >= 0 && used < list.size() ? list.get(used) : null;
+    }
+
+    private Narration render(String text) {
+        try {
+            return renderer.apply(text);
+        } catch (RuntimeException | LinkageError e) {
+            System.err.println("Could not prepare hint narration: " + e);
+            return null;
+        }
+    }
+
+    private static String spokenForm(UnaryOperator<String> spoken, String hint) {
+        return spoken == null ? hint : spoken.apply(hint);
+    }
+
+    /**
+     * One puzzle's next hint: its text and, when prepared in time, its narration.
+     */
+    public static final class Prefetched {
+        private final int used;
+        private final CompletableFuture<String> text;
+        private final CompletableFuture<Narration> narration;
+        private final UnaryOperator<String> spoken;
+
+        Prefetched(int used, CompletableFuture<String> text, CompletableFuture<Narration> narration, UnaryOperator<String> spoken) {
+            this.used = used;
+            this.text = text;
+            this.narration = narration;
+            this.spoken = spoken;
+        }
+
+        /** @return the hint text (waiting for the lookup if it is still running), or null if none */
+        public String getText() {
+            try {
+                return text.join();
+            } catch (RuntimeException e) {
+                System.err.println("Hint lookup failed: " + e.getMessage());
+                return null;
+            }
+        }
+
+        /** @return true if the narration has been synthesized */
+        public boolean isNarrationReady() {
+            return narration.getNow(null) != null;
+        }
+
+        /**
+         * Speaks the hint: plays the prepared narration if it is ready, otherwise
+         * synthesizes it now.
+         */
+        public void speak() {
+            String hint = getText();
+            if (hint == null) return;
+            Narration ready = narration.getNow(null);
+            if (ready == null || !ready.play()) Speek.speak(spokenForm(spoken, hint));
+        }
+
+        Narration narration() {
+            return narration.getNow(null);
+        }
+    }
+}
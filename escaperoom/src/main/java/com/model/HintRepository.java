@@ -0,0 +1,75 @@
+package com.model;
+
+import java.util.List;
+
+/**
+ * The one place the game gets hints from.
+ *
+ * hints.txt is read once, on first use, into an immutable {@link HintIndex} snapshot that
+ * every screen and session shares; after that a lookup is an int search in memory and
+ * never touches the filesystem. When {@link RoomCatalog#reload(String, java.nio.file.Path)}
+ * accepts edited content it publishes the new hints here, and readers pick up the new
+ * snapshot on their next lookup.
+ */
+public final class HintRepository {
+    private static final HintRepository INSTANCE = new HintRepository();
+
+    private volatile HintIndex snapshot;
+
+    private HintRepository() { }
+
+    /** @return the shared repository */
+    public static HintRepository getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the current hints, loaded with {@link HintIndex#load()} on first use
+     */
+    public HintIndex snapshot() {
+        HintIndex s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = HintIndex.load();
+                    System.out.println("Hints loaded (entries: " + snapshot.size() + ")");
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Replaces the snapshot (content reload).
+     *
+     * @param hints the new hints; null is ignored
+     */
+    void publish(HintIndex hints) {
+        if (hints != null) snapshot = hints;
+    }
+
+    /**
+     * @param puzzleId external puzzle id
+     * @return the puzzle's hints in order (unmodifiable, empty if none)
+     */
+    public List<String> hintsFor(int puzzleId) {
+        return snapshot().get(puzzleId);
+    }
+
+    /** @return number of hints for the puzzle */
+    public int count(int puzzleId) {
+        return hintsFor(puzzleId).size();
+    }
+
+    /**
+     * @param puzzleId    external puzzle id
+     * @param alreadyUsed hints the player has already taken for it
+     * @return the next hint, or null when none are left
+     */
+    public String getNextHint(int puzzleId, int alreadyUsed) {
+        List<String> h = hintsFor(puzzleId);
+        if (alreadyUsed < 0) alreadyUsed = 0;
+        return alreadyUsed < h.size() ? h.get(alreadyUsed) : null;
+    }
+}
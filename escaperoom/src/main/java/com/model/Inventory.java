@@ -15,13 +15,26 @@ import java.util.StringJoiner;
 public class Inventory {
 
     /** Map of item type to quantity owned. */
-    private final Map<ItemName, Integer> quantities = new ConcurrentHashMap<>();
+    private final Map<ItemName, Integer> quantities;
 
     /** Map of item type to its metadata template. */
-    private final Map<ItemName, Item> templates = new ConcurrentHashMap<>();
+    private final Map<ItemName, Item> templates;
     
     /** Creates an empty inventory. */
     public Inventory() {
+        this(true);
+    }
+
+    /**
+     * For subclasses that keep quantities elsewhere (see {@link ProgressTable}):
+     * with {@code allocate == false} no maps are created, and the subclass must
+     * override every method that reads them.
+     *
+     * @param allocate whether to create the on-heap maps
+     */
+    protected Inventory(boolean allocate) {
+        this.quantities = allocate ? new ConcurrentHashMap<>() : null;
+        this.templates = allocate ? new ConcurrentHashMap<>() : null;
     }
 
     /**
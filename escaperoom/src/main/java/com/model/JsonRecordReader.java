@@ -0,0 +1,87 @@
+package com.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streams top-level JSON objects out of a reader one at a time, without parsing them.
+ *
+ * Works for both layouts used for user data:
+ *  - a single JSON array of objects (users.json as written by {@link DataLoader})
+ *  - line-delimited JSON, one object per line (as written by {@link UserLoader})
+ *
+ * Only the text of the current record is held in memory, so files of any size can be
+ * scanned with a small, fixed footprint. Each returned string can be handed to a JSON parser.
+ */
+public class JsonRecordReader implements Closeable {
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private int len = 0;
+    private int pos = 0;
+    private final StringBuilder record = new StringBuilder(512);
+
+    /**
+     * Creates a record reader over the given character stream.
+     *
+     * @param in source of JSON text; wrapped reads are already buffered internally
+     */
+    public JsonRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Returns the text of the next top-level JSON object.
+     * Array brackets, commas and whitespace between objects are skipped.
+     *
+     * @return the next object as a string, or null at end of input
+     * @throws IOException on read failures or if the input ends inside an object
+     */
+    public String next() throws IOException {
+        int c;
+        // skip to the start of the next object
+        while (true) {
+            c = read();
+            if (c == -1) return null;
+            if (c == '{') break;
+        }
+
+        record.setLength(0);
+        record.append('{');
+        int depth = 1;
+        boolean inString = false;
+        boolean escaped = false;
+        while (depth > 0) {
+            c = read();
+            if (c == -1) throw new IOException("Unexpected end of input inside a JSON record");
+            char ch = (char) c;
+            record.append(ch);
+            if (inString) {
+                if (escaped) escaped = false;
+                else if (ch == '\\') escaped = true;
+                else if (ch == '"') inString = false;
+            } else if (ch == '"') {
+                inString = true;
+            } else if (ch == '{' || ch == '[') {
+                depth++;
+            } else if (ch == '}' || ch == ']') {
+                depth--;
+            }
+        }
+        return record.toString();
+    }
+
+    private int read() throws IOException {
+        if (pos == len) {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) { len = 0; return -1; }
+        }
+        return buf[pos++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
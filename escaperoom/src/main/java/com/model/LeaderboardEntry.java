@@ -0,0 +1,57 @@
+package com.model;
+
+import java.util.Comparator;
+
+/**
+ * One player's best run on one difficulty board. Immutable; a better run replaces the
+ * entry rather than changing it.
+ */
+public final class LeaderboardEntry {
+    /** Board order: score descending, then time ascending, then name and difficulty. */
+    public static final Comparator<LeaderboardEntry> ORDER = (a, b) -> {
+        if (a.score != b.score) return Long.compare(b.score, a.score);
+        if (a.timeSpent != b.timeSpent) return Long.compare(a.timeSpent, b.timeSpent);
+        int c = a.username.compareTo(b.username);
+        return c != 0 ? c : a.difficulty.compareTo(b.difficulty);
+    };
+
+    private final String username;
+    private final String difficulty;
+    private final long score;
+    private final long timeSpent;
+    private final String timestamp;
+
+    /**
+     * @param username   player name
+     * @param difficulty board key, lower case ("easy", "medium", "hard" or "all")
+     * @param score      points
+     * @param timeSpent  seconds
+     * @param timestamp  when the run finished (yyyy-MM-dd'T'HH:mm:ss), may be null
+     */
+    public LeaderboardEntry(String username, String difficulty, long score, long timeSpent, String timestamp) {
+        this.username = username;
+        this.difficulty = difficulty;
+        this.score = score;
+        this.timeSpent = timeSpent;
+        this.timestamp = timestamp;
+    }
+
+    public String getUsername() { return username; }
+    public String getDifficulty() { return difficulty; }
+    public long getScore() { return score; }
+    public long getTimeSpent() { return timeSpent; }
+    public String getTimestamp() { return timestamp; }
+
+    /**
+     * @param other the entry currently on the board (may be null)
+     * @return true if this run should replace it: a higher score, or the same score faster
+     */
+    public boolean beats(LeaderboardEntry other) {
+        return other == null || score > other.score || (score == other.score && timeSpent < other.timeSpent);
+    }
+
+    @Override
+    public String toString() {
+        return username + " " + score + " [" + difficulty + "] " + timeSpent + "s";
+    }
+}
@@ -0,0 +1,257 @@
+package com.model;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * leaderboard.dat: the leaderboard as fixed-size records in a memory-mapped file.
+ *
+ *  header  magic "ERLB", version, record size, capacity, slots used, free list head
+ *  slots   capacity x {@link #RECORD}-byte records:
+ *            0  state (0 free, 1 live)    1  name length    2  difficulty length
+ *            4  next free slot            8  score          16 time spent
+ *            24 finish time (epoch seconds of the local timestamp, -1 if unknown)
+ *            32 name (UTF-8, {@link #MAX_NAME} bytes)       80 difficulty (16 bytes)
+ *            96 sequence number           104 CRC32 of bytes 1-103
+ *
+ * Every change is a write of one record into the mapping, so improving a score touches
+ * {@link #RECORD} bytes instead of rewriting the board. A live record is never written
+ * over: the new version goes into another slot and is forced to disk, and only then is
+ * the old slot freed. A crash therefore leaves the old record, the new one, or both; on
+ * open a live record whose checksum doesn't match (torn by the crash) is dropped, and of
+ * two live records for the same player and board the one with the higher sequence number
+ * wins. Freed slots are chained through "next free" from the header (rebuilt on open, so
+ * the header need not reach the disk) and reused before the file grows; when it is full
+ * the file doubles and is mapped again. {@link LeaderboardService} keeps the
+ * (user, difficulty) -> slot index.
+ */
+final class LeaderboardFile implements AutoCloseable {
+    static final int MAGIC = 0x45524C42; // "ERLB"
+    static final short VERSION = 2;
+    static final int RECORD = 112;
+    static final int MAX_NAME = 48;
+    static final int MAX_DIFFICULTY = 16;
+    private static final int HEADER = 32;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int SEQ = 96;
+    private static final int CHECKSUM = 104;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int used;      // slots ever handed out; slots >= used have never been written
+    private int freeHead;  // -1 when empty
+    private long nextSeq;
+
+    private LeaderboardFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        if (channel.size() < HEADER) {
+            capacity = INITIAL_CAPACITY;
+            used = 0;
+            freeHead = -1;
+            remap();
+            map.putInt(0, MAGIC);
+            map.putShort(4, VERSION);
+            map.putShort(6, (short) RECORD);
+            writeHeader();
+        } else {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (map.getInt(0) != MAGIC) throw new IOException("not a leaderboard file");
+            if (map.getShort(4) != VERSION || map.getShort(6) != RECORD) {
+                throw new IOException("unsupported leaderboard file version " + map.getShort(4));
+            }
+            // the size, not the header, says how far the file has grown
+            capacity = (int) ((channel.size() - HEADER) / RECORD);
+            recover();
+        }
+    }
+
+    /**
+     * Rebuilds the header from the records: drops torn records and the older of two live
+     * records for the same player and board, then chains every slot that is not live so
+     * it is reused rather than lost.
+     */
+    private void recover() {
+        Map<String, Integer> latest = new HashMap<>();
+        used = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int a = at(slot);
+            if (map.get(a) == 0) continue;
+            used = slot + 1;
+            if (map.get(a) != 1 || map.getInt(a + CHECKSUM) != checksum(a)) {
+                map.put(a, (byte) 0);
+                continue;
+            }
+            long seq = map.getLong(a + SEQ);
+            nextSeq = Math.max(nextSeq, seq + 1);
+            LeaderboardEntry e = read(slot);
+            String key = RankedBoard.key(e.getUsername(), e.getDifficulty());
+            Integer other = latest.get(key);
+            if (other != null && map.getLong(at(other) + SEQ) > seq) {
+                map.put(a, (byte) 0);
+                continue;
+            }
+            if (other != null) map.put(at(other), (byte) 0);
+            latest.put(key, slot);
+        }
+        freeHead = -1;
+        for (int slot = used - 1; slot >= 0; slot--) {
+            int a = at(slot);
+            if (map.get(a) == 1) continue;
+            map.putInt(a + 4, freeHead);
+            freeHead = slot;
+        }
+        writeHeader();
+    }
+
+    private int checksum(int a) {
+        CRC32 crc = new CRC32();
+        crc.update(map.slice(a + 1, CHECKSUM - 1));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Opens (creating if needed) a leaderboard file.
+     *
+     * @param file the file
+     * @return the open file
+     * @throws IOException if it cannot be opened or is not a leaderboard file
+     */
+    static LeaderboardFile open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            return new LeaderboardFile(ch);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private void remap() throws IOException {
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * RECORD);
+    }
+
+    private void writeHeader() {
+        map.putInt(8, capacity);
+        map.putInt(12, used);
+        map.putInt(16, freeHead);
+    }
+
+    private static int at(int slot) { return HEADER + slot * RECORD; }
+
+    /** @return true if an entry's name and difficulty fit in a record */
+    static boolean fits(LeaderboardEntry e) {
+        return e.getUsername().getBytes(StandardCharsets.UTF_8).length <= MAX_NAME
+                && e.getDifficulty().getBytes(StandardCharsets.UTF_8).length <= MAX_DIFFICULTY;
+    }
+
+    /**
+     * Takes a slot for a new entry: the head of the free list, else the next unused slot,
+     * growing the file if it is full.
+     *
+     * @return the slot
+     */
+    int allocate() throws IOException {
+        int slot;
+        if (freeHead >= 0) {
+            slot = freeHead;
+            freeHead = map.getInt(at(slot) + 4);
+        } else {
+            if (used == capacity) {
+                capacity = Math.max(INITIAL_CAPACITY, capacity * 2);
+                remap();
+            }
+            slot = used++;
+        }
+        writeHeader();
+        return slot;
+    }
+
+    /** Marks a slot free and puts it at the head of the free list. */
+    void free(int slot) {
+        int a = at(slot);
+        map.put(a, (byte) 0);
+        map.putInt(a + 4, freeHead);
+        freeHead = slot;
+        writeHeader();
+    }
+
+    /**
+     * Writes an entry into a free slot and forces it to disk, so the slot holding the
+     * entry it replaces can be {@link #free freed} as soon as this returns.
+     *
+     * @param slot a slot from {@link #allocate()}
+     * @param e    the entry; must {@link #fits}
+     */
+    void write(int slot, LeaderboardEntry e) {
+        byte[] name = e.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] diff = e.getDifficulty().getBytes(StandardCharsets.UTF_8);
+        int a = at(slot);
+        map.put(a + 1, (byte) name.length);
+        map.put(a + 2, (byte) diff.length);
+        map.putInt(a + 4, -1);
+        map.putLong(a + 8, e.getScore());
+        map.putLong(a + 16, e.getTimeSpent());
+        map.putLong(a + 24, epochSeconds(e.getTimestamp()));
+        map.put(a + 32, name);
+        map.put(a + 80, diff);
+        map.putLong(a + SEQ, nextSeq++);
+        map.put(a, (byte) 1);
+        map.putInt(a + CHECKSUM, checksum(a));
+        map.force(a, RECORD);
+    }
+
+    /** @return the entry in a live slot */
+    LeaderboardEntry read(int slot) {
+        int a = at(slot);
+        byte[] name = new byte[map.get(a + 1) & 0xFF];
+        byte[] diff = new byte[map.get(a + 2) & 0xFF];
+        map.get(a + 32, name);
+        map.get(a + 80, diff);
+        return new LeaderboardEntry(new String(name, StandardCharsets.UTF_8), new String(diff, StandardCharsets.UTF_8),
+                map.getLong(a + 8), map.getLong(a + 16), timestamp(map.getLong(a + 24)));
+    }
+
+    /** Calls back with every live slot, in slot order. */
+    void forEachLive(IntConsumer action) {
+        for (int slot = 0; slot < used; slot++) if (map.get(at(slot)) == 1) action.accept(slot);
+    }
+
+    /** @return slots handed out so far (live or free) */
+    int slotsUsed() { return used; }
+
+    /** Pushes written records to disk. */
+    void force() { map.force(); }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+
+    static long epochSeconds(String timestamp) {
+        if (timestamp == null) return -1;
+        try {
+            return LocalDateTime.parse(timestamp, TIMESTAMP).toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    static String timestamp(long epochSeconds) {
+        return epochSeconds < 0 ? null : LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC).format(TIMESTAMP);
+    }
+}
@@ -0,0 +1,381 @@
+package com.model;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * The leaderboard: every player's best run per difficulty, kept ranked in memory.
+ *
+ * Each difficulty board, and the combined board across all of them, is a {@link ScoreIndex}
+ * in score-descending, time-ascending order, so recording a run, a player's rank and the
+ * top k are O(log n) (plus k) instead of a re-read, scan and sort of leaderboard.json.
+ *
+ * The board is stored in leaderboard.dat, a memory-mapped file of fixed-size records
+ * ({@link LeaderboardFile}). A (user, difficulty) -> slot map built when the file is opened
+ * means an improved run is one record written to a spare slot, after which the old slot,
+ * like a removed entry's, goes on the file's free list. The first time the service opens a directory without
+ * leaderboard.dat it imports leaderboard.json (and any leaderboard.json.journal left by
+ * earlier versions). leaderboard.json is still written for tools by
+ * {@link #exportJson()}, which {@link #getInstance()} arranges to run when the game's JVM
+ * shuts down, however the player left (console menu or closing the window).
+ *
+ * Alongside the all-time board the service keeps a daily and a weekly {@link Window}, each
+ * ranked the same way and fed by the same {@link #submit}. When a window's period ends the
+ * next call swaps in an empty board, so expired runs leave in O(1), and reading the top n
+ * of a window never sorts. Windows live in memory; the game seeds them from the
+ * {@link RunHistory} on startup.
+ */
+public final class LeaderboardService {
+    private static LeaderboardService instance;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /** Which runs a board covers. */
+    public enum Window {
+        /** Today (midnight to midnight). */
+        DAILY,
+        /** This week, Monday to Sunday. */
+        WEEKLY,
+        /** Every run ever recorded. */
+        ALL_TIME
+    }
+
+    /** A daily or weekly board and the period it covers. */
+    private static final class Rolling {
+        final Window window;
+        long start;
+        long end = Long.MIN_VALUE; // expired: the first roll() sets the period
+        RankedBoard board = new RankedBoard();
+
+        Rolling(Window window) {
+            this.window = window;
+        }
+
+        /** Swaps in an empty board if the period holding now is a later one. */
+        RankedBoard roll(long now, ZoneId zone) {
+            if (now >= end) {
+                LocalDate day = Instant.ofEpochSecond(now).atZone(zone).toLocalDate();
+                if (window == Window.WEEKLY) day = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                start = day.atStartOfDay(zone).toEpochSecond();
+                end = day.plusDays(window == Window.WEEKLY ? 7 : 1).atStartOfDay(zone).toEpochSecond();
+                board = new RankedBoard();
+            }
+            return board;
+        }
+    }
+
+    private final Path file;
+    private final Path journal;
+    private final Path dataFile;
+    private LeaderboardFile store; // null if leaderboard.dat can't be used: memory only
+    private final ZoneId zone;
+    private final LongSupplier clock;
+    private final RankedBoard allTime = new RankedBoard();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Rolling daily = new Rolling(Window.DAILY);
+    private final Rolling weekly = new Rolling(Window.WEEKLY);
+
+    /**
+     * Opens the board kept next to a leaderboard JSON path: leaderboard.dat in the same
+     * directory, created from the JSON if it doesn't exist yet.
+     *
+     * @param file the leaderboard JSON (need not exist)
+     */
+    public LeaderboardService(Path file) {
+        this(file, ZoneId.systemDefault(), () -> System.currentTimeMillis() / 1000L);
+    }
+
+    /**
+     * @param file  the leaderboard JSON (need not exist)
+     * @param zone  time zone that days and weeks are aligned to
+     * @param clock current time, epoch seconds
+     */
+    LeaderboardService(Path file, ZoneId zone, LongSupplier clock) {
+        this.file = file;
+        this.zone = zone;
+        this.clock = clock;
+        this.journal = file.resolveSibling(file.getFileName() + ".journal");
+        this.dataFile = file.resolveSibling("leaderboard.dat");
+        load();
+    }
+
+    /**
+     * @return the game's leaderboard (JSON/leaderboard.json under the working directory),
+     *         with today's and this week's windows seeded from {@link RunHistory#getInstance()};
+     *         it is exported and closed at shutdown
+     */
+    public static synchronized LeaderboardService getInstance() {
+        if (instance == null) {
+            LeaderboardService board = new LeaderboardService(Paths.get(System.getProperty("user.dir"), "JSON", "leaderboard.json"));
+            board.seedWindows(RunHistory.getInstance());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                board.exportJson();
+                board.close();
+            }, "leaderboard-export"));
+            instance = board;
+        }
+        return instance;
+    }
+
+    /**
+     * Records a finished run. It replaces the player's entry on that board only if the
+     * score is higher, or equal and faster; the same goes for today's and this week's
+     * windows.
+     *
+     * @param username   player name
+     * @param score      points
+     * @param difficulty board ("easy", "medium", "hard" or "all"; case-insensitive)
+     * @param timeSpent  seconds
+     * @return true if the all-time board changed
+     */
+    public synchronized boolean submit(String username, long score, String difficulty, long timeSpent) {
+        if (username == null) return false;
+        long now = clock.getAsLong();
+        LeaderboardEntry e = new LeaderboardEntry(username, BoardJson.board(difficulty), score, timeSpent,
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(now), zone).format(TIMESTAMP));
+        daily.roll(now, zone).offer(e);
+        weekly.roll(now, zone).offer(e);
+        if (!allTime.offer(e)) return false;
+        persist(e);
+        return true;
+    }
+
+    /**
+     * Fills the daily and weekly windows with runs from a history, e.g. those recorded
+     * before this service was opened. Call it once, before new runs are submitted.
+     *
+     * @param history run history in the same time zone
+     */
+    public synchronized void seedWindows(RunHistory history) {
+        long now = clock.getAsLong();
+        for (Rolling w : new Rolling[] { daily, weekly }) {
+            RankedBoard b = w.roll(now, zone);
+            for (LeaderboardEntry e : history.board(RunHistory.Granularity.DAY, w.start, w.end, null, Integer.MAX_VALUE)) {
+                b.offer(e);
+            }
+        }
+    }
+
+    private RankedBoard window(Window w) {
+        if (w == Window.ALL_TIME) return allTime;
+        return (w == Window.DAILY ? daily : weekly).roll(clock.getAsLong(), zone);
+    }
+
+    /**
+     * Takes a player's entry off a board.
+     *
+     * @param username   player name
+     * @param difficulty board
+     * @return true if there was an entry
+     */
+    public synchronized boolean remove(String username, String difficulty) {
+        String k = RankedBoard.key(username, BoardJson.board(difficulty));
+        if (allTime.remove(username, BoardJson.board(difficulty)) == null) return false;
+        Integer slot = slots.remove(k);
+        if (slot != null && store != null) store.free(slot);
+        return true;
+    }
+
+    /**
+     * @param username   player name
+     * @param difficulty board, or null for the combined board
+     * @return the player's 1-based all-time position on it, or -1 if they have no entry
+     */
+    public int rankOf(String username, String difficulty) {
+        return rankOf(Window.ALL_TIME, username, difficulty);
+    }
+
+    /**
+     * @param window     which runs count
+     * @param username   player name
+     * @param difficulty board, or null for the combined board
+     * @return the player's 1-based position on it, or -1 if they have no entry
+     */
+    public synchronized int rankOf(Window window, String username, String difficulty) {
+        return window(window).rankOf(username, difficulty == null ? null : BoardJson.board(difficulty));
+    }
+
+    /**
+     * @return the player's all-time entry on a board, or null
+     */
+    public synchronized LeaderboardEntry get(String username, String difficulty) {
+        return allTime.get(username, BoardJson.board(difficulty));
+    }
+
+    /**
+     * @param difficulty board, or null for every entry of every board
+     * @param k          how many
+     * @return the best k all-time entries in board order
+     */
+    public List<LeaderboardEntry> top(String difficulty, int k) {
+        return top(Window.ALL_TIME, difficulty, k);
+    }
+
+    /**
+     * @param window     which runs count
+     * @param difficulty board, or null for every entry of every board
+     * @param k          how many
+     * @return the best k entries in board order
+     */
+    public synchronized List<LeaderboardEntry> top(Window window, String difficulty, int k) {
+        return window(window).top(difficulty == null ? null : BoardJson.board(difficulty), k);
+    }
+
+    /** @return all-time entries on a board (null: all boards) */
+    public int size(String difficulty) {
+        return size(Window.ALL_TIME, difficulty);
+    }
+
+    /** @return entries on a window's board (null: all boards) */
+    public synchronized int size(Window window, String difficulty) {
+        return window(window).size(difficulty == null ? null : BoardJson.board(difficulty));
+    }
+
+    /** @return every entry as leaderboard.json objects, in board order */
+    @SuppressWarnings("unchecked")
+    public synchronized JSONArray toJson() {
+        JSONArray arr = new JSONArray();
+        for (LeaderboardEntry e : allTime.top(null, allTime.size(null))) arr.add(toJson(e));
+        return arr;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(LeaderboardEntry e) {
+        JSONObject o = new JSONObject();
+        o.put("username", e.getUsername());
+        o.put("score", e.getScore());
+        o.put("difficulty", e.getDifficulty());
+        o.put("timeSpent", e.getTimeSpent());
+        if (e.getTimestamp() != null) o.put("timestamp", e.getTimestamp());
+        return o;
+    }
+
+    private static LeaderboardEntry fromJson(Object o) {
+        if (!(o instanceof JSONObject)) return null;
+        JSONObject j = (JSONObject) o;
+        Object user = j.get("username");
+        if (user == null) return null;
+        Object ts = j.get("timestamp");
+        return new LeaderboardEntry(String.valueOf(user), BoardJson.difficultyOf(j),
+                BoardJson.number(j.get("score")), BoardJson.number(j.get("timeSpent")), ts == null ? null : String.valueOf(ts));
+    }
+
+    private void load() {
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            boolean fresh = !Files.isRegularFile(dataFile);
+            store = LeaderboardFile.open(dataFile);
+            if (!fresh) {
+                store.forEachLive(slot -> {
+                    LeaderboardEntry e = store.read(slot);
+                    slots.put(RankedBoard.key(e.getUsername(), e.getDifficulty()), slot);
+                    allTime.put(e);
+                });
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to open " + dataFile + " (leaderboard kept in memory only): " + e.getMessage());
+            store = null;
+        }
+        importJson();
+        for (LeaderboardEntry e : allTime.top(null, allTime.size(null))) persist(e);
+        if (store != null) {
+            store.force();
+            try { Files.deleteIfExists(journal); } catch (IOException ignored) {}
+        }
+    }
+
+    /** Reads leaderboard.json, then replays a journal written by earlier versions. */
+    private void importJson() {
+        if (Files.isRegularFile(file)) {
+            try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Object obj = new JSONParser().parse(r);
+                if (obj instanceof JSONArray) {
+                    for (Object o : (JSONArray) obj) {
+                        LeaderboardEntry e = fromJson(o);
+                        if (e != null) allTime.offer(e);
+                    }
+                }
+            } catch (IOException | ParseException e) {
+                System.err.println("Failed to read leaderboard.json: " + e.getMessage());
+            }
+        }
+        if (Files.isRegularFile(journal)) {
+            try {
+                BoardJson.forEachLine(journal, o -> {
+                    LeaderboardEntry e = fromJson(o);
+                    if (e != null) allTime.put(e);
+                });
+            } catch (IOException e) {
+                System.err.println("Failed to read " + journal + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes an entry into a new slot, then frees the slot of the entry it replaces, so
+     * the player's record is on disk throughout (see {@link LeaderboardFile}).
+     */
+    private void persist(LeaderboardEntry e) {
+        if (store == null) return;
+        if (!LeaderboardFile.fits(e)) {
+            System.err.println("Leaderboard name too long to store, kept in memory only: " + e.getUsername());
+            return;
+        }
+        String k = RankedBoard.key(e.getUsername(), e.getDifficulty());
+        try {
+            int slot = store.allocate();
+            store.write(slot, e);
+            Integer old = slots.put(k, slot);
+            if (old != null) store.free(old);
+        } catch (IOException ex) {
+            System.err.println("Failed to record leaderboard entry: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the whole board to leaderboard.json (for tools and older builds) and flushes
+     * leaderboard.dat.
+     */
+    public synchronized void exportJson() {
+        if (store != null) store.force();
+        if (allTime.isEmpty() && !Files.isRegularFile(file)) return;
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, toJson().toJSONString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Failed to write leaderboard.json: " + e.getMessage());
+        }
+    }
+
+    /** Flushes and closes leaderboard.dat; the board stays readable in memory. */
+    public synchronized void close() {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close " + dataFile + ": " + e.getMessage());
+        }
+        store = null;
+    }
+}
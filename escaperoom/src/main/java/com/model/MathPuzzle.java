@@ -1,12 +1,21 @@
 package com.model;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * A numerical puzzle where the player must solve a math equation and provide the correct answer.
  * The correct answer is stored as an integer and validated against the player's input.
+ *
+ * The equation is compiled into an {@link Expression} once (at catalog load, see
+ * {@link #compileAll(List)}), which lets the content be checked against the stored answer.
+ * Answers are compared as numbers, so "42", "+42" and "42.0" are all accepted.
  */
 public class MathPuzzle extends Puzzle {
     private String equation;
     private int answer;
+    private volatile Expression expression;
+    private volatile boolean compiled;
 
     /**
      * Constructs a new MathPuzzle with the given equation, answer, and difficulty.
@@ -22,28 +31,67 @@ public class MathPuzzle extends Puzzle {
     }
 
     /**
-     * Optional method for generating or parsing the equation dynamically.
-     * Currently unused but available for extensions.
+     * Compiles the equation into an {@link Expression}. Does nothing if that was already
+     * done; the question text is never changed.
      */
     public void generateEquation() {
-        // optional: generate or parse the equation string into fields
+        if (compiled) return;
+        expression = Expression.compile(equation);
+        compiled = true;
+    }
+
+    /**
+     * @return the compiled equation, or null if the question is not a plain arithmetic
+     *         expression (compiled on first use if needed)
+     */
+    public Expression getExpression() {
+        generateEquation();
+        return expression;
+    }
+
+    /**
+     * @return true if the equation evaluates to the stored answer, or cannot be evaluated
+     *         (word problems are not checked)
+     */
+    public boolean isAnswerConsistent() {
+        Expression e = getExpression();
+        return e == null || Math.abs(e.evaluate() - answer) < 1e-9;
+    }
+
+    /**
+     * Compiles the equations of every math puzzle in a parallel pass and checks each
+     * against its stored answer.
+     *
+     * @param puzzles puzzles of any type; non-math puzzles are skipped
+     * @return one message per math puzzle whose answer disagrees with its equation
+     */
+    static List<String> compileAll(List<Puzzle> puzzles) {
+        return puzzles.parallelStream()
+                .filter(p -> p instanceof MathPuzzle)
+                .map(p -> (MathPuzzle) p)
+                .filter(m -> !m.isAnswerConsistent())
+                .map(m -> {
+                    double v = m.expression.evaluate();
+                    return "puzzle " + m.getId() + ": answer " + m.answer + " but '" + m.expression.getText()
+                            + "' gives " + (v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v));
+                })
+                .collect(Collectors.toList());
     }
 
     /**
      * Checks whether the player's numeric answer matches the correct answer.
      *
      * @param userAnswer string entered by the player
-     * @return true if the answer is a valid integer and equals the stored solution
+     * @return true if the answer is a number equal to the stored solution
      */
     @Override
     public boolean checkAnswer(String userAnswer) {
-        if (userAnswer == null) return false;
-        try {
-            long provided = Long.parseLong(userAnswer.trim());
-            return provided == (long) this.answer;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return matches(userAnswer);
+    }
+
+    @Override
+    public boolean matches(String userAnswer) {
+        return NumberScanner.decimal(userAnswer) == this.answer;
     }
 
     /** 
@@ -0,0 +1,110 @@
+package com.model;
+
+/**
+ * Numeric answer scanning shared by {@link DoorPuzzle}, {@link MathPuzzle} and the
+ * {@link Expression} compiler.
+ *
+ * Everything here reads the {@link CharSequence} in place: no regex, no trim(), no
+ * substrings and no boxing, so answer checks allocate nothing. Results that may be
+ * missing come back as a sentinel ({@link #NO_NUMBER}, or NaN for decimals) rather than
+ * an exception.
+ */
+public final class NumberScanner {
+    /** Returned by the integer scans when there is no valid integer. */
+    public static final long NO_NUMBER = Long.MIN_VALUE;
+
+    private NumberScanner() { }
+
+    /**
+     * The last whitespace-separated token as an integer: "2", " 42 ", "door 2" and "-1"
+     * all work, "2 doors" does not.
+     *
+     * @param s the input (may be null)
+     * @return the value, or {@link #NO_NUMBER} if the last token is not an int
+     */
+    public static long trailingInt(CharSequence s) {
+        if (s == null) return NO_NUMBER;
+        int end = s.length();
+        while (end > 0 && java.lang.Character.isWhitespace(s.charAt(end - 1))) end--;
+        int start = end;
+        while (start > 0 && !java.lang.Character.isWhitespace(s.charAt(start - 1))) start--;
+        return integer(s, start, end);
+    }
+
+    /**
+     * An optionally signed integer filling exactly [from, to).
+     *
+     * @return the value, or {@link #NO_NUMBER} if the range is not an int
+     */
+    public static long integer(CharSequence s, int from, int to) {
+        if (from >= to) return NO_NUMBER;
+        boolean negative = false;
+        char c = s.charAt(from);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++from == to) return NO_NUMBER;
+        }
+        long v = 0;
+        for (int i = from; i < to; i++) {
+            c = s.charAt(i);
+            if (c < '0' || c > '9') return NO_NUMBER;
+            v = v * 10 + (c - '0');
+            if (v > (long) Integer.MAX_VALUE + 1) return NO_NUMBER;
+        }
+        v = negative ? -v : v;
+        return v > Integer.MAX_VALUE ? NO_NUMBER : v;
+    }
+
+    /**
+     * A whole string as a decimal number: optional surrounding whitespace, an optional
+     * sign, digits, and an optional '.' with more digits ("42", " -7 ", "42.0", ".5").
+     *
+     * @param s the input (may be null)
+     * @return the value, or NaN if the text is not such a number
+     */
+    public static double decimal(CharSequence s) {
+        if (s == null) return Double.NaN;
+        int from = 0, to = s.length();
+        while (from < to && java.lang.Character.isWhitespace(s.charAt(from))) from++;
+        while (to > from && java.lang.Character.isWhitespace(s.charAt(to - 1))) to--;
+        boolean negative = false;
+        if (from < to && (s.charAt(from) == '-' || s.charAt(from) == '+')) negative = s.charAt(from++) == '-';
+        if (from == to || scanDecimal(s, from, to) != to) return Double.NaN;
+        double v = decimalValue(s, from, to);
+        return negative ? -v : v;
+    }
+
+    /**
+     * @return the end of the unsigned decimal starting at {@code from}, or {@code from}
+     *         if there is none
+     */
+    static int scanDecimal(CharSequence s, int from, int to) {
+        int i = from, digits = 0;
+        while (i < to && s.charAt(i) >= '0' && s.charAt(i) <= '9') { i++; digits++; }
+        if (i < to && s.charAt(i) == '.') {
+            int j = i + 1;
+            while (j < to && s.charAt(j) >= '0' && s.charAt(j) <= '9') { j++; digits++; }
+            i = j;
+        }
+        return digits == 0 ? from : i;
+    }
+
+    /** Value of an unsigned decimal already bounded by {@link #scanDecimal}. */
+    static double decimalValue(CharSequence s, int from, int to) {
+        long mantissa = 0;
+        int scale = -1;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '.') { scale = 0; continue; }
+            if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+                // too many digits for an exact long; rare enough to let the JDK do it
+                return Double.parseDouble(s.subSequence(from, to).toString());
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (scale >= 0) scale++;
+        }
+        double v = mantissa;
+        if (scale > 0) v /= Math.pow(10, scale);
+        return v;
+    }
+}
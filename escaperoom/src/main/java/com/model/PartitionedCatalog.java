@@ -0,0 +1,389 @@
+package com.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * A content pack split by level into independently loadable partitions.
+ *
+ * Layout of a pack directory (written by {@link #split(Path, Path, int)}):
+ *  manifest.json   one entry per partition: file, level, puzzle count, room names, puzzle ids
+ *  level-N-K.json  the rooms of level N (chunk K), in the usual EscapeRoom.json format
+ *
+ * Opening a pack reads only the manifest. A partition is parsed the first time one of its
+ * rooms or puzzles is asked for, as its own frozen {@link RoomCatalog}, and kept in an LRU
+ * cache bounded by the total number of loaded puzzles; the least recently used partitions
+ * are dropped once the budget is exceeded and re-read if needed again. Memory therefore
+ * depends on the budget, not on the size of the pack, and a session only pays for the
+ * levels it actually enters.
+ *
+ * Puzzle ids are assigned across the whole pack when it is split, so they stay unique and
+ * the manifest can route an id to its partition without loading anything.
+ */
+public final class PartitionedCatalog {
+    /** Name of the manifest inside a pack directory. */
+    public static final String MANIFEST = "manifest.json";
+    /** Default number of rooms per partition file when splitting. */
+    public static final int DEFAULT_ROOMS_PER_PARTITION = 64;
+
+    private static final class Partition {
+        final String file;
+        final int level;
+        final int puzzleCount;
+        final List<String> rooms;
+
+        Partition(String file, int level, int puzzleCount, List<String> rooms) {
+            this.file = file;
+            this.level = level;
+            this.puzzleCount = puzzleCount;
+            this.rooms = rooms;
+        }
+    }
+
+    private final Path dir;
+    private final int maxLoadedPuzzles;
+    private final List<Partition> partitions = new ArrayList<>();
+    private final TreeMap<Integer, List<Integer>> partitionsByLevel = new TreeMap<>();
+    private final Map<String, Integer> partitionByRoomKey = new HashMap<>();
+    private final int[] sortedIds;
+    private final int[] partitionOfId;
+
+    private final LinkedHashMap<Integer, RoomCatalog> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private int loadedPuzzles;
+    private int loads;
+    private HintIndex hints;
+
+    private PartitionedCatalog(Path dir, int maxLoadedPuzzles, Map<String, Object> manifest) throws IOException {
+        this.dir = dir;
+        this.maxLoadedPuzzles = Math.max(1, maxLoadedPuzzles);
+
+        Object parts = manifest.get("partitions");
+        if (!(parts instanceof List)) throw new IOException("manifest has no partitions");
+        List<long[]> idPairs = new ArrayList<>();
+        for (Object o : (List<?>) parts) {
+            if (!(o instanceof Map)) continue;
+            Map<?, ?> m = (Map<?, ?>) o;
+            int index = partitions.size();
+            List<String> names = new ArrayList<>();
+            if (m.get("rooms") instanceof List) for (Object n : (List<?>) m.get("rooms")) names.add(String.valueOf(n));
+            Partition p = new Partition(String.valueOf(m.get("file")), intOf(m.get("level"), 1), intOf(m.get("puzzles"), 0),
+                    Collections.unmodifiableList(names));
+            partitions.add(p);
+            partitionsByLevel.computeIfAbsent(p.level, k -> new ArrayList<>()).add(index);
+            for (String n : names) partitionByRoomKey.putIfAbsent(PuzzleIndex.roomKey(n), index);
+            if (m.get("ids") instanceof List) for (Object id : (List<?>) m.get("ids")) idPairs.add(new long[] { intOf(id, -1), index });
+        }
+        idPairs.sort(Comparator.comparingLong(a -> a[0]));
+        sortedIds = new int[idPairs.size()];
+        partitionOfId = new int[idPairs.size()];
+        for (int i = 0; i < idPairs.size(); i++) {
+            sortedIds[i] = (int) idPairs.get(i)[0];
+            partitionOfId[i] = (int) idPairs.get(i)[1];
+        }
+    }
+
+    private static int intOf(Object v, int def) {
+        if (v instanceof Number) return ((Number) v).intValue();
+        try { return v == null ? def : Integer.parseInt(v.toString()); } catch (NumberFormatException e) { return def; }
+    }
+
+    /**
+     * Opens a pack by reading its manifest; no partition is loaded yet.
+     *
+     * @param dir              the pack directory
+     * @param maxLoadedPuzzles puzzle budget for the partition cache
+     * @return the pack
+     * @throws IOException if the manifest is missing or malformed
+     */
+    @SuppressWarnings("unchecked")
+    public static PartitionedCatalog open(Path dir, int maxLoadedPuzzles) throws IOException {
+        Object manifest;
+        try {
+            manifest = JsonSimpleParser.parse(new String(Files.readAllBytes(dir.resolve(MANIFEST)), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IOException("malformed manifest: " + e.getMessage());
+        }
+        if (!(manifest instanceof Map)) throw new IOException("manifest must be a JSON object");
+        return new PartitionedCatalog(dir, maxLoadedPuzzles, (Map<String, Object>) manifest);
+    }
+
+    /**
+     * Splits a rooms file into a pack: rooms are grouped by level (at most
+     * {@code roomsPerPartition} per file) and missing puzzle ids are assigned across the
+     * whole file first, exactly as {@link RoomCatalog} would.
+     *
+     * @param roomsJson         the rooms file
+     * @param outDir            the pack directory to write (created if needed)
+     * @param roomsPerPartition maximum rooms per partition file
+     * @return number of partitions written
+     * @throws IOException if reading or writing fails
+     */
+    @SuppressWarnings("unchecked")
+    public static int split(Path roomsJson, Path outDir, int roomsPerPartition) throws IOException {
+        RoomCatalog all = RoomCatalog.fromJson(roomsJson.toString());
+        int perFile = Math.max(1, roomsPerPartition);
+
+        TreeMap<Integer, List<EscapeRoom>> byLevel = new TreeMap<>();
+        for (EscapeRoom room : all.getRooms()) byLevel.computeIfAbsent(room.getLevel(), k -> new ArrayList<>()).add(room);
+
+        Files.createDirectories(outDir);
+        JSONArray entries = new JSONArray();
+        for (Map.Entry<Integer, List<EscapeRoom>> level : byLevel.entrySet()) {
+            List<EscapeRoom> rooms = level.getValue();
+            for (int chunk = 0, from = 0; from < rooms.size(); chunk++, from += perFile) {
+                List<EscapeRoom> part = rooms.subList(from, Math.min(rooms.size(), from + perFile));
+                String file = "level-" + level.getKey() + "-" + chunk + ".json";
+                JSONArray roomArr = new JSONArray();
+                JSONArray names = new JSONArray();
+                JSONArray ids = new JSONArray();
+                int puzzles = 0;
+                for (EscapeRoom room : part) {
+                    roomArr.add(toJson(room));
+                    names.add(room.getName());
+                    for (Puzzle p : room.getPuzzles()) { ids.add(p.getId()); puzzles++; }
+                }
+                write(outDir.resolve(file), roomArr.toJSONString());
+
+                JSONObject entry = new JSONObject();
+                entry.put("file", file);
+                entry.put("level", level.getKey());
+                entry.put("puzzles", puzzles);
+                entry.put("rooms", names);
+                entry.put("ids", ids);
+                entries.add(entry);
+            }
+        }
+        JSONObject manifest = new JSONObject();
+        manifest.put("version", 1);
+        manifest.put("partitions", entries);
+        write(outDir.resolve(MANIFEST), manifest.toJSONString());
+        return entries.size();
+    }
+
+    private static void write(Path file, String text) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write(text);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(EscapeRoom room) {
+        JSONObject o = new JSONObject();
+        o.put("name", room.getName());
+        o.put("description", room.getDescription());
+        o.put("level", room.getLevel());
+        o.put("isSolved", room.isSolved());
+        JSONArray puzzles = new JSONArray();
+        for (Puzzle p : room.getPuzzles()) puzzles.add(toJson(p));
+        o.put("puzzles", puzzles);
+        return o;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(Puzzle p) {
+        JSONObject o = new JSONObject();
+        o.put("type", PuzzleIndex.typeOf(p));
+        o.put("id", p.getId());
+        o.put("question", p.getQuestion());
+        if (p.getDifficulty() != null) o.put("difficulty", p.getDifficulty().name());
+        if (p instanceof MathPuzzle) {
+            o.put("answer", ((MathPuzzle) p).getAnswer());
+        } else if (p instanceof DoorPuzzle) {
+            DoorPuzzle d = (DoorPuzzle) p;
+            o.put("numDoors", d.getNumDoors());
+            o.put("correctDoor", d.getCorrectDoor());
+            o.put("attempts", d.getAttemptsAllowed());
+        } else if (p instanceof TriviaPuzzle) {
+            o.put("answer", ((TriviaPuzzle) p).getAnswer());
+            o.put("category", ((TriviaPuzzle) p).getCategory());
+            putAliases(o, ((TriviaPuzzle) p).getAliases());
+        } else if (p instanceof RiddlePuzzle) {
+            o.put("answer", ((RiddlePuzzle) p).getAnswer());
+            o.put("category", ((RiddlePuzzle) p).getCategory());
+            putAliases(o, ((RiddlePuzzle) p).getAliases());
+        }
+        if (p.getReward() != null) o.put("reward", p.getReward().name());
+        if (p.isLocked()) o.put("locked", true);
+        if (p.getHiddenHint() != null) o.put("hiddenHint", p.getHiddenHint());
+        return o;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putAliases(JSONObject o, List<String> aliases) {
+        if (aliases.isEmpty()) return;
+        JSONArray a = new JSONArray();
+        a.addAll(aliases);
+        o.put("aliases", a);
+    }
+
+    /** @return every level in the pack, ascending (from the manifest) */
+    public SortedSet<Integer> levels() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(partitionsByLevel.keySet()));
+    }
+
+    /**
+     * Levels a player on {@code currentLevel} can reach: every level up to and including it.
+     *
+     * @param currentLevel the player's level (see {@link Progress#getCurrentLevel()})
+     * @return the reachable levels, ascending
+     */
+    public SortedSet<Integer> reachableLevels(int currentLevel) {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(partitionsByLevel.headMap(currentLevel, true).keySet()));
+    }
+
+    /** @return names of the rooms on a level, from the manifest (nothing is loaded) */
+    public List<String> roomNames(int level) {
+        List<String> names = new ArrayList<>();
+        for (int p : partitionsByLevel.getOrDefault(level, Collections.emptyList())) names.addAll(partitions.get(p).rooms);
+        return names;
+    }
+
+    /** @return the rooms of a level, loading its partitions if needed */
+    public synchronized List<EscapeRoom> rooms(int level) {
+        List<EscapeRoom> rooms = new ArrayList<>();
+        for (int p : partitionsByLevel.getOrDefault(level, Collections.emptyList())) {
+            RoomCatalog c = partition(p);
+            if (c != null) rooms.addAll(c.getRooms());
+        }
+        return rooms;
+    }
+
+    /**
+     * @param nameOrScreenId a room name or screen id (see {@link PuzzleIndex#roomKey(String)})
+     * @return the room, loading its partition if needed, or null if the pack has no such room
+     */
+    public synchronized EscapeRoom room(String nameOrScreenId) {
+        Integer p = partitionByRoomKey.get(PuzzleIndex.roomKey(nameOrScreenId));
+        RoomCatalog c = p == null ? null : partition(p);
+        return c == null ? null : c.getIndex().room(nameOrScreenId);
+    }
+
+    /**
+     * @param id a puzzle id
+     * @return the puzzle, loading its partition if needed, or null if the pack has no such id
+     */
+    public synchronized Puzzle puzzle(int id) {
+        int i = Arrays.binarySearch(sortedIds, id);
+        RoomCatalog c = i < 0 ? null : partition(partitionOfId[i]);
+        return c == null ? null : c.getIndex().byId(id);
+    }
+
+    /**
+     * Hints for the pack: hints.txt in the pack directory if present, otherwise the game's
+     * hints ({@link HintIndex#load()}).
+     *
+     * @return the hints (never null)
+     */
+    public synchronized HintIndex getHints() {
+        if (hints == null) {
+            Path file = dir.resolve("hints.txt");
+            try {
+                hints = Files.isRegularFile(file) ? HintIndex.load(file) : HintIndex.load();
+            } catch (IOException e) {
+                System.err.println("Failed to read " + file + ": " + e.getMessage());
+                hints = HintIndex.empty();
+            }
+        }
+        return hints;
+    }
+
+    private RoomCatalog partition(int index) {
+        RoomCatalog c = loaded.get(index);
+        if (c != null) return c;
+        Partition p = partitions.get(index);
+        try {
+            c = RoomCatalog.fromJson(dir.resolve(p.file).toString());
+        } catch (IOException e) {
+            System.err.println("Failed to load partition " + p.file + ": " + e.getMessage());
+            return null;
+        }
+        loads++;
+        loaded.put(index, c);
+        loadedPuzzles += weight(c);
+        Iterator<Map.Entry<Integer, RoomCatalog>> it = loaded.entrySet().iterator();
+        while (loadedPuzzles > maxLoadedPuzzles && loaded.size() > 1) {
+            Map.Entry<Integer, RoomCatalog> eldest = it.next();
+            if (eldest.getKey() == index) continue;
+            loadedPuzzles -= weight(eldest.getValue());
+            it.remove();
+        }
+        return c;
+    }
+
+    private static int weight(RoomCatalog c) {
+        return Math.max(1, c.getPuzzles().size());
+    }
+
+    /** @return number of partitions in the manifest */
+    public int partitionCount() { return partitions.size(); }
+
+    /** @return number of partitions currently held in memory */
+    public synchronized int loadedPartitionCount() { return loaded.size(); }
+
+    /** @return puzzles currently held in memory */
+    public synchronized int loadedPuzzleCount() { return loadedPuzzles; }
+
+    /** @return number of partition reads so far (including re-reads after eviction) */
+    public synchronized int getLoadCount() { return loads; }
+
+    /**
+     * Command line:
+     *   split &lt;rooms.json&gt; &lt;packDir&gt; [roomsPerPartition]
+     *   bench &lt;rooms&gt; [budget]   generate a synthetic pack and visit random rooms
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("split")) {
+            int per = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_ROOMS_PER_PARTITION;
+            int n = split(Paths.get(args[1]), Paths.get(args[2]), per);
+            System.out.println("Wrote " + n + " partitions to " + args[2]);
+        } else if (args.length >= 2 && args[0].equals("bench")) {
+            bench(Integer.parseInt(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 2000);
+        } else {
+            System.err.println("usage: PartitionedCatalog split <rooms.json> <packDir> [roomsPerPartition] | bench <rooms> [budget]");
+        }
+    }
+
+    private static void bench(int roomCount, int budget) throws IOException {
+        Path work = Files.createTempDirectory("pack-bench-");
+        StringBuilder sb = new StringBuilder("[");
+        for (int r = 0; r < roomCount; r++) {
+            if (r > 0) sb.append(',');
+            sb.append("{\"name\":\"Room ").append(r).append("\",\"level\":").append(r / 10 + 1).append(",\"puzzles\":[");
+            for (int q = 0; q < 6; q++) {
+                if (q > 0) sb.append(',');
+                sb.append("{\"type\":\"riddle\",\"question\":\"Riddle ").append(r).append('-').append(q)
+                  .append(" with some longer text to weigh like a real question\",\"answer\":\"answer ").append(q).append("\"}");
+            }
+            sb.append("]}");
+        }
+        sb.append(']');
+        Path rooms = work.resolve("rooms.json");
+        write(rooms, sb.toString());
+        Path pack = work.resolve("pack");
+        int parts = split(rooms, pack, 10);
+
+        long t0 = System.nanoTime();
+        PartitionedCatalog catalog = open(pack, budget);
+        long openMicros = (System.nanoTime() - t0) / 1000;
+        Random rnd = new Random(42);
+        int levels = catalog.levels().size();
+        t0 = System.nanoTime();
+        for (int i = 0; i < 2000; i++) {
+            int level = rnd.nextDouble() < 0.9 ? 1 + rnd.nextInt(Math.min(5, levels)) : 1 + rnd.nextInt(levels);
+            catalog.rooms(level);
+        }
+        long visitMillis = (System.nanoTime() - t0) / 1_000_000;
+        System.out.println("rooms=" + roomCount + " partitions=" + parts + " manifest open=" + openMicros + "us");
+        System.out.println("2000 level visits: " + visitMillis + "ms, partition loads=" + catalog.getLoadCount()
+                + ", resident partitions=" + catalog.loadedPartitionCount() + ", resident puzzles=" + catalog.loadedPuzzleCount()
+                + " (budget " + budget + ")");
+    }
+}
@@ -9,28 +9,63 @@ import java.util.*;
  * - Completed puzzles (by both ID and question text)
  * - Hint usage
  * - Last selected difficulty
+ * - Last activity time
  * - Player inventory
  */
 public class Progress {
 
+    /**
+     * Notified whenever a value that {@link UserIndex} sorts or buckets on changes.
+     */
+    public interface Listener {
+        /**
+         * @param progress the progress whose score or last difficulty just changed
+         */
+        void progressChanged(Progress progress);
+    }
+
     private long timeSpent = 0L;// seconds
     private int score = 0;
     private int currentLevel = 1;
 
-    // completed puzzles: store both id set and question text set for compatibility
-    private Set<Integer> completedPuzzleIds = new LinkedHashSet<>();
-    private Set<String> completedPuzzleQuestions = new LinkedHashSet<>();
+    // completed puzzles: store both ids and question texts for compatibility.
+    // Ids index a bitset and the hint counts an int array directly; ids past MAX_DENSE_ID
+    // (only seen in hand-edited saves) spill into small maps.
+    private static final int MAX_DENSE_ID = 1 << 16;
+    private BitSet completedPuzzleIds;
+    private Set<Integer> completedSpill;
+    private Set<String> completedPuzzleQuestions;
 
-    private Map<Integer, Integer> hintsUsed = new HashMap<>(); // id/globalIndex -> count
+    private static final int[] NO_HINTS = new int[0];
+    private int[] hintsUsed = NO_HINTS; // id -> count
+    private Map<Integer, Integer> hintsSpill;
 
     private Difficulty lastDifficulty = Difficulty.ALL;
 
+    private long lastActive = 0L; // epoch seconds, 0 = never
+
     private Inventory inventory;
 
+    private Listener listener; // at most one index observes a Progress
+
      /** 
       * Creates a new Progress instance with an empty inventory. 
       */
     public Progress() {
+        this(true);
+    }
+
+    /**
+     * For subclasses that keep their state elsewhere (see {@link ProgressTable}):
+     * with {@code allocate == false} no collections or inventory are created, and the
+     * subclass must override every method that reads them.
+     *
+     * @param allocate whether to create the on-heap collections and inventory
+     */
+    protected Progress(boolean allocate) {
+        if (!allocate) return;
+        this.completedPuzzleIds = new BitSet();
+        this.completedPuzzleQuestions = new LinkedHashSet<>();
         this.inventory = new Inventory();
     }
 
@@ -73,18 +108,39 @@ public class Progress {
      *
      * @param delta score change amount
      */
-    public void increaseScore(int delta) { this.score += delta; if (this.score < 0) this.score = 0; }
+    public void increaseScore(int delta) {
+        int old = this.score;
+        this.score += delta;
+        if (this.score < 0) this.score = 0;
+        if (this.score != old) fireChanged();
+    }
 
 
 
     /** Marks a puzzle (by ID) as completed. */
-    public void addCompletedPuzzleId(int id) { if (id >= 0) completedPuzzleIds.add(id); }
+    public void addCompletedPuzzleId(int id) {
+        if (id < 0) return;
+        if (id < MAX_DENSE_ID) completedPuzzleIds.set(id);
+        else {
+            if (completedSpill == null) completedSpill = new HashSet<>();
+            completedSpill.add(id);
+        }
+    }
 
     /** Checks if a puzzle (by ID) has been completed. */
-    public boolean hasCompletedPuzzleId(int id) { return id >= 0 && completedPuzzleIds.contains(id); }
+    public boolean hasCompletedPuzzleId(int id) {
+        if (id < 0) return false;
+        if (id < MAX_DENSE_ID) return completedPuzzleIds.get(id);
+        return completedSpill != null && completedSpill.contains(id);
+    }
 
-     /** @return an unmodifiable set of completed puzzle IDs */
-    public Set<Integer> getCompletedPuzzleIds() { return Collections.unmodifiableSet(completedPuzzleIds); }
+     /** @return an unmodifiable snapshot of completed puzzle IDs, ascending */
+    public Set<Integer> getCompletedPuzzleIds() {
+        Set<Integer> out = new TreeSet<>();
+        for (int id = completedPuzzleIds.nextSetBit(0); id >= 0; id = completedPuzzleIds.nextSetBit(id + 1)) out.add(id);
+        if (completedSpill != null) out.addAll(completedSpill);
+        return Collections.unmodifiableSet(out);
+    }
 
 
 
@@ -99,25 +155,57 @@ public class Progress {
 
 
 
-   /** @return an unmodifiable map of hints used (puzzle ID → count) */
-    public Map<Integer,Integer> getHintsUsed() { return Collections.unmodifiableMap(hintsUsed); }
+   /** @return an unmodifiable snapshot of hints used (puzzle ID → count), by ascending ID */
+    public Map<Integer,Integer> getHintsUsed() {
+        Map<Integer, Integer> out = new TreeMap<>();
+        for (int id = 0; id < hintsUsed.length; id++) if (hintsUsed[id] > 0) out.put(id, hintsUsed[id]);
+        if (hintsSpill != null) out.putAll(hintsSpill);
+        return Collections.unmodifiableMap(out);
+    }
 
     /** @return the number of hints used for a given puzzle ID */
-    public int getHintsUsedFor(int id) { return hintsUsed.getOrDefault(id, 0); }
+    public int getHintsUsedFor(int id) {
+        if (id >= 0 && id < hintsUsed.length) return hintsUsed[id];
+        if (id < MAX_DENSE_ID || hintsSpill == null) return 0;
+        return hintsSpill.getOrDefault(id, 0);
+    }
 
     /** Increments the hint count for the given puzzle ID. */
-    public void incrementHintsUsedFor(int id) { hintsUsed.merge(id, 1, Integer::sum); }
+    public void incrementHintsUsedFor(int id) {
+        if (id >= 0 && id < MAX_DENSE_ID) {
+            if (id >= hintsUsed.length) hintsUsed = Arrays.copyOf(hintsUsed, Math.max(id + 1, hintsUsed.length * 2));
+            hintsUsed[id]++;
+        } else {
+            if (hintsSpill == null) hintsSpill = new HashMap<>();
+            hintsSpill.merge(id, 1, Integer::sum);
+        }
+    }
 
 
 
     /** Sets the last difficulty played (defaults to ALL if null). */
-    public void setLastDifficulty(Difficulty d) { if (d != null) this.lastDifficulty = d; }
+    public void setLastDifficulty(Difficulty d) {
+        if (d == null || d == this.lastDifficulty) return;
+        this.lastDifficulty = d;
+        fireChanged();
+    }
 
     /** @return the last recorded difficulty level */
     public Difficulty getLastDifficultyAsEnum() { return lastDifficulty != null ? lastDifficulty : Difficulty.ALL; }
 
 
 
+    /** @return when the player was last active, in epoch seconds (0 if never recorded) */
+    public long getLastActive() { return lastActive; }
+
+    /** Sets the last activity time in epoch seconds (ignored if negative). */
+    public void setLastActive(long epochSeconds) { if (epochSeconds >= 0) this.lastActive = epochSeconds; }
+
+    /** Records that the player was active just now. */
+    public void markActive() { this.lastActive = System.currentTimeMillis() / 1000L; }
+
+
+
     /** @return the current inventory, creating one if null */
     public Inventory getInventory() {
         if (this.inventory == null) this.inventory = new Inventory();
@@ -141,8 +229,20 @@ public class Progress {
      * @return true if completed by either identifier
      */
     public boolean hasCompletedByEither(int id, String question) {
-        return (id >= 0 && completedPuzzleIds.contains(id)) || (question != null && completedPuzzleQuestions.contains(question));
+        return hasCompletedPuzzleId(id) || (question != null && completedPuzzleQuestions.contains(question));
     }
-}
 
 
+
+    /** @return the listener observing score/difficulty changes, or null */
+    Listener getListener() { return listener; }
+
+    /** Sets (or clears, with null) the listener observing score/difficulty changes. */
+    void setListener(Listener listener) { this.listener = listener; }
+
+    /** Notifies the listener, if any; subclasses call this after changing score or difficulty. */
+    protected void fireChanged() {
+        Listener l = listener;
+        if (l != null) l.progressChanged(this);
+    }
+}
@@ -0,0 +1,453 @@
+package com.model;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional off-heap store for player progress, for very large account populations.
+ *
+ * Each player gets one fixed-size row in direct {@link ByteBuffer} chunks outside the Java heap:
+ *
+ *   offset  size  field
+ *        0     4  score
+ *        4     4  currentLevel
+ *        8     8  timeSpent (seconds)
+ *       16     8  lastActive (epoch seconds)
+ *       24     8  completed puzzle ids 0..63 (bitset)
+ *       32     1  lastDifficulty (Difficulty ordinal)
+ *       34    32  item quantities, one unsigned short per ItemName ordinal
+ *       96    64  hints used per puzzle id 0..63, one unsigned byte each
+ *
+ * {@link #view(int)} hands out a thin {@link Progress} (with an {@link Inventory}) that reads
+ * and writes the row directly, so the rest of the game and {@link DataLoader} work unchanged.
+ * Views are cheap and can be created on demand and dropped; all state lives in the row.
+ *
+ * Values that do not fit the fixed layout (puzzle ids outside 0..63, completed question text)
+ * go to a small on-heap spill {@link Progress} for that row. Item templates are shared by the
+ * whole table, one per {@link ItemName}.
+ */
+public class ProgressTable {
+    /** Completed/hint tracking in the row covers puzzle ids 0 until this value. */
+    public static final int MAX_PUZZLE_ID = 64;
+    /** Bytes per row. */
+    public static final int RECORD_SIZE = 160;
+
+    private static final int SCORE = 0;
+    private static final int LEVEL = 4;
+    private static final int TIME = 8;
+    private static final int ACTIVE = 16;
+    private static final int COMPLETED = 24;
+    private static final int DIFFICULTY = 32;
+    private static final int ITEMS = 34;
+    private static final int ITEM_SLOTS = 16;
+    private static final int HINTS = 96;
+
+    private static final int CHUNK_ROWS = 1 << 16;
+    private static final ItemName[] ITEM_NAMES = ItemName.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    static {
+        if (ITEM_NAMES.length > ITEM_SLOTS) throw new IllegalStateException("ProgressTable has room for " + ITEM_SLOTS + " item types");
+    }
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int rows = 0;
+
+    private final Map<Integer, Progress> spill = new ConcurrentHashMap<>();
+    private final Map<ItemName, Item> templates = new ConcurrentHashMap<>();
+
+    /** Creates an empty table; memory is reserved 64K rows at a time as rows are allocated. */
+    public ProgressTable() {
+    }
+
+    /** @return the number of rows allocated */
+    public synchronized int size() {
+        return rows;
+    }
+
+    /** @return bytes reserved outside the heap */
+    public synchronized long offHeapBytes() {
+        return (long) chunks.length * CHUNK_ROWS * RECORD_SIZE;
+    }
+
+    /**
+     * Allocates a new row holding default progress (score 0, level 1, difficulty ALL).
+     *
+     * @return the row number
+     */
+    public synchronized int allocate() {
+        int row = rows;
+        if (row / CHUNK_ROWS == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = ByteBuffer.allocateDirect(CHUNK_ROWS * RECORD_SIZE).order(ByteOrder.nativeOrder());
+        }
+        rows++;
+        ByteBuffer b = chunk(row);
+        int base = base(row);
+        b.putInt(base + LEVEL, 1);
+        b.put(base + DIFFICULTY, (byte) Difficulty.ALL.ordinal());
+        return row;
+    }
+
+    /**
+     * Allocates a row and copies an existing progress object into it.
+     *
+     * @param p progress to copy (null gives a default row)
+     * @return the row number
+     */
+    public int add(Progress p) {
+        int row = allocate();
+        if (p == null) return row;
+        Progress v = view(row);
+        v.setCurrentLevel(p.getCurrentLevel());
+        v.addTime(p.getTimeSpent());
+        v.increaseScore(p.getScore());
+        v.setLastDifficulty(p.getLastDifficultyAsEnum());
+        v.setLastActive(p.getLastActive());
+        for (Integer id : p.getCompletedPuzzleIds()) v.addCompletedPuzzleId(id);
+        for (String q : p.getCompletedPuzzles()) v.addCompletedPuzzle(q);
+        for (Map.Entry<Integer, Integer> e : p.getHintsUsed().entrySet()) {
+            for (int i = 0; i < e.getValue(); i++) v.incrementHintsUsedFor(e.getKey());
+        }
+        v.setInventory(p.getInventory());
+        return row;
+    }
+
+    /**
+     * Returns a Progress that reads and writes the given row.
+     *
+     * @param row a row number from {@link #allocate()}
+     * @return a view over the row
+     */
+    public Progress view(int row) {
+        if (row < 0 || row >= size()) throw new IndexOutOfBoundsException("row " + row);
+        return new ProgressView(this, row);
+    }
+
+    // ---------- row access ----------
+
+    private ByteBuffer chunk(int row) {
+        return chunks[row / CHUNK_ROWS];
+    }
+
+    private static int base(int row) {
+        return (row % CHUNK_ROWS) * RECORD_SIZE;
+    }
+
+    private int getInt(int row, int off) { return chunk(row).getInt(base(row) + off); }
+    private void putInt(int row, int off, int v) { chunk(row).putInt(base(row) + off, v); }
+    private long getLong(int row, int off) { return chunk(row).getLong(base(row) + off); }
+    private void putLong(int row, int off, long v) { chunk(row).putLong(base(row) + off, v); }
+    private int getUByte(int row, int off) { return chunk(row).get(base(row) + off) & 0xFF; }
+    private void putByte(int row, int off, int v) { chunk(row).put(base(row) + off, (byte) v); }
+    private int getUShort(int row, int off) { return chunk(row).getShort(base(row) + off) & 0xFFFF; }
+    private void putShort(int row, int off, int v) { chunk(row).putShort(base(row) + off, (short) v); }
+
+    private Progress spillFor(int row, boolean create) {
+        return create ? spill.computeIfAbsent(row, r -> new Progress()) : spill.get(row);
+    }
+
+    private static boolean inRow(int id) {
+        return id >= 0 && id < MAX_PUZZLE_ID;
+    }
+
+    /**
+     * Progress backed by one table row. Only the spill and inventory view live on the heap.
+     */
+    private static final class ProgressView extends Progress {
+        private final ProgressTable t;
+        private final int row;
+
+        ProgressView(ProgressTable t, int row) {
+            super(false);
+            this.t = t;
+            this.row = row;
+        }
+
+        @Override public int getCurrentLevel() { return t.getInt(row, LEVEL); }
+        @Override public void setCurrentLevel(int level) { t.putInt(row, LEVEL, Math.max(1, level)); }
+
+        @Override public long getTimeSpent() { return t.getLong(row, TIME); }
+        @Override public void addTime(long seconds) { if (seconds > 0) t.putLong(row, TIME, getTimeSpent() + seconds); }
+
+        @Override public int getScore() { return t.getInt(row, SCORE); }
+        @Override
+        public void increaseScore(int delta) {
+            int old = getScore();
+            int score = Math.max(0, old + delta);
+            t.putInt(row, SCORE, score);
+            if (score != old) fireChanged();
+        }
+
+        @Override
+        public void addCompletedPuzzleId(int id) {
+            if (inRow(id)) t.putLong(row, COMPLETED, t.getLong(row, COMPLETED) | (1L << id));
+            else if (id >= 0) t.spillFor(row, true).addCompletedPuzzleId(id);
+        }
+
+        @Override
+        public boolean hasCompletedPuzzleId(int id) {
+            if (inRow(id)) return (t.getLong(row, COMPLETED) & (1L << id)) != 0;
+            Progress s = t.spillFor(row, false);
+            return s != null && s.hasCompletedPuzzleId(id);
+        }
+
+        @Override
+        public Set<Integer> getCompletedPuzzleIds() {
+            Set<Integer> out = new LinkedHashSet<>();
+            long bits = t.getLong(row, COMPLETED);
+            while (bits != 0) {
+                out.add(Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+            Progress s = t.spillFor(row, false);
+            if (s != null) out.addAll(s.getCompletedPuzzleIds());
+            return Collections.unmodifiableSet(out);
+        }
+
+        @Override
+        public void addCompletedPuzzle(String question) {
+            if (question != null) t.spillFor(row, true).addCompletedPuzzle(question);
+        }
+
+        @Override
+        public boolean hasCompletedPuzzleQuestion(String q) {
+            Progress s = t.spillFor(row, false);
+            return s != null && s.hasCompletedPuzzleQuestion(q);
+        }
+
+        @Override
+        public List<String> getCompletedPuzzles() {
+            Progress s = t.spillFor(row, false);
+            return s != null ? s.getCompletedPuzzles() : new ArrayList<>();
+        }
+
+        @Override
+        public Map<Integer, Integer> getHintsUsed() {
+            Map<Integer, Integer> out = new HashMap<>();
+            for (int id = 0; id < MAX_PUZZLE_ID; id++) {
+                int n = t.getUByte(row, HINTS + id);
+                if (n > 0) out.put(id, n);
+            }
+            Progress s = t.spillFor(row, false);
+            if (s != null) out.putAll(s.getHintsUsed());
+            return Collections.unmodifiableMap(out);
+        }
+
+        @Override
+        public int getHintsUsedFor(int id) {
+            if (inRow(id)) return t.getUByte(row, HINTS + id);
+            Progress s = t.spillFor(row, false);
+            return s != null ? s.getHintsUsedFor(id) : 0;
+        }
+
+        @Override
+        public void incrementHintsUsedFor(int id) {
+            if (inRow(id)) {
+                int n = t.getUByte(row, HINTS + id);
+                if (n < 255) t.putByte(row, HINTS + id, n + 1);
+            } else {
+                t.spillFor(row, true).incrementHintsUsedFor(id);
+            }
+        }
+
+        @Override
+        public void setLastDifficulty(Difficulty d) {
+            if (d == null || d == getLastDifficultyAsEnum()) return;
+            t.putByte(row, DIFFICULTY, d.ordinal());
+            fireChanged();
+        }
+
+        @Override public Difficulty getLastDifficultyAsEnum() { return DIFFICULTIES[t.getUByte(row, DIFFICULTY)]; }
+
+        @Override public long getLastActive() { return t.getLong(row, ACTIVE); }
+        @Override public void setLastActive(long epochSeconds) { if (epochSeconds >= 0) t.putLong(row, ACTIVE, epochSeconds); }
+        @Override public void markActive() { t.putLong(row, ACTIVE, System.currentTimeMillis() / 1000L); }
+
+        @Override public Inventory getInventory() { return new InventoryView(t, row); }
+
+        @Override
+        public void setInventory(Inventory inv) {
+            for (ItemName nm : ITEM_NAMES) {
+                t.putShort(row, ITEMS + 2 * nm.ordinal(), inv == null ? 0 : Math.min(0xFFFF, inv.getQuantity(nm)));
+                Item tpl = inv == null ? null : inv.getTemplate(nm);
+                if (tpl != null) t.templates.putIfAbsent(nm, tpl);
+            }
+        }
+
+        @Override
+        public boolean hasCompletedByEither(int id, String question) {
+            return (id >= 0 && hasCompletedPuzzleId(id)) || (question != null && hasCompletedPuzzleQuestion(question));
+        }
+    }
+
+    /**
+     * Inventory backed by the item quantity slots of one table row.
+     */
+    private static final class InventoryView extends Inventory {
+        private final ProgressTable t;
+        private final int row;
+
+        InventoryView(ProgressTable t, int row) {
+            super(false);
+            this.t = t;
+            this.row = row;
+        }
+
+        private int slot(ItemName nm) { return ITEMS + 2 * nm.ordinal(); }
+
+        @Override
+        public void addItem(Item item, int qty) {
+            if (item == null || qty <= 0) return;
+            addItemByName(item.getName(), qty, item);
+        }
+
+        @Override
+        public void addItemByName(ItemName name, int qty, Item templateIfNew) {
+            if (name == null || qty <= 0) return;
+            if (templateIfNew != null) t.templates.putIfAbsent(name, templateIfNew);
+            t.putShort(row, slot(name), (int) Math.min(0xFFFF, (long) getQuantity(name) + qty));
+        }
+
+        @Override
+        public int remove(ItemName name, int qty) {
+            if (name == null || qty <= 0) return 0;
+            int current = getQuantity(name);
+            int removed = Math.min(current, qty);
+            if (removed > 0) t.putShort(row, slot(name), current - removed);
+            return removed;
+        }
+
+        @Override
+        public int getQuantity(ItemName name) {
+            return name == null ? 0 : t.getUShort(row, slot(name));
+        }
+
+        @Override
+        public boolean useItem(ItemName name) {
+            if (name == null) return false;
+            Item template = t.templates.get(name);
+            if (template == null) return has(name);
+            if (!template.isUsable()) return false;
+            if (template.isConsumable()) return remove(name, 1) > 0;
+            return has(name);
+        }
+
+        @Override
+        public Item getTemplate(ItemName name) {
+            return name == null ? null : t.templates.get(name);
+        }
+
+        @Override
+        public Map<ItemName, Integer> getQuantities() {
+            EnumMap<ItemName, Integer> out = new EnumMap<>(ItemName.class);
+            for (ItemName nm : ITEM_NAMES) {
+                int q = getQuantity(nm);
+                if (q > 0) out.put(nm, q);
+            }
+            return Collections.unmodifiableMap(out);
+        }
+
+        @Override
+        public String toString() {
+            Map<ItemName, Integer> q = getQuantities();
+            if (q.isEmpty()) return "Inventory: (empty)";
+            StringJoiner sj = new StringJoiner(", ");
+            for (Map.Entry<ItemName, Integer> e : q.entrySet()) sj.add(e.getKey().name() + " x" + e.getValue());
+            return "Inventory: " + sj.toString();
+        }
+    }
+
+    // ---------- GC benchmark ----------
+
+    private static void fill(Progress p, Random rnd) {
+        p.increaseScore(rnd.nextInt(1000));
+        p.addTime(rnd.nextInt(10000));
+        p.setLastDifficulty(DIFFICULTIES[rnd.nextInt(4)]);
+        for (int k = 0; k < 6; k++) p.addCompletedPuzzleId(1 + rnd.nextInt(24));
+        for (int k = 0; k < 3; k++) p.incrementHintsUsedFor(1 + rnd.nextInt(24));
+        p.getInventory().addItemByName(ITEM_NAMES[rnd.nextInt(ITEM_NAMES.length)], 1 + rnd.nextInt(3), null);
+    }
+
+    private static long[] gcTotals() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, millis };
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Allocates short-lived garbage while the population is live, then forces a few full GCs.
+     *
+     * @return a value computed from the garbage, so the allocations can't be optimised away
+     */
+    private static long churn() {
+        long sink = 0;
+        for (int i = 0; i < 20_000_000; i++) {
+            int[] junk = new int[8];
+            junk[i & 7] = i;
+            sink += junk[(i + 3) & 7];
+        }
+        for (int i = 0; i < 3; i++) System.gc();
+        return sink;
+    }
+
+    private static void report(String label, long heapBefore, long[] gcBefore, long offHeap) {
+        long heap = usedHeap() - heapBefore;
+        long[] gc = gcTotals();
+        System.out.printf("%-9s heap +%,d MB  off-heap %,d MB  GCs %d  GC time %d ms%n",
+                label, heap >> 20, offHeap >> 20, gc[0] - gcBefore[0], gc[1] - gcBefore[1]);
+    }
+
+    private static long runOnHeap(int n) {
+        System.gc();
+        long heap0 = usedHeap();
+        long[] gc0 = gcTotals();
+        List<Progress> players = new ArrayList<>(n);
+        Random rnd = new Random(7);
+        for (int i = 0; i < n; i++) {
+            Progress p = new Progress();
+            fill(p, rnd);
+            players.add(p);
+        }
+        long check = churn();
+        report("on-heap", heap0, gc0, 0);
+        for (Progress p : players) check += p.getScore();
+        return check;
+    }
+
+    private static long runOffHeap(int n) {
+        System.gc();
+        long heap0 = usedHeap();
+        long[] gc0 = gcTotals();
+        ProgressTable table = new ProgressTable();
+        Random rnd = new Random(7);
+        for (int i = 0; i < n; i++) fill(table.view(table.allocate()), rnd);
+        long check = churn();
+        report("off-heap", heap0, gc0, table.offHeapBytes());
+        for (int i = 0; i < table.size(); i++) check += table.view(i).getScore();
+        return check;
+    }
+
+    /**
+     * Compares heap size and GC time for N players held as ordinary Progress objects versus
+     * rows in a ProgressTable. Usage: ProgressTable [players] (default 1,000,000).
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("Players: " + n);
+        long onHeap = runOnHeap(n);
+        long offHeap = runOffHeap(n);
+        System.out.println(onHeap == offHeap ? "Scores match." : "Score mismatch: " + onHeap + " vs " + offHeap);
+    }
+}
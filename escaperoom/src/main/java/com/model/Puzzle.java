@@ -1,13 +1,12 @@
 package com.model;
 
 /**
- * Tracks a player's in-game progress, including:
- * - Time spent playing
- * - Score
- * - Completed puzzles (by both ID and question text)
- * - Hint usage
- * - Last selected difficulty
- * - Player inventory
+ * Base class for all puzzle types: question, difficulty, optional id, reward,
+ * lock and hidden hint.
+ *
+ * Puzzles loaded into the shared {@link RoomCatalog} are frozen: they are read-only
+ * definitions shared by every session, and per-player state (attempts, solved, unlocked,
+ * hidden hint shown) lives in a {@link PuzzleSession}.
  */
 public abstract class Puzzle {
     protected String question;
@@ -24,6 +23,9 @@ public abstract class Puzzle {
     private String hiddenHint = null;
     private boolean hiddenHintShown = false;
 
+    // set once the puzzle is published in the shared RoomCatalog
+    private boolean frozen = false;
+
     /** Creates a new Progress instance with an empty inventory. */
     public Puzzle(String question, Difficulty difficulty) {
         this.question = question == null ? "" : question;
@@ -34,42 +36,71 @@ public abstract class Puzzle {
      * Getters/Setters for ID
      */ 
     public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
+    public void setId(int id) { checkMutable(); this.id = id; }
 
     /** 
      * Getters/Setters for  Question and Difficulty
      */
     public String getQuestion() { return question; }
     public Difficulty getDifficulty() { return difficulty; }
-    public void setDifficulty(Difficulty d) { this.difficulty = d; }
+    public void setDifficulty(Difficulty d) { checkMutable(); this.difficulty = d; }
 
     /**
      * Getters/Setters for Reward
      */
     public ItemName getReward() { return reward; }
-    public void setReward(ItemName reward) { this.reward = reward; }
+    public void setReward(ItemName reward) { checkMutable(); this.reward = reward; }
 
     /**
      * Getters/Setters for IsLocked
      */
     public boolean isLocked() { return locked; }
-    public void setLocked(boolean locked) { this.locked = locked; }
+    public void setLocked(boolean locked) { checkMutable(); this.locked = locked; }
 
     /**
      * Getters/Setters for HiddenHint
      */
     public String getHiddenHint() { return hiddenHint; }
-    public void setHiddenHint(String hint) { this.hiddenHint = hint; }
+    public void setHiddenHint(String hint) { checkMutable(); this.hiddenHint = hint; }
     public boolean isHiddenHintShown() { return hiddenHintShown; }
-    public void setHiddenHintShown(boolean shown) { this.hiddenHintShown = shown; }
+    public void setHiddenHintShown(boolean shown) { checkMutable(); this.hiddenHintShown = shown; }
 
     /**
      * Subclasses must implement answer checking.
+     * May record state on the puzzle itself (attempts, solved flag) unless it is frozen;
+     * shared catalog puzzles should be answered through {@link PuzzleSession} instead.
      * @param userAnswer player's answer
      * @return true if correct
      */
     public abstract boolean checkAnswer(String userAnswer);
 
+    /**
+     * Pure answer check: whether the answer is the right one, ignoring locks, attempt
+     * limits and any other play state. Never changes the puzzle, so it is safe to call
+     * on shared definitions from any thread.
+     * The default delegates to {@link #checkAnswer(String)}; the built-in puzzle types override it.
+     * @param userAnswer player's answer
+     * @return true if correct
+     */
+    public boolean matches(String userAnswer) { return checkAnswer(userAnswer); }
+
+    /**
+     * Makes this puzzle a read-only definition: every setter throws afterwards and
+     * {@code checkAnswer} stops recording state. Called by {@link RoomCatalog}.
+     */
+    void freeze() { this.frozen = true; }
+
+    /** @return true once the puzzle is a shared, read-only definition */
+    public boolean isFrozen() { return frozen; }
+
+    /**
+     * Throws if the puzzle has been frozen.
+     * @throws IllegalStateException when called on a shared definition
+     */
+    protected void checkMutable() {
+        if (frozen) throw new IllegalStateException("Puzzle " + id + " is a shared definition; keep play state in a PuzzleSession");
+    }
+
     @Override
     public String toString() {
         return "Puzzle{id=" + id + ", question='" + question + '\'' + ", difficulty=" + difficulty +
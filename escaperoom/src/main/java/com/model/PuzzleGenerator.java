@@ -0,0 +1,223 @@
+package com.model;
+
+/**
+ * Seeded procedural puzzles for endless mode and load testing.
+ *
+ * Puzzle number {@code index} of a generator is a pure function of (seed, index): its
+ * random stream is SplitMix64 started from {@code mix(seed + index * GOLDEN)}, so any
+ * puzzle can be produced directly, in any order, on any node, and always comes out the
+ * same. SplitMix64 is written out here rather than taken from
+ * {@link java.util.SplittableRandom} so the sequence can't change with the JDK.
+ *
+ * What a puzzle looks like is driven by the per-difficulty tables below (number of
+ * terms, operand range, chance of * and /, door counts, attempt limits). Riddle and
+ * trivia variants are filled in from small templates. Nothing is read from disk and
+ * generated puzzles have no id ({@code -1}); callers that track them assign one.
+ */
+public final class PuzzleGenerator {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /** Kinds of puzzle the generator can make. */
+    public enum Kind { MATH, DOOR, RIDDLE, TRIVIA }
+
+    // ---- per-difficulty parameters, indexed by Difficulty.ordinal() (EASY, MEDIUM, HARD) ----
+    private static final int[] MIN_TERMS    = { 2, 2, 3 };
+    private static final int[] MAX_TERMS    = { 2, 3, 4 };
+    private static final int[] MAX_OPERAND  = { 20, 50, 99 };
+    private static final int[] MUL_PERCENT  = { 0, 35, 45 };
+    private static final int[] DIV_PERCENT  = { 0, 0, 25 };
+    private static final int[] MIN_DOORS    = { 2, 3, 4 };
+    private static final int[] MAX_DOORS    = { 3, 5, 7 };
+    private static final int[] DOOR_TRIES   = { 0, 3, 2 };
+
+    private static final String[][] RIDDLES = {
+        { "ghost", "I drift through walls", "I haunt the attic", "I am pale and see-through", "I moan at midnight" },
+        { "candle", "I grow shorter as I work", "I weep wax", "a breath can end me", "I light the dark hall" },
+        { "shadow", "I follow you everywhere", "I vanish at noon", "I grow long at dusk", "I have no weight" },
+        { "mirror", "I show you yourself", "I have no eyes yet I see", "vampires ignore me", "break me for bad luck" },
+        { "key", "I have teeth but never bite", "I open what is shut", "I hang on a ring", "locks fear me" },
+        { "echo", "I answer without a mouth", "I repeat your words", "I live in empty halls", "I fade the more I speak" },
+    };
+    private static final String[][] LEGS = {
+        { "spider", "8" }, { "bat", "2" }, { "black cat", "4" }, { "raven", "2" }, { "beetle", "6" }, { "octopus", "8" },
+    };
+    private static final String[][] SIDES = {
+        { "triangle", "3" }, { "square", "4" }, { "pentagram", "5" }, { "hexagon", "6" }, { "octagon", "8" },
+    };
+
+    private final long seed;
+
+    /** @param seed the seed; the same seed always gives the same puzzles */
+    public PuzzleGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return the seed */
+    public long getSeed() { return seed; }
+
+    /**
+     * Puzzle {@code index}, with kind and difficulty chosen by the seed.
+     *
+     * @param index position in the generator's sequence (any long)
+     * @return the puzzle
+     */
+    public Puzzle generate(long index) {
+        Stream r = stream(index);
+        Kind kind = Kind.values()[r.nextInt(Kind.values().length)];
+        return make(kind, r, Difficulty.values()[r.nextInt(3)]);
+    }
+
+    /**
+     * Puzzle {@code index} of a given kind and difficulty.
+     *
+     * @param index      position in the sequence
+     * @param kind       what to make
+     * @param difficulty EASY, MEDIUM or HARD; ALL (or null) lets the seed choose
+     * @return the puzzle
+     */
+    public Puzzle generate(long index, Kind kind, Difficulty difficulty) {
+        Stream r = stream(index);
+        return make(kind, r, pick(r, difficulty));
+    }
+
+    /** @return math puzzle {@code index} at the given difficulty */
+    public MathPuzzle math(long index, Difficulty difficulty) {
+        Stream r = stream(index);
+        return math(r, pick(r, difficulty));
+    }
+
+    /** @return door puzzle {@code index} at the given difficulty */
+    public DoorPuzzle door(long index, Difficulty difficulty) {
+        Stream r = stream(index);
+        return door(r, pick(r, difficulty));
+    }
+
+    private Stream stream(long index) {
+        return new Stream(mix(seed + index * GOLDEN));
+    }
+
+    private static Difficulty pick(Stream r, Difficulty d) {
+        return d == null || d == Difficulty.ALL ? Difficulty.values()[r.nextInt(3)] : d;
+    }
+
+    private static Puzzle make(Kind kind, Stream r, Difficulty d) {
+        switch (kind) {
+            case DOOR: return door(r, d);
+            case RIDDLE: return riddle(r, d);
+            case TRIVIA: return trivia(r, d);
+            default: return math(r, d);
+        }
+    }
+
+    /**
+     * A sum of terms; each term is a number, a product or an exact quotient, so the answer
+     * is an integer under normal precedence (* and / before + and -).
+     */
+    private static MathPuzzle math(Stream r, Difficulty d) {
+        int t = d.ordinal();
+        int max = MAX_OPERAND[t];
+        int terms = MIN_TERMS[t] + r.nextInt(MAX_TERMS[t] - MIN_TERMS[t] + 1);
+        StringBuilder q = new StringBuilder(40).append("Solve: ");
+        long total = 0;
+        for (int i = 0; i < terms; i++) {
+            boolean minus = i > 0 && r.nextInt(2) == 0;
+            if (i > 0) q.append(minus ? " - " : " + ");
+            long value;
+            int roll = r.nextInt(100);
+            if (roll < DIV_PERCENT[t]) {
+                int divisor = 2 + r.nextInt(11);
+                int quotient = 1 + r.nextInt(max / 2);
+                q.append(divisor * quotient).append(" / ").append(divisor);
+                value = quotient;
+            } else if (roll < DIV_PERCENT[t] + MUL_PERCENT[t]) {
+                int a = 2 + r.nextInt(12), b = 1 + r.nextInt(max);
+                q.append(a).append(" * ").append(b);
+                value = (long) a * b;
+            } else {
+                value = 1 + r.nextInt(max);
+                q.append(value);
+            }
+            total += minus ? -value : value;
+        }
+        return new MathPuzzle(q.toString(), (int) total, d);
+    }
+
+    private static DoorPuzzle door(Stream r, Difficulty d) {
+        int t = d.ordinal();
+        int doors = MIN_DOORS[t] + r.nextInt(MAX_DOORS[t] - MIN_DOORS[t] + 1);
+        return new DoorPuzzle(doors, 1 + r.nextInt(doors), DOOR_TRIES[t], d);
+    }
+
+    /** Two (EASY) to four (HARD) distinct clues about one answer, in seeded order. */
+    private static RiddlePuzzle riddle(Stream r, Difficulty d) {
+        String[] row = RIDDLES[r.nextInt(RIDDLES.length)];
+        int clues = Math.min(row.length - 1, 2 + d.ordinal());
+        int[] order = { 1, 2, 3, 4 };
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int tmp = order[i]; order[i] = order[j]; order[j] = tmp;
+        }
+        StringBuilder q = new StringBuilder(96);
+        for (int i = 0; i < clues; i++) {
+            String clue = row[order[i]];
+            if (i == 0) q.append(java.lang.Character.toUpperCase(clue.charAt(0))).append(clue, 1, clue.length());
+            else q.append(i == clues - 1 ? " and " : ", ").append(clue);
+        }
+        q.append(". What am I?");
+        return new RiddlePuzzle(q.toString(), row[0], "generated", d);
+    }
+
+    private static TriviaPuzzle trivia(Stream r, Difficulty d) {
+        if (r.nextInt(2) == 0) {
+            String[] row = LEGS[r.nextInt(LEGS.length)];
+            return new TriviaPuzzle("How many legs does a " + row[0] + " have?", row[1], "creatures", d);
+        }
+        String[] row = SIDES[r.nextInt(SIDES.length)];
+        return new TriviaPuzzle("How many sides does a " + row[0] + " have?", row[1], "shapes", d);
+    }
+
+    /** The SplitMix64 finalizer. */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** One puzzle's SplitMix64 stream. */
+    private static final class Stream {
+        private long state;
+
+        Stream(long state) { this.state = state; }
+
+        long nextLong() {
+            return mix(state += GOLDEN);
+        }
+
+        /** Uniform in [0, bound) by multiply-shift; bound must be positive. */
+        int nextInt(int bound) {
+            return (int) (((nextLong() >>> 32) * bound) >>> 32);
+        }
+    }
+
+    /**
+     * Throughput check: {@code PuzzleGenerator [count] [seed]}.
+     */
+    public static void main(String[] args) {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 5_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        PuzzleGenerator gen = new PuzzleGenerator(seed);
+        for (Kind kind : Kind.values()) {
+            long sink = 0;
+            long t0 = System.nanoTime();
+            for (long i = 0; i < count; i++) sink += gen.generate(i, kind, Difficulty.ALL).getQuestion().length();
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("%-6s %,d puzzles in %.2fs = %,.0f/s (checksum %d)%n", kind, count, secs, count / secs, sink);
+        }
+        long t0 = System.nanoTime();
+        long sink = 0;
+        for (long i = 0; i < count; i++) sink += gen.generate(i).getQuestion().length();
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("mixed  %,d puzzles in %.2fs = %,.0f/s (checksum %d)%n", count, secs, count / secs, sink);
+    }
+}
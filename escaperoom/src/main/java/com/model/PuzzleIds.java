@@ -0,0 +1,131 @@
+package com.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Puzzle id allocator and remap table for a {@link RoomCatalog}.
+ *
+ * Every puzzle has an external id (the one in EscapeRoom.json, hints.txt and saved
+ * progress) and a dense index 0..size()-1 in file order. Explicit ids are kept as they
+ * are; puzzles without one get the smallest unused ids from 1 upward, in file order, so
+ * the same file always numbers the same way. Gaps in the external ids are compacted by
+ * the remap table, so per-puzzle data can live in arrays of exactly size() entries.
+ *
+ * The table is a plain int array indexed by id when ids are reasonably compact, and a
+ * pair of sorted int arrays (binary search) when they are very sparse; either way no
+ * lookup boxes. If an id is used twice, the first puzzle owns it.
+ */
+public final class PuzzleIds {
+    private final int[] idOf;        // dense -> id
+    private final int[] denseOf;     // id -> dense (-1 for gaps), compact mode only
+    private final int[] sortedIds;   // sparse mode: ids ascending
+    private final int[] sortedDense; // sparse mode: dense index per sorted id
+    private final int idLimit;
+
+    private PuzzleIds(int[] idOf) {
+        this.idOf = idOf;
+        int maxId = -1;
+        for (int id : idOf) maxId = Math.max(maxId, id);
+        idLimit = maxId + 1;
+
+        if (idLimit <= 4 * idOf.length + 64) {
+            denseOf = new int[idLimit];
+            Arrays.fill(denseOf, -1);
+            for (int d = 0; d < idOf.length; d++) if (idOf[d] >= 0 && denseOf[idOf[d]] < 0) denseOf[idOf[d]] = d;
+            sortedIds = sortedDense = null;
+        } else {
+            denseOf = null;
+            // sort (id, dense) pairs packed into longs; equal ids keep dense order, so the first wins
+            long[] pairs = new long[idOf.length];
+            int n = 0;
+            for (int d = 0; d < idOf.length; d++) if (idOf[d] >= 0) pairs[n++] = ((long) idOf[d] << 32) | d;
+            Arrays.sort(pairs, 0, n);
+            int[] ids = new int[n], dense = new int[n];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                int id = (int) (pairs[i] >>> 32);
+                if (k > 0 && ids[k - 1] == id) continue;
+                ids[k] = id;
+                dense[k++] = (int) pairs[i];
+            }
+            sortedIds = Arrays.copyOf(ids, k);
+            sortedDense = Arrays.copyOf(dense, k);
+        }
+    }
+
+    /**
+     * Numbers the puzzles of freshly loaded rooms: explicit ids are kept and missing ones
+     * are filled in, then the remap table is built. Rooms whose puzzles all have ids
+     * (e.g. frozen catalog rooms) are only read.
+     *
+     * @param rooms rooms in file order
+     * @return the id table
+     */
+    public static PuzzleIds assign(List<EscapeRoom> rooms) {
+        int count = 0;
+        for (EscapeRoom room : rooms) if (room.getPuzzles() != null) count += room.getPuzzles().size();
+
+        int[] explicit = new int[count];
+        int n = 0;
+        for (EscapeRoom room : rooms) {
+            if (room.getPuzzles() == null) continue;
+            for (Puzzle p : room.getPuzzles()) if (p.getId() >= 0) explicit[n++] = p.getId();
+        }
+        Arrays.sort(explicit, 0, n);
+
+        int[] idOf = new int[count];
+        int d = 0, next = 1, skip = 0;
+        for (EscapeRoom room : rooms) {
+            if (room.getPuzzles() == null) continue;
+            for (Puzzle p : room.getPuzzles()) {
+                if (p.getId() < 0) {
+                    // generated ids only grow, so one pointer walks the sorted explicit ids
+                    while (true) {
+                        while (skip < n && explicit[skip] < next) skip++;
+                        if (skip < n && explicit[skip] == next) next++;
+                        else break;
+                    }
+                    p.setId(next++);
+                }
+                idOf[d++] = p.getId();
+            }
+        }
+        return new PuzzleIds(idOf);
+    }
+
+    /**
+     * Rebuilds the table from ids already assigned (e.g. read from a content bundle).
+     *
+     * @param idOf external id of each puzzle, in file order
+     * @return the id table
+     */
+    static PuzzleIds of(int[] idOf) {
+        return new PuzzleIds(idOf.clone());
+    }
+
+    /**
+     * @param id an external puzzle id
+     * @return its dense index, or -1 if no puzzle has that id
+     */
+    public int dense(int id) {
+        if (id < 0 || id >= idLimit) return -1;
+        if (denseOf != null) return denseOf[id];
+        int i = Arrays.binarySearch(sortedIds, id);
+        return i < 0 ? -1 : sortedDense[i];
+    }
+
+    /**
+     * @param dense a dense index in [0, size())
+     * @return the external id of that puzzle
+     */
+    public int id(int dense) {
+        return idOf[dense];
+    }
+
+    /** @return number of puzzles (the dense index range) */
+    public int size() { return idOf.length; }
+
+    /** @return one more than the largest external id */
+    public int idLimit() { return idLimit; }
+}
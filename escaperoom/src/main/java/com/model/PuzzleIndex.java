@@ -0,0 +1,141 @@
+package com.model;
+
+import java.util.*;
+
+/**
+ * Precomputed lookups over a {@link RoomCatalog}, built once when the catalog loads.
+ *
+ * - id -> puzzle, through the catalog's {@link PuzzleIds} remap table
+ * - normalized room key -> room (see {@link #roomKey(String)})
+ * - (room, difficulty) -> puzzles
+ * - difficulty -> puzzles, and type ("math", "door", "trivia", "riddle") -> puzzles
+ *
+ * Every lookup is a constant-time array, hash or enum-map access; returned lists are
+ * unmodifiable and in file order. {@link Difficulty#ALL} selects every puzzle.
+ */
+public final class PuzzleIndex {
+
+    private static final List<Puzzle> NONE = Collections.emptyList();
+
+    private final PuzzleIds ids;
+    private final Puzzle[] byDense;
+    private final Map<String, EscapeRoom> roomsByKey = new HashMap<>();
+    private final Map<EscapeRoom, EnumMap<Difficulty, List<Puzzle>>> byRoomDifficulty = new IdentityHashMap<>();
+    private final EnumMap<Difficulty, List<Puzzle>> byDifficulty = new EnumMap<>(Difficulty.class);
+    private final Map<String, List<Puzzle>> byType = new HashMap<>();
+
+    /**
+     * Builds the index over a catalog's rooms and puzzles.
+     *
+     * @param ids      the catalog's id table; puzzle i in {@code puzzles} has dense index i
+     * @param roomKeys {@link #roomKey(String)} of each room as precomputed by the content
+     *                 bundle, or null to compute them
+     */
+    PuzzleIndex(List<EscapeRoom> rooms, List<Puzzle> puzzles, PuzzleIds ids, String[] roomKeys) {
+        this.ids = ids;
+        this.byDense = puzzles.toArray(new Puzzle[0]);
+
+        for (int r = 0; r < rooms.size(); r++) {
+            EscapeRoom room = rooms.get(r);
+            String key = roomKeys != null ? roomKeys[r] : roomKey(room.getName());
+            roomsByKey.putIfAbsent(key, room);
+            byRoomDifficulty.put(room, groupByDifficulty(room.getPuzzles()));
+        }
+        byDifficulty.putAll(groupByDifficulty(puzzles));
+
+        Map<String, List<Puzzle>> types = new HashMap<>();
+        for (Puzzle p : puzzles) types.computeIfAbsent(typeOf(p), k -> new ArrayList<>()).add(p);
+        for (Map.Entry<String, List<Puzzle>> e : types.entrySet()) byType.put(e.getKey(), Collections.unmodifiableList(e.getValue()));
+    }
+
+    private static EnumMap<Difficulty, List<Puzzle>> groupByDifficulty(List<Puzzle> puzzles) {
+        EnumMap<Difficulty, List<Puzzle>> groups = new EnumMap<>(Difficulty.class);
+        for (Difficulty d : Difficulty.values()) groups.put(d, new ArrayList<>());
+        for (Puzzle p : puzzles) {
+            Difficulty d = p.getDifficulty() == null ? Difficulty.EASY : p.getDifficulty();
+            groups.get(d).add(p);
+            if (d != Difficulty.ALL) groups.get(Difficulty.ALL).add(p);
+        }
+        for (Difficulty d : Difficulty.values()) groups.put(d, Collections.unmodifiableList(groups.get(d)));
+        return groups;
+    }
+
+    /**
+     * Normalizes a room name or screen id so the JSON names and the ids used by the
+     * JavaFX screens meet: whitespace is dropped, case is folded, and a leading "the"
+     * and trailing "screen" are removed ("The Dark Foyer" and "DarkFoyer Screen" both
+     * give "darkfoyer").
+     *
+     * @param name a room name or screen id (may be null)
+     * @return the lookup key ("" for null)
+     */
+    public static String roomKey(String name) {
+        if (name == null) return "";
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!java.lang.Character.isWhitespace(c)) sb.append(java.lang.Character.toLowerCase(c));
+        }
+        int start = 0, end = sb.length();
+        if (end - start > 3 && sb.indexOf("the") == 0) start += 3;
+        if (end - start > 6 && sb.lastIndexOf("screen") == end - 6) end -= 6;
+        return sb.substring(start, end);
+    }
+
+    /**
+     * The type name used in EscapeRoom.json for a puzzle's class.
+     *
+     * @param p a puzzle
+     * @return "math", "door", "trivia" or "riddle"
+     */
+    public static String typeOf(Puzzle p) {
+        if (p instanceof MathPuzzle) return "math";
+        if (p instanceof DoorPuzzle) return "door";
+        if (p instanceof TriviaPuzzle) return "trivia";
+        return "riddle";
+    }
+
+    /** @return the puzzle with this id, or null */
+    public Puzzle byId(int id) {
+        int d = ids.dense(id);
+        return d < 0 ? null : byDense[d];
+    }
+
+    /** @return the puzzle at a dense index in [0, {@link PuzzleIds#size()}) */
+    public Puzzle byDense(int dense) {
+        return byDense[dense];
+    }
+
+    /** @return one more than the largest puzzle id */
+    public int idLimit() {
+        return ids.idLimit();
+    }
+
+    /**
+     * @param nameOrScreenId a room name or screen id, normalized with {@link #roomKey(String)}
+     * @return the matching room, or null
+     */
+    public EscapeRoom room(String nameOrScreenId) {
+        return roomsByKey.get(roomKey(nameOrScreenId));
+    }
+
+    /** @return the room's puzzles of the given difficulty (all of them for ALL) */
+    public List<Puzzle> byRoomAndDifficulty(EscapeRoom room, Difficulty difficulty) {
+        EnumMap<Difficulty, List<Puzzle>> groups = room == null ? null : byRoomDifficulty.get(room);
+        if (groups == null) return NONE;
+        return groups.get(difficulty == null ? Difficulty.ALL : difficulty);
+    }
+
+    /** @return all puzzles of the given difficulty (all of them for ALL) */
+    public List<Puzzle> byDifficulty(Difficulty difficulty) {
+        return byDifficulty.get(difficulty == null ? Difficulty.ALL : difficulty);
+    }
+
+    /** @return all puzzles of a type name as used in JSON ("math", "door", "trivia", "riddle") */
+    public List<Puzzle> byType(String type) {
+        if (type == null) return NONE;
+        List<Puzzle> list = byType.get(type);
+        if (list == null) list = byType.get(type.toLowerCase(Locale.ROOT));
+        return list == null ? NONE : list;
+    }
+}
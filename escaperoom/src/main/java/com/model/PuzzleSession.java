@@ -0,0 +1,128 @@
+package com.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * One player's play state for the puzzles of a shared {@link RoomCatalog}.
+ *
+ * Puzzle definitions in the catalog are read-only; everything that changes while a
+ * player works through them is kept here, keyed by puzzle id:
+ *  - attempts made (door puzzles with an attempt limit)
+ *  - solved flag
+ *  - unlocked (a locked puzzle opened with a KEY)
+ *  - unblocked (a blocked door cleared)
+ *  - hidden hint revealed (TORCH)
+ *
+ * State is a few bitsets and one int array sized by the catalog's largest id, allocated
+ * lazily, so thousands of sessions can share one catalog. A session belongs to one player
+ * and is not thread-safe.
+ *
+ * When content is hot-reloaded the session keeps playing its original catalog snapshot
+ * until {@link #refresh()} is called, which callers do when the player moves on to the
+ * next puzzle. State is keyed by id, so it carries over to the new snapshot.
+ */
+public class PuzzleSession {
+    private RoomCatalog catalog;
+
+    private int[] attempts;
+    private final BitSet solved = new BitSet();
+    private final BitSet unlocked = new BitSet();
+    private final BitSet unblocked = new BitSet();
+    private final BitSet hiddenHintShown = new BitSet();
+
+    /**
+     * Creates an empty session over a catalog.
+     *
+     * @param catalog the shared puzzle definitions
+     */
+    public PuzzleSession(RoomCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /** @return the catalog snapshot this session plays */
+    public RoomCatalog getCatalog() { return catalog; }
+
+    /**
+     * Switches to the catalog currently published for this session's source, if a reload
+     * has replaced the one the session started with. Puzzles already handed out from the
+     * old snapshot stay usable.
+     *
+     * @return true if the session moved to a newer catalog
+     */
+    public boolean refresh() {
+        RoomCatalog latest = catalog == null ? null : RoomCatalog.current(catalog.getSource());
+        if (latest == null || latest == catalog) return false;
+        catalog = latest;
+        return true;
+    }
+
+    /**
+     * Answers a puzzle, applying the same rules as the puzzle's own {@code checkAnswer}:
+     * locked or blocked puzzles can't be answered, door puzzles count attempts against
+     * their limit, and a correct answer marks the puzzle solved.
+     *
+     * @param p      the puzzle
+     * @param answer the player's answer
+     * @return true if the answer was accepted as correct
+     */
+    public boolean attempt(Puzzle p, String answer) {
+        if (p == null) return false;
+        if (isLocked(p) || isBlocked(p)) return false;
+
+        if (p instanceof DoorPuzzle) {
+            DoorPuzzle door = (DoorPuzzle) p;
+            if (door.parseChoice(answer) < 0) return false;
+            int made = recordAttempt(p);
+            if (door.getAttemptsAllowed() > 0 && made > door.getAttemptsAllowed()) return false;
+        }
+
+        boolean ok;
+        try {
+            ok = p.matches(answer);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        if (ok && p.getId() >= 0) solved.set(p.getId());
+        return ok;
+    }
+
+    /** @return attempts recorded for the puzzle in this session */
+    public int getAttempts(Puzzle p) {
+        int id = p == null ? -1 : p.getId();
+        return attempts != null && id >= 0 && id < attempts.length ? attempts[id] : 0;
+    }
+
+    /** @return true if the puzzle was answered correctly in this session */
+    public boolean isSolved(Puzzle p) { return p != null && p.getId() >= 0 && solved.get(p.getId()); }
+
+    /** @return true if the puzzle is locked and has not been unlocked in this session */
+    public boolean isLocked(Puzzle p) {
+        return p != null && p.isLocked() && !(p.getId() >= 0 && unlocked.get(p.getId()));
+    }
+
+    /** Unlocks a locked puzzle for the rest of this session. */
+    public void unlock(Puzzle p) { if (p != null && p.getId() >= 0) unlocked.set(p.getId()); }
+
+    /** @return true if the puzzle is a blocked door that has not been cleared in this session */
+    public boolean isBlocked(Puzzle p) {
+        return p instanceof DoorPuzzle && ((DoorPuzzle) p).isBlocked() && !(p.getId() >= 0 && unblocked.get(p.getId()));
+    }
+
+    /** Clears a blocked door for the rest of this session. */
+    public void unblock(Puzzle p) { if (p != null && p.getId() >= 0) unblocked.set(p.getId()); }
+
+    /** @return true if the puzzle's hidden hint was already revealed in this session */
+    public boolean isHiddenHintShown(Puzzle p) { return p != null && p.getId() >= 0 && hiddenHintShown.get(p.getId()); }
+
+    /** Records that the puzzle's hidden hint has been revealed. */
+    public void markHiddenHintShown(Puzzle p) { if (p != null && p.getId() >= 0) hiddenHintShown.set(p.getId()); }
+
+    private int recordAttempt(Puzzle p) {
+        int id = p.getId();
+        if (id < 0) return 1;
+        if (attempts == null) attempts = new int[Math.max(catalog == null ? 0 : catalog.getIndex().idLimit(), id + 1)];
+        else if (id >= attempts.length) attempts = Arrays.copyOf(attempts, id + 1);
+        return ++attempts[id];
+    }
+}
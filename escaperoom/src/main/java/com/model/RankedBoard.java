@@ -0,0 +1,94 @@
+package com.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Best entry per (user, difficulty), ranked per difficulty and on a combined board, each a
+ * {@link ScoreIndex}. Difficulties are board keys (lower case). Not thread-safe;
+ * {@link LeaderboardService} guards it.
+ */
+final class RankedBoard {
+    private final Map<String, LeaderboardEntry> byKey = new HashMap<>();
+    private final Map<String, ScoreIndex> boards = new TreeMap<>();
+    private final ScoreIndex overall = new ScoreIndex();
+
+    static String key(String username, String difficulty) {
+        return username + '\u0000' + difficulty;
+    }
+
+    /** @return the player's entry on a board, or null */
+    LeaderboardEntry get(String username, String difficulty) {
+        return byKey.get(key(username, difficulty));
+    }
+
+    /**
+     * Adds an entry if it {@link LeaderboardEntry#beats beats} the player's current one.
+     *
+     * @return true if the board changed
+     */
+    boolean offer(LeaderboardEntry e) {
+        if (!e.beats(get(e.getUsername(), e.getDifficulty()))) return false;
+        put(e);
+        return true;
+    }
+
+    /** Sets the player's entry on its board, replacing any current one. */
+    void put(LeaderboardEntry e) {
+        LeaderboardEntry old = byKey.put(key(e.getUsername(), e.getDifficulty()), e);
+        ScoreIndex b = boards.computeIfAbsent(e.getDifficulty(), d -> new ScoreIndex());
+        if (old != null) {
+            b.remove(old);
+            overall.remove(old);
+        }
+        b.add(e);
+        overall.add(e);
+    }
+
+    /** @return the removed entry, or null if there was none */
+    LeaderboardEntry remove(String username, String difficulty) {
+        LeaderboardEntry old = byKey.remove(key(username, difficulty));
+        if (old == null) return null;
+        boards.get(old.getDifficulty()).remove(old);
+        overall.remove(old);
+        return old;
+    }
+
+    /**
+     * @param difficulty board, or null for the combined board
+     * @return the player's 1-based position on it, or -1 if they have no entry
+     */
+    int rankOf(String username, String difficulty) {
+        if (difficulty == null) {
+            // combined board: the player's best entry across difficulties
+            int best = -1;
+            for (String d : boards.keySet()) {
+                LeaderboardEntry e = byKey.get(key(username, d));
+                int r = e == null ? -1 : overall.rank(e);
+                if (r > 0 && (best < 0 || r < best)) best = r;
+            }
+            return best;
+        }
+        LeaderboardEntry e = byKey.get(key(username, difficulty));
+        return e == null ? -1 : boards.get(difficulty).rank(e);
+    }
+
+    /** @return the best k entries of a board (null: combined) in board order */
+    List<LeaderboardEntry> top(String difficulty, int k) {
+        ScoreIndex b = difficulty == null ? overall : boards.get(difficulty);
+        return b == null || k <= 0 ? Collections.emptyList() : b.top(k);
+    }
+
+    /** @return entries on a board (null: all boards) */
+    int size(String difficulty) {
+        ScoreIndex b = difficulty == null ? overall : boards.get(difficulty);
+        return b == null ? 0 : b.size();
+    }
+
+    boolean isEmpty() {
+        return byKey.isEmpty();
+    }
+}
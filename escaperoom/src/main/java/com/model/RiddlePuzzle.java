@@ -1,48 +1,74 @@
 package com.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class RiddlePuzzle extends Puzzle {
     private String answer;
     private String category;
     private boolean isSolved;
     private int id;
+    private List<String> aliases = Collections.emptyList();
+    private AnswerKey key;
 
     /**
      * A text-based puzzle where the player must answer a riddle correctly.
-     * Comparison is case-insensitive and ignores extra whitespace.
+     * Answers are compared in the normalized form of {@link AnswerKey} (case, punctuation,
+     * spacing and a leading article don't matter), against the answer and any aliases.
      */
     public RiddlePuzzle(String riddle, String answer, String category, Difficulty difficulty) {
         super(riddle, difficulty);
         this.answer = answer;
         this.category = category;
         this.isSolved = false;
+        this.key = AnswerKey.of(answer, aliases);
     }
 
     /**
      * Getters/Setter for Answer
      */
     public String getAnswer() { return answer; }
-    public void setAnswer(String answer) { this.answer = answer; }
+    public void setAnswer(String answer) { checkMutable(); this.answer = answer; this.key = AnswerKey.of(answer, aliases); }
+
+    /**
+     * Getters/Setter for Aliases (other accepted answers)
+     */
+    public List<String> getAliases() { return aliases; }
+    public void setAliases(List<String> aliases) {
+        checkMutable();
+        this.aliases = aliases == null ? Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<>(aliases));
+        this.key = AnswerKey.of(answer, this.aliases);
+    }
+
+    /** @return the normalized accepted answers */
+    public AnswerKey getAnswerKey() { return key; }
 
     /**
      * Getters/Setter for Category
      */
     public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public void setCategory(String category) { checkMutable(); this.category = category; }
 
     /**
      * Checks whether the player’s answer matches the correct answer.
+     * Marks the riddle solved unless the puzzle is frozen.
      *
      * @param userAnswer the player’s input
      * @return true if the answer matches; false otherwise
      */
     @Override
     public boolean checkAnswer(String userAnswer) {
-        if (userAnswer == null || answer == null) return false;
-        boolean ok = answer.trim().equalsIgnoreCase(userAnswer.trim());
-        if (ok) isSolved = true;
+        boolean ok = matches(userAnswer);
+        if (ok && !isFrozen()) isSolved = true;
         return ok;
     }
 
+    @Override
+    public boolean matches(String userAnswer) {
+        return key.matches(userAnswer, FuzzyMatch.maxEdits(getDifficulty()));
+    }
+
      /** @return true if the riddle has been solved */
     public boolean isSolved() { return isSolved; }
 
@@ -0,0 +1,238 @@
+package com.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide, read-only cache of the rooms and puzzles defined in EscapeRoom.json.
+ *
+ * The JSON is read and parsed once per path; every caller after that gets the same
+ * catalog. Room and puzzle lists are unmodifiable and every puzzle already carries its id
+ * (missing ids are filled in by {@link PuzzleIds}, with the same numbering the game used
+ * before). Puzzles are frozen before the catalog is published, so they can be shared by
+ * any number of sessions; per-player state goes in a {@link PuzzleSession}. A
+ * {@link PuzzleIndex} over the catalog is built at the same time, and every math
+ * equation is compiled and checked against its answer (mismatches are printed).
+ *
+ * When the build has compiled a {@link ContentBundle} for the requested path and its
+ * sources haven't changed since, the catalog (and its hints) come from the bundle and
+ * the JSON is never parsed.
+ *
+ * A catalog is a snapshot: {@link #reload(String, Path)} (driven by {@link ContentWatcher})
+ * builds and validates a complete new catalog off to the side and then replaces the cached
+ * one in a single step. Readers see either the old snapshot or the new one, never a mix;
+ * sessions move over with {@link PuzzleSession#refresh()}.
+ */
+public final class RoomCatalog {
+    /** Location of the room definitions used by the game. */
+    public static final String DEFAULT_PATH = "JSON/EscapeRoom.json";
+
+    private static final Map<String, RoomCatalog> CACHE = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final List<EscapeRoom> rooms;
+    private final List<Puzzle> puzzles;
+    private final PuzzleIds ids;
+    private final PuzzleIndex index;
+    private volatile HintIndex hints;
+    private volatile List<String>[] hintsByDense;
+
+    private RoomCatalog(String source, List<EscapeRoom> loaded) {
+        this(source, loaded, null, null, null);
+    }
+
+    /**
+     * @param hints    hints for the catalog, or null to load them on first use
+     * @param ids      id table already built for these puzzles (content bundle), or null
+     *                 to number them with {@link PuzzleIds#assign(List)}
+     * @param roomKeys precomputed room keys, or null
+     */
+    RoomCatalog(String source, List<EscapeRoom> loaded, HintIndex hints, PuzzleIds ids, String[] roomKeys) {
+        this.source = source;
+        this.hints = hints;
+        this.ids = ids != null ? ids : PuzzleIds.assign(loaded);
+
+        List<Puzzle> all = new ArrayList<>(this.ids.size());
+        for (EscapeRoom room : loaded) {
+            List<Puzzle> pz = room.getPuzzles();
+            if (pz == null) pz = Collections.emptyList();
+            all.addAll(pz);
+            room.setPuzzles(Collections.unmodifiableList(new ArrayList<>(pz)));
+        }
+        for (String problem : MathPuzzle.compileAll(all)) System.err.println(source + ": " + problem);
+        for (Puzzle pu : all) pu.freeze();
+        this.rooms = Collections.unmodifiableList(new ArrayList<>(loaded));
+        this.puzzles = Collections.unmodifiableList(all);
+        this.index = new PuzzleIndex(this.rooms, this.puzzles, this.ids, roomKeys);
+    }
+
+    /**
+     * Returns the catalog for {@link #DEFAULT_PATH}, loading it on first use.
+     * If the file cannot be read, an error is printed and an empty catalog is returned
+     * (and the load is retried on the next call).
+     *
+     * @return the shared catalog
+     */
+    public static RoomCatalog getInstance() {
+        return forPath(DEFAULT_PATH);
+    }
+
+    /**
+     * Returns the catalog for a resource or file path, loading it on first use.
+     * Failures are printed and give an empty, uncached catalog.
+     *
+     * @param resourceOrPath classpath resource or filesystem path, as accepted by {@link RoomLoader}
+     * @return the shared catalog for that path
+     */
+    public static RoomCatalog forPath(String resourceOrPath) {
+        try {
+            return load(resourceOrPath);
+        } catch (IOException e) {
+            System.err.println("Failed to load rooms from " + resourceOrPath + ": " + e.getMessage());
+            return new RoomCatalog(resourceOrPath, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Returns the catalog for a resource or file path, loading it on first use.
+     *
+     * @param resourceOrPath classpath resource or filesystem path
+     * @return the shared catalog for that path
+     * @throws IOException if the rooms cannot be read or parsed
+     */
+    public static RoomCatalog load(String resourceOrPath) throws IOException {
+        RoomCatalog cached = CACHE.get(resourceOrPath);
+        if (cached != null) return cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(resourceOrPath);
+            if (cached != null) return cached;
+            RoomCatalog fresh = fromBundle(resourceOrPath);
+            if (fresh == null) fresh = fromJson(resourceOrPath);
+            CACHE.put(resourceOrPath, fresh);
+            return fresh;
+        }
+    }
+
+    /**
+     * Rebuilds the catalog for a path from its JSON and hints file, validates it, and
+     * publishes it in place of the cached one. The build happens on the caller's thread
+     * without holding any lock readers need; only the final swap is synchronized.
+     * If reading or validation fails the error is printed and the current catalog stays.
+     * A reload of {@link #DEFAULT_PATH} also publishes its hints to {@link HintRepository}.
+     *
+     * @param resourceOrPath classpath resource or filesystem path of the rooms
+     * @param hintsFile      hints.txt to read, or null to use {@link HintIndex#load()}
+     * @return the published catalog, or null if the reload was rejected
+     */
+    public static RoomCatalog reload(String resourceOrPath, Path hintsFile) {
+        RoomCatalog fresh;
+        try {
+            HintIndex hints = hintsFile != null && Files.isRegularFile(hintsFile) ? HintIndex.load(hintsFile) : HintIndex.load();
+            fresh = new RoomCatalog(resourceOrPath, new RoomLoader().loadRooms(resourceOrPath), hints, null, null);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Reload of " + resourceOrPath + " failed, keeping current content: " + e.getMessage());
+            return null;
+        }
+        List<String> errors = ContentBundleCompiler.validate(fresh, fresh.getHints());
+        if (!errors.isEmpty()) {
+            System.err.println("Reload of " + resourceOrPath + " rejected, keeping current content:");
+            for (String e : errors) System.err.println("  " + e);
+            return null;
+        }
+        synchronized (CACHE) {
+            CACHE.put(resourceOrPath, fresh);
+        }
+        if (DEFAULT_PATH.equals(resourceOrPath)) HintRepository.getInstance().publish(fresh.getHints());
+        return fresh;
+    }
+
+    /**
+     * @param resourceOrPath a path previously passed to {@link #load(String)}
+     * @return the catalog currently published for it, or null if none was loaded
+     */
+    public static RoomCatalog current(String resourceOrPath) {
+        return resourceOrPath == null ? null : CACHE.get(resourceOrPath);
+    }
+
+    /**
+     * Parses the JSON directly, bypassing the cache and any content bundle.
+     *
+     * @param resourceOrPath classpath resource or filesystem path
+     * @return a new catalog
+     * @throws IOException if the rooms cannot be read or parsed
+     */
+    static RoomCatalog fromJson(String resourceOrPath) throws IOException {
+        return new RoomCatalog(resourceOrPath, new RoomLoader().loadRooms(resourceOrPath));
+    }
+
+    private static RoomCatalog fromBundle(String resourceOrPath) {
+        ContentBundle bundle = ContentBundle.openDefault();
+        if (bundle == null || !resourceOrPath.equals(bundle.getSource())) return null;
+        if (!bundle.isFresh()) {
+            System.out.println("Content bundle is out of date; loading " + resourceOrPath + " instead.");
+            return null;
+        }
+        try {
+            return bundle.toCatalog();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring corrupt content bundle: " + e);
+            return null;
+        }
+    }
+
+    /** @return the path this catalog was loaded from */
+    public String getSource() { return source; }
+
+    /** @return all rooms in file order (unmodifiable) */
+    public List<EscapeRoom> getRooms() { return rooms; }
+
+    /** @return every puzzle of every room, in file order (unmodifiable) */
+    public List<Puzzle> getPuzzles() { return puzzles; }
+
+    /** @return lookups by id, room, difficulty and type */
+    public PuzzleIndex getIndex() { return index; }
+
+    /** @return the id allocator / remap table (external id <-> dense index) */
+    public PuzzleIds getIds() { return ids; }
+
+    /**
+     * Hints for the catalog's puzzles: from the content bundle when the catalog came from
+     * one, otherwise the shared {@link HintRepository} snapshot.
+     *
+     * @return the hints (never null)
+     */
+    public HintIndex getHints() {
+        HintIndex h = hints;
+        if (h == null) {
+            synchronized (this) {
+                if (hints == null) hints = HintRepository.getInstance().snapshot();
+                h = hints;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Hints for one puzzle, looked up through the id table into an array indexed by dense
+     * puzzle index (built on first use from {@link #getHints()}).
+     *
+     * @param id external puzzle id
+     * @return the puzzle's hints in order (empty if none or no such puzzle)
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getHintsFor(int id) {
+        int d = ids.dense(id);
+        if (d < 0) return Collections.emptyList();
+        List<String>[] table = hintsByDense;
+        if (table == null) {
+            HintIndex h = getHints();
+            table = (List<String>[]) new List<?>[ids.size()];
+            for (int i = 0; i < table.length; i++) table[i] = h.get(ids.id(i));
+            hintsByDense = table;
+        }
+        return table[d];
+    }
+}
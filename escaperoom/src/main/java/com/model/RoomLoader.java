@@ -149,6 +149,7 @@ public class RoomLoader {
                 String answer = optString(p, "answer", null);
                 String category = optString(p, "category", null);
                 TriviaPuzzle rp = new TriviaPuzzle(question, answer, category, difficulty);
+                rp.setAliases(optStringList(p, "aliases"));
                 applyCommonOptionalFields(rp, p);
                 return rp;
             }
@@ -157,6 +158,7 @@ public class RoomLoader {
                 String answer = optString(p, "answer", null);
                 String category = optString(p, "category", null);
                 RiddlePuzzle rp = new RiddlePuzzle(question, answer, category, difficulty);
+                rp.setAliases(optStringList(p, "aliases"));
                 applyCommonOptionalFields(rp, p);
                 return rp;
             }
@@ -203,6 +205,13 @@ public class RoomLoader {
         if (v == null) return def;
         return v.toString();
     }
+    private static List<String> optStringList(Map<String,Object> m, String key) {
+        Object v = m.get(key);
+        if (!(v instanceof List)) return null;
+        List<String> out = new ArrayList<>();
+        for (Object o : (List<?>) v) if (o != null) out.add(o.toString());
+        return out;
+    }
     private static boolean optBoolean(Map<String,Object> m, String key, boolean def) {
         Object v = m.get(key);
         if (v == null) return def;
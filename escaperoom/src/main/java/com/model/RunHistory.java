@@ -0,0 +1,470 @@
+package com.model;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Every finished run, not just each player's best (that is {@link LeaderboardService}).
+ *
+ * Runs are appended to runs.log, one JSON object per line, and at the same time added to
+ * hourly, daily and monthly buckets per (user, difficulty): runs, total and best score,
+ * time, puzzles solved and hints used. Trend views and daily or weekly boards read those
+ * buckets, never the raw runs.
+ *
+ * {@link #compact()} folds the history into runs.rollup.json and trims what is kept:
+ * raw runs for {@link #RAW_RETENTION} seconds, hourly buckets for {@link #HOUR_RETENTION},
+ * daily buckets for {@link #DAY_RETENTION}, monthly buckets for good. The roll-up file
+ * records the last run it includes, so runs after it are replayed from the log on load and
+ * a crash part way through a compaction never counts a run twice.
+ */
+public final class RunHistory {
+    public static final long RAW_RETENTION = 7L * 24 * 3600;
+    public static final long HOUR_RETENTION = 14L * 24 * 3600;
+    public static final long DAY_RETENTION = 400L * 24 * 3600;
+
+    private static RunHistory instance;
+
+    /** Bucket sizes, each aligned to the history's time zone. */
+    public enum Granularity {
+        HOUR, DAY, MONTH;
+
+        /** @return start of the bucket holding a time, epoch seconds */
+        long start(long epochSecond, ZoneId zone) {
+            ZonedDateTime t = Instant.ofEpochSecond(epochSecond).atZone(zone);
+            return switch (this) {
+                case HOUR -> t.truncatedTo(ChronoUnit.HOURS).toEpochSecond();
+                case DAY -> t.truncatedTo(ChronoUnit.DAYS).toEpochSecond();
+                case MONTH -> t.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).toEpochSecond();
+            };
+        }
+    }
+
+    /**
+     * Totals for one player on one difficulty over one bucket. Query results are copies, so
+     * they don't change as runs are recorded.
+     */
+    public static final class Bucket {
+        private final Granularity granularity;
+        private final long start;
+        private final String username;
+        private final String difficulty;
+        private int runs;
+        private long totalScore;
+        private long bestScore;
+        private long bestTime;
+        private long totalTime;
+        private long puzzlesSolved;
+        private long hintsUsed;
+
+        Bucket(Granularity granularity, long start, String username, String difficulty) {
+            this.granularity = granularity;
+            this.start = start;
+            this.username = username;
+            this.difficulty = difficulty;
+        }
+
+        void add(RunRecord r) {
+            add(1, r.getScore(), r.getScore(), r.getTimeSpent(), r.getTimeSpent(), r.getPuzzlesSolved(), r.getHintsUsed());
+        }
+
+        void add(Bucket b) {
+            add(b.runs, b.totalScore, b.bestScore, b.bestTime, b.totalTime, b.puzzlesSolved, b.hintsUsed);
+        }
+
+        private void add(int n, long total, long best, long bestT, long time, long solved, long hints) {
+            if (n <= 0) return;
+            if (runs == 0 || best > bestScore || (best == bestScore && bestT < bestTime)) {
+                bestScore = best;
+                bestTime = bestT;
+            }
+            runs += n;
+            totalScore += total;
+            totalTime += time;
+            puzzlesSolved += solved;
+            hintsUsed += hints;
+        }
+
+        Bucket copy() {
+            Bucket b = new Bucket(granularity, start, username, difficulty);
+            b.add(this);
+            return b;
+        }
+
+        public Granularity getGranularity() { return granularity; }
+        /** @return bucket start, epoch seconds */
+        public long getStart() { return start; }
+        public String getUsername() { return username; }
+        /** @return the difficulty, or null for a total across difficulties */
+        public String getDifficulty() { return difficulty; }
+        public int getRuns() { return runs; }
+        public long getTotalScore() { return totalScore; }
+        public long getBestScore() { return bestScore; }
+        /** @return time spent on the best-scoring run */
+        public long getBestTime() { return bestTime; }
+        public long getTotalTime() { return totalTime; }
+        public long getPuzzlesSolved() { return puzzlesSolved; }
+        public long getHintsUsed() { return hintsUsed; }
+        public double getAverageScore() { return runs == 0 ? 0 : (double) totalScore / runs; }
+
+        @Override
+        public String toString() {
+            return granularity + "@" + start + " " + username + " [" + difficulty + "] " + runs + " runs, best " + bestScore;
+        }
+    }
+
+    private final Path log;
+    private final Path rollup;
+    private final ZoneId zone;
+    private final Map<Granularity, TreeMap<Long, Map<String, Bucket>>> buckets = new EnumMap<>(Granularity.class);
+    private final ArrayDeque<RunRecord> recent = new ArrayDeque<>();
+    private long nextSeq = 1;
+    private BufferedWriter appender;
+
+    /**
+     * Opens the history kept in a log file (and its roll-up file next to it), using the
+     * system time zone for bucket boundaries.
+     *
+     * @param log runs.log (need not exist)
+     */
+    public RunHistory(Path log) {
+        this(log, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param log  runs.log (need not exist)
+     * @param zone time zone that hours, days and months are aligned to
+     */
+    public RunHistory(Path log, ZoneId zone) {
+        this.log = log;
+        this.rollup = log.resolveSibling("runs.rollup.json");
+        this.zone = zone;
+        for (Granularity g : Granularity.values()) buckets.put(g, new TreeMap<>());
+        load();
+    }
+
+    /**
+     * @return the game's run history (JSON/runs.log under the working directory)
+     */
+    public static synchronized RunHistory getInstance() {
+        if (instance == null) instance = new RunHistory(Paths.get(System.getProperty("user.dir"), "JSON", "runs.log"));
+        return instance;
+    }
+
+    /**
+     * Records a run that has just finished.
+     *
+     * @param username      player name
+     * @param difficulty    board ("easy", "medium", "hard" or "all"; case-insensitive)
+     * @param score         points
+     * @param timeSpent     seconds
+     * @param puzzlesSolved puzzles solved in the run
+     * @param hintsUsed     hints taken in the run
+     * @return the recorded run, or null if username is null
+     */
+    public RunRecord record(String username, String difficulty, long score, long timeSpent, int puzzlesSolved, int hintsUsed) {
+        return record(username, difficulty, score, timeSpent, puzzlesSolved, hintsUsed, System.currentTimeMillis() / 1000L);
+    }
+
+    /**
+     * Records a run that finished at a given time: one line appended to the log and one
+     * bucket per granularity updated.
+     *
+     * @param finishedAt epoch seconds
+     * @return the recorded run, or null if username is null
+     */
+    public synchronized RunRecord record(String username, String difficulty, long score, long timeSpent,
+                                         int puzzlesSolved, int hintsUsed, long finishedAt) {
+        if (username == null) return null;
+        RunRecord r = new RunRecord(nextSeq++, username, BoardJson.board(difficulty), score, timeSpent, puzzlesSolved, hintsUsed, finishedAt);
+        recent.addLast(r);
+        fold(r);
+        try {
+            if (appender == null) {
+                if (log.getParent() != null) Files.createDirectories(log.getParent());
+                appender = Files.newBufferedWriter(log, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            appender.write(toJson(r).toJSONString());
+            appender.newLine();
+            appender.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to append to " + log + ": " + e.getMessage());
+        }
+        return r;
+    }
+
+    private void fold(RunRecord r) {
+        String k = RankedBoard.key(r.getUsername(), r.getDifficulty());
+        for (Granularity g : Granularity.values()) {
+            long start = g.start(r.getFinishedAt(), zone);
+            buckets.get(g).computeIfAbsent(start, s -> new HashMap<>())
+                    .computeIfAbsent(k, x -> new Bucket(g, start, r.getUsername(), r.getDifficulty()))
+                    .add(r);
+        }
+    }
+
+    /**
+     * A player's totals per bucket, oldest first. Buckets past their retention are gone, so
+     * long ranges should use a coarser granularity.
+     *
+     * @param username   player name
+     * @param difficulty board, or null to total across difficulties
+     * @param g          bucket size
+     * @param from       range start, epoch seconds (its bucket is included)
+     * @param to         range end, epoch seconds (exclusive)
+     * @return one bucket per period the player has runs in
+     */
+    public synchronized List<Bucket> trend(String username, String difficulty, Granularity g, long from, long to) {
+        List<Bucket> out = new ArrayList<>();
+        String d = difficulty == null ? null : BoardJson.board(difficulty);
+        for (Map.Entry<Long, Map<String, Bucket>> period : range(g, from, to).entrySet()) {
+            Bucket sum = null;
+            for (Bucket b : period.getValue().values()) {
+                if (!b.username.equals(username) || (d != null && !d.equals(b.difficulty))) continue;
+                if (sum == null) sum = new Bucket(g, period.getKey(), username, d);
+                sum.add(b);
+            }
+            if (sum != null) out.add(sum);
+        }
+        return out;
+    }
+
+    /**
+     * Best runs over a range, ranked like the leaderboard: each (user, difficulty) once,
+     * with its best score in the range.
+     *
+     * @param g          bucket size to read (the range should cover whole buckets)
+     * @param from       range start, epoch seconds
+     * @param to         range end, epoch seconds (exclusive)
+     * @param difficulty board, or null for every board
+     * @param k          how many
+     * @return the best k, in {@link LeaderboardEntry#ORDER}
+     */
+    public synchronized List<LeaderboardEntry> board(Granularity g, long from, long to, String difficulty, int k) {
+        String d = difficulty == null ? null : BoardJson.board(difficulty);
+        Map<String, Bucket> best = new HashMap<>();
+        for (Map<String, Bucket> period : range(g, from, to).values()) {
+            for (Map.Entry<String, Bucket> e : period.entrySet()) {
+                Bucket b = e.getValue();
+                if (d != null && !d.equals(b.difficulty)) continue;
+                Bucket sum = best.get(e.getKey());
+                if (sum == null) best.put(e.getKey(), b.copy());
+                else sum.add(b);
+            }
+        }
+        List<LeaderboardEntry> out = new ArrayList<>(best.size());
+        for (Bucket b : best.values()) out.add(new LeaderboardEntry(b.username, b.difficulty, b.bestScore, b.bestTime, null));
+        out.sort(LeaderboardEntry.ORDER);
+        return out.size() > k ? new ArrayList<>(out.subList(0, Math.max(0, k))) : out;
+    }
+
+    /** @return the best k runs on a day, from the daily buckets */
+    public List<LeaderboardEntry> dailyBoard(LocalDate day, String difficulty, int k) {
+        return board(Granularity.DAY, epoch(day), epoch(day.plusDays(1)), difficulty, k);
+    }
+
+    /** @return the best k runs in the Monday-to-Sunday week holding a day */
+    public List<LeaderboardEntry> weeklyBoard(LocalDate day, String difficulty, int k) {
+        LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return board(Granularity.DAY, epoch(monday), epoch(monday.plusWeeks(1)), difficulty, k);
+    }
+
+    private long epoch(LocalDate day) {
+        return day.atStartOfDay(zone).toEpochSecond();
+    }
+
+    private NavigableMap<Long, Map<String, Bucket>> range(Granularity g, long from, long to) {
+        long start = g.start(from, zone);
+        return start >= to ? Collections.emptyNavigableMap() : buckets.get(g).subMap(start, true, to, false);
+    }
+
+    /**
+     * @param username player name, or null for everyone
+     * @return raw runs still kept (see {@link #RAW_RETENTION}), oldest first
+     */
+    public synchronized List<RunRecord> recentRuns(String username) {
+        List<RunRecord> out = new ArrayList<>();
+        for (RunRecord r : recent) if (username == null || r.getUsername().equals(username)) out.add(r);
+        return out;
+    }
+
+    /** @return number of buckets held at a granularity (all players) */
+    public synchronized int bucketCount(Granularity g) {
+        int n = 0;
+        for (Map<String, Bucket> period : buckets.get(g).values()) n += period.size();
+        return n;
+    }
+
+    /** Compacts as of now; see {@link #compact(long)}. */
+    public void compact() {
+        compact(System.currentTimeMillis() / 1000L);
+    }
+
+    /**
+     * Writes every bucket to runs.rollup.json, drops raw runs and buckets past their
+     * retention, and rewrites runs.log with the raw runs that are left.
+     *
+     * @param now epoch seconds the retention windows are measured back from
+     */
+    public synchronized void compact(long now) {
+        while (!recent.isEmpty() && recent.peekFirst().getFinishedAt() < now - RAW_RETENTION) recent.removeFirst();
+        buckets.get(Granularity.HOUR).headMap(now - HOUR_RETENTION).clear();
+        buckets.get(Granularity.DAY).headMap(now - DAY_RETENTION).clear();
+        closeAppender();
+        try {
+            if (log.getParent() != null) Files.createDirectories(log.getParent());
+            // roll-ups first: until the new log is in place, runs it includes are skipped on load
+            writeAtomically(rollup, rollupJson(nextSeq - 1).toJSONString());
+            StringBuilder sb = new StringBuilder();
+            for (RunRecord r : recent) sb.append(toJson(r).toJSONString()).append('\n');
+            writeAtomically(log, sb.toString());
+        } catch (IOException e) {
+            System.err.println("Failed to compact run history: " + e.getMessage());
+        }
+    }
+
+    private static void writeAtomically(Path file, String text) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, text.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Closes the log; a later run reopens it. */
+    public synchronized void close() {
+        closeAppender();
+    }
+
+    private void closeAppender() {
+        if (appender == null) return;
+        try {
+            appender.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close " + log + ": " + e.getMessage());
+        }
+        appender = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(RunRecord r) {
+        JSONObject o = new JSONObject();
+        o.put("seq", r.getSeq());
+        o.put("username", r.getUsername());
+        o.put("difficulty", r.getDifficulty());
+        o.put("score", r.getScore());
+        o.put("timeSpent", r.getTimeSpent());
+        o.put("puzzlesSolved", r.getPuzzlesSolved());
+        o.put("hintsUsed", r.getHintsUsed());
+        o.put("finishedAt", r.getFinishedAt());
+        return o;
+    }
+
+    private static RunRecord runFromJson(Object o) {
+        if (!(o instanceof JSONObject)) return null;
+        JSONObject j = (JSONObject) o;
+        Object user = j.get("username");
+        if (user == null) return null;
+        return new RunRecord(BoardJson.number(j.get("seq")), String.valueOf(user), BoardJson.difficultyOf(j),
+                BoardJson.number(j.get("score")), BoardJson.number(j.get("timeSpent")), (int) BoardJson.number(j.get("puzzlesSolved")),
+                (int) BoardJson.number(j.get("hintsUsed")), BoardJson.number(j.get("finishedAt")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject rollupJson(long foldedSeq) {
+        JSONArray arr = new JSONArray();
+        for (TreeMap<Long, Map<String, Bucket>> byStart : buckets.values()) {
+            for (Map<String, Bucket> period : byStart.values()) {
+                for (Bucket b : period.values()) {
+                    JSONObject o = new JSONObject();
+                    o.put("granularity", b.granularity.name());
+                    o.put("start", b.start);
+                    o.put("username", b.username);
+                    o.put("difficulty", b.difficulty);
+                    o.put("runs", b.runs);
+                    o.put("totalScore", b.totalScore);
+                    o.put("bestScore", b.bestScore);
+                    o.put("bestTime", b.bestTime);
+                    o.put("totalTime", b.totalTime);
+                    o.put("puzzlesSolved", b.puzzlesSolved);
+                    o.put("hintsUsed", b.hintsUsed);
+                    arr.add(o);
+                }
+            }
+        }
+        JSONObject root = new JSONObject();
+        root.put("foldedSeq", foldedSeq);
+        root.put("buckets", arr);
+        return root;
+    }
+
+    private void load() {
+        long foldedSeq = 0;
+        if (Files.isRegularFile(rollup)) {
+            try (Reader r = Files.newBufferedReader(rollup, StandardCharsets.UTF_8)) {
+                Object obj = new JSONParser().parse(r);
+                if (obj instanceof JSONObject) {
+                    JSONObject root = (JSONObject) obj;
+                    foldedSeq = BoardJson.number(root.get("foldedSeq"));
+                    Object arr = root.get("buckets");
+                    if (arr instanceof JSONArray) for (Object o : (JSONArray) arr) loadBucket(o);
+                }
+            } catch (IOException | ParseException | RuntimeException e) {
+                System.err.println("Failed to read " + rollup + ": " + e.getMessage());
+            }
+        }
+        nextSeq = foldedSeq + 1;
+        if (!Files.isRegularFile(log)) return;
+        long folded = foldedSeq;
+        try {
+            BoardJson.forEachLine(log, o -> {
+                RunRecord r = runFromJson(o);
+                if (r == null) return;
+                recent.addLast(r);
+                if (r.getSeq() > folded) fold(r);
+                nextSeq = Math.max(nextSeq, r.getSeq() + 1);
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to read " + log + ": " + e.getMessage());
+        }
+    }
+
+    private void loadBucket(Object o) {
+        if (!(o instanceof JSONObject)) return;
+        JSONObject j = (JSONObject) o;
+        Object user = j.get("username");
+        Object diff = j.get("difficulty");
+        Granularity g;
+        try {
+            g = Granularity.valueOf(String.valueOf(j.get("granularity")));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        if (user == null || diff == null) return;
+        long start = BoardJson.number(j.get("start"));
+        Bucket b = new Bucket(g, start, String.valueOf(user), String.valueOf(diff));
+        b.add((int) BoardJson.number(j.get("runs")), BoardJson.number(j.get("totalScore")), BoardJson.number(j.get("bestScore")), BoardJson.number(j.get("bestTime")),
+                BoardJson.number(j.get("totalTime")), BoardJson.number(j.get("puzzlesSolved")), BoardJson.number(j.get("hintsUsed")));
+        buckets.get(g).computeIfAbsent(start, s -> new HashMap<>()).merge(RankedBoard.key(b.username, b.difficulty), b, (x, y) -> {
+            x.add(y);
+            return x;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.model;
+
+/**
+ * One finished run, as written to the run history. Immutable.
+ */
+public final class RunRecord {
+    private final long seq;
+    private final String username;
+    private final String difficulty;
+    private final long score;
+    private final long timeSpent;
+    private final int puzzlesSolved;
+    private final int hintsUsed;
+    private final long finishedAt;
+
+    /**
+     * @param seq           position in the history (assigned by {@link RunHistory})
+     * @param username      player name
+     * @param difficulty    board key, lower case ("easy", "medium", "hard" or "all")
+     * @param score         points
+     * @param timeSpent     seconds
+     * @param puzzlesSolved puzzles solved in the run
+     * @param hintsUsed     hints taken in the run
+     * @param finishedAt    when the run finished, epoch seconds
+     */
+    public RunRecord(long seq, String username, String difficulty, long score, long timeSpent,
+                     int puzzlesSolved, int hintsUsed, long finishedAt) {
+        this.seq = seq;
+        this.username = username;
+        this.difficulty = difficulty;
+        this.score = score;
+        this.timeSpent = timeSpent;
+        this.puzzlesSolved = puzzlesSolved;
+        this.hintsUsed = hintsUsed;
+        this.finishedAt = finishedAt;
+    }
+
+    public long getSeq() { return seq; }
+    public String getUsername() { return username; }
+    public String getDifficulty() { return difficulty; }
+    public long getScore() { return score; }
+    public long getTimeSpent() { return timeSpent; }
+    public int getPuzzlesSolved() { return puzzlesSolved; }
+    public int getHintsUsed() { return hintsUsed; }
+    public long getFinishedAt() { return finishedAt; }
+
+    @Override
+    public String toString() {
+        return "#" + seq + " " + username + " " + score + " [" + difficulty + "] " + timeSpent + "s, "
+                + puzzlesSolved + " solved, " + hintsUsed + " hints";
+    }
+}
@@ -0,0 +1,143 @@
+package com.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Leaderboard entries kept in {@link LeaderboardEntry#ORDER}, as a treap whose nodes know
+ * their subtree size. Insert, remove, rank-of and k-th are O(log n) expected; the top k
+ * are an in-order walk that stops after k. Not thread-safe; {@link LeaderboardService}
+ * guards it.
+ */
+final class ScoreIndex {
+    private static final class Node {
+        final LeaderboardEntry entry;
+        final int priority;
+        Node left, right;
+        int size = 1;
+
+        Node(LeaderboardEntry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private Node root;
+    private int seed = 0x2545F491;
+
+    /** @return number of entries */
+    int size() { return size(root); }
+
+    private static int size(Node n) { return n == null ? 0 : n.size; }
+
+    private static Node fix(Node n) {
+        n.size = 1 + size(n.left) + size(n.right);
+        return n;
+    }
+
+    private int nextPriority() {
+        // xorshift: treap priorities only need to look random
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    /** Adds an entry (which must not already be present). */
+    void add(LeaderboardEntry e) {
+        Node[] lr = split(root, e, false);
+        root = merge(merge(lr[0], new Node(e, nextPriority())), lr[1]);
+    }
+
+    /** Removes an entry equal in board order to e, if present. */
+    void remove(LeaderboardEntry e) {
+        Node[] lr = split(root, e, false);     // [< e, >= e]
+        Node[] mr = split(lr[1], e, true);     // [== e, > e]
+        root = merge(lr[0], mr[1]);
+    }
+
+    /**
+     * Splits into (entries before e, the rest); with inclusive, e itself goes left.
+     */
+    private static Node[] split(Node n, LeaderboardEntry e, boolean inclusive) {
+        if (n == null) return new Node[2];
+        int c = LeaderboardEntry.ORDER.compare(n.entry, e);
+        if (c < 0 || (inclusive && c == 0)) {
+            Node[] r = split(n.right, e, inclusive);
+            n.right = r[0];
+            r[0] = fix(n);
+            return r;
+        }
+        Node[] l = split(n.left, e, inclusive);
+        n.left = l[1];
+        l[1] = fix(n);
+        return l;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return fix(a);
+        }
+        b.left = merge(a, b.left);
+        return fix(b);
+    }
+
+    /**
+     * @param e an entry on the board
+     * @return its 1-based position, or -1 if it is not present
+     */
+    int rank(LeaderboardEntry e) {
+        int before = 0;
+        Node n = root;
+        while (n != null) {
+            int c = LeaderboardEntry.ORDER.compare(e, n.entry);
+            if (c == 0) return before + size(n.left) + 1;
+            if (c < 0) n = n.left;
+            else {
+                before += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param k 0-based position
+     * @return the entry at that position, or null if out of range
+     */
+    LeaderboardEntry get(int k) {
+        Node n = root;
+        while (n != null) {
+            int l = size(n.left);
+            if (k < l) n = n.left;
+            else if (k == l) return n.entry;
+            else {
+                k -= l + 1;
+                n = n.right;
+            }
+        }
+        return null;
+    }
+
+    /** @return the first k entries in board order (fewer if the board is smaller) */
+    List<LeaderboardEntry> top(int k) {
+        List<LeaderboardEntry> out = new ArrayList<>(Math.max(0, Math.min(k, size())));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node n = root;
+        while (out.size() < k && (n != null || !stack.isEmpty())) {
+            while (n != null) {
+                stack.push(n);
+                n = n.left;
+            }
+            n = stack.pop();
+            out.add(n.entry);
+            n = n.right;
+        }
+        return out;
+    }
+}
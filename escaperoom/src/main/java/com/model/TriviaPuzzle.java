@@ -1,12 +1,20 @@
 package com.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
 /**
  * A trivia-style puzzle that presents a question and requires the player
  * to provide the correct answer. Includes an optional category for organization.
+ * Answers and aliases are normalized once into an {@link AnswerKey}.
  */
 public class TriviaPuzzle extends Puzzle {
     private String answer;
     private String category;
+    private List<String> aliases = Collections.emptyList();
+    private AnswerKey key;
 
     /**
      * Creates a new TriviaPuzzle instance.
@@ -20,6 +28,7 @@ public class TriviaPuzzle extends Puzzle {
         super(question, difficulty); // question stored as puzzle's question
         this.answer = answer;
         this.category = category;
+        this.key = AnswerKey.of(answer, aliases);
     }
 
     /** @return the correct answer */
@@ -29,7 +38,26 @@ public class TriviaPuzzle extends Puzzle {
 
     /** Sets the correct answer. */
     public void setAnswer(String answer) {
+        checkMutable();
         this.answer = answer;
+        this.key = AnswerKey.of(answer, aliases);
+    }
+
+    /** @return other accepted answers (unmodifiable) */
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    /** Sets the other accepted answers. */
+    public void setAliases(List<String> aliases) {
+        checkMutable();
+        this.aliases = aliases == null ? Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<>(aliases));
+        this.key = AnswerKey.of(answer, this.aliases);
+    }
+
+    /** @return the normalized accepted answers */
+    public AnswerKey getAnswerKey() {
+        return key;
     }
 
     /** @return the category or topic of the trivia question */
@@ -39,18 +67,25 @@ public class TriviaPuzzle extends Puzzle {
 
     /** Sets the category of this trivia question. */
     public void setCategory(String category) {
+        checkMutable();
         this.category = category;
     }
 
     /**
-     * Checks whether the player’s answer matches the correct answer,
-     * ignoring case and trimming whitespace.
+     * Checks whether the player’s answer matches the correct answer or an alias,
+     * ignoring case, punctuation, extra whitespace and a leading article (and small
+     * typos when {@link FuzzyMatch} is enabled).
      *
      * @param userAnswer the player's response
      * @return true if the answer is correct; false otherwise
      */
     @Override
     public boolean checkAnswer(String userAnswer) {
-        return answer.equalsIgnoreCase(userAnswer.trim());
+        return matches(userAnswer);
+    }
+
+    @Override
+    public boolean matches(String userAnswer) {
+        return key.matches(Objects.requireNonNull(userAnswer, "userAnswer"), FuzzyMatch.maxEdits(getDifficulty()));
     }
 }
@@ -7,6 +7,10 @@ import java.util.List;
 import java.util.UUID;
 import java.util.HashMap;
 
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
 /**
  * Represents a user with login credentials, a unique ID, and a list of characters.
  * @param <Settings>
@@ -97,8 +101,15 @@ public class User<Settings> {
      * @param progress - a Progress object containing the updated information for this User
      */
     public void setProgress (Progress progress){
+        Progress old = this.progress;
         this.progress = progress;
-
+        // keep any index watching this user attached to the new progress object
+        if (old != null && old != progress && old.getListener() != null) {
+            Progress.Listener l = old.getListener();
+            old.setListener(null);
+            if (progress != null) progress.setListener(l);
+            l.progressChanged(progress);
+        }
     } // end setProgress
 
     /**
@@ -166,9 +177,20 @@ public class User<Settings> {
         return this.characterList;
     }
 
+    /**
+     * Parses one line-delimited JSON record, as written by {@link UserLoader}, back into a User.
+     * @param line a single JSON object on one line
+     * @return the parsed User, or null if the line is blank or not a JSON object
+     */
     public static User fromString(String line) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'fromString'");
+        if (line == null || line.isBlank()) return null;
+        try {
+            Object parsed = new JSONParser().parse(line);
+            if (parsed instanceof JSONObject) return DataLoader.userFromJSON((JSONObject) parsed);
+        } catch (ParseException e) {
+            System.err.println("Skipping malformed user record: " + e.getMessage());
+        }
+        return null;
     }
 }//end User
 /* 
@@ -0,0 +1,472 @@
+package com.model;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Incremental backups of users.json.
+ *
+ * A backup chain starts with a full base snapshot and is followed by deltas that only hold
+ * the user records that changed (plus tombstones for removed users) since the previous backup.
+ * Every file is a Deflater-compressed stream of line-delimited JSON records, each written in
+ * the compact form json-simple produces, whatever the layout of users.json. A small index of
+ * per-user record hashes from the last backup is kept next to the files so the next delta can be
+ * computed in one streaming pass over users.json.
+ *
+ * File names are {@code <seq>-<base|delta>-<epochMillis>.ndjson.z}; only the newest
+ * {@code keepChains} chains are retained. {@link #restore(long, Path)} rebuilds users.json as it
+ * was at any retained backup.
+ */
+public class UserBackup {
+    /** Default users file, matching {@link DataLoader}. */
+    public static final String DEFAULT_USERS_PATH = System.getProperty("user.dir") + "/JSON/users.json";
+    /** Default directory that holds the backup files. */
+    public static final String DEFAULT_BACKUP_DIR = System.getProperty("user.dir") + "/JSON/backups";
+
+    private static final String INDEX_FILE = "index.z";
+    private static final String SUFFIX = ".ndjson.z";
+    private static final String DELETED_KEY = "_deleted";
+
+    private final Path dir;
+    private final int baseEvery;
+    private final int keepChains;
+
+    /**
+     * Describes one backup file.
+     */
+    public static class Entry {
+        private final Path file;
+        private final long seq;
+        private final boolean base;
+        private final long timeMillis;
+
+        Entry(Path file, long seq, boolean base, long timeMillis) {
+            this.file = file;
+            this.seq = seq;
+            this.base = base;
+            this.timeMillis = timeMillis;
+        }
+
+        public Path getFile() { return file; }
+        public long getSeq() { return seq; }
+        public boolean isBase() { return base; }
+        public long getTimeMillis() { return timeMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s %s", seq, base ? "base " : "delta",
+                    LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()));
+        }
+    }
+
+    /**
+     * Creates a backup manager.
+     *
+     * @param dir        directory for backup files (created on first backup)
+     * @param baseEvery  number of deltas after which a new base snapshot is written
+     * @param keepChains number of base+delta chains to retain (at least 1)
+     */
+    public UserBackup(Path dir, int baseEvery, int keepChains) {
+        this.dir = dir;
+        this.baseEvery = Math.max(0, baseEvery);
+        this.keepChains = Math.max(1, keepChains);
+    }
+
+    /** Creates a backup manager with the default directory, a base every 10 deltas and 3 chains kept. */
+    public UserBackup() {
+        this(Paths.get(DEFAULT_BACKUP_DIR), 10, 3);
+    }
+
+    /**
+     * Backs up the users file now.
+     *
+     * @param usersFile users.json to back up
+     * @return the backup entry written
+     * @throws IOException on read/write failures
+     */
+    public Entry backup(Path usersFile) throws IOException {
+        return backup(usersFile, System.currentTimeMillis());
+    }
+
+    /**
+     * Backs up the users file, stamping the backup with the given time.
+     * Writes a base snapshot if there is no chain yet or the current chain already has
+     * {@code baseEvery} deltas; otherwise writes a delta against the previous backup.
+     *
+     * @param usersFile  users.json to back up (a JSON array or line-delimited records)
+     * @param timeMillis backup time used for point-in-time restores
+     * @return the backup entry written
+     * @throws IOException on read/write failures
+     */
+    public Entry backup(Path usersFile, long timeMillis) throws IOException {
+        Files.createDirectories(dir);
+        List<Entry> entries = list();
+        Map<String, Long> previous = normalizeKeys(readIndex());
+
+        int deltasSinceBase = 0;
+        for (int i = entries.size() - 1; i >= 0 && !entries.get(i).isBase(); i--) deltasSinceBase++;
+        boolean base = entries.isEmpty() || previous == null || deltasSinceBase >= baseEvery;
+        if (base) previous = Collections.emptyMap();
+
+        long seq = entries.isEmpty() ? 1 : entries.get(entries.size() - 1).getSeq() + 1;
+        Path target = dir.resolve(String.format("%06d-%s-%d%s", seq, base ? "base" : "delta", timeMillis, SUFFIX));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+
+        // users.json may still hold records superseded by a later one for the same user
+        // (UserLoader appends and compacts later): only the last one per user counts
+        Map<String, Integer> latest = new HashMap<>();
+        JSONParser parser = new JSONParser();
+        try (JsonRecordReader in = new JsonRecordReader(Files.newBufferedReader(usersFile, StandardCharsets.UTF_8))) {
+            String raw;
+            for (int n = 0; (raw = in.next()) != null; n++) {
+                String key = keyOf(parseRecord(parser, raw));
+                if (key != null) latest.put(key, n);
+            }
+        }
+
+        Map<String, Long> current = new HashMap<>();
+        try (JsonRecordReader in = new JsonRecordReader(Files.newBufferedReader(usersFile, StandardCharsets.UTF_8));
+             Writer out = openWriter(tmp)) {
+            String raw;
+            for (int n = 0; (raw = in.next()) != null; n++) {
+                // canonical one-line form: restore reads records back line by line, and a
+                // reformatted but unchanged record must hash the same
+                JSONObject jo = parseRecord(parser, raw);
+                String key = keyOf(jo);
+                if (key == null || latest.get(key) != n) continue;
+                String rec = jo.toJSONString();
+                long h = hash(rec);
+                current.put(key, h);
+                Long old = previous.get(key);
+                if (old == null || old != h) {
+                    out.write(rec);
+                    out.write('\n');
+                }
+            }
+            for (String key : previous.keySet()) {
+                if (!current.containsKey(key)) {
+                    out.write(tombstone(key));
+                    out.write('\n');
+                }
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        writeIndex(current);
+
+        Entry written = new Entry(target, seq, base, timeMillis);
+        entries.add(written);
+        applyRetention(entries);
+        return written;
+    }
+
+    /**
+     * Rebuilds users.json as it was at the newest backup taken at or before {@code atMillis}.
+     *
+     * @param atMillis point in time (epoch millis); use {@code Long.MAX_VALUE} for the latest backup
+     * @param out      file to write the restored JSON array to (replaced atomically)
+     * @return the backup entry restored, or null if no backup is old enough
+     * @throws IOException on read/write failures
+     */
+    public Entry restore(long atMillis, Path out) throws IOException {
+        List<Entry> entries = list();
+        int target = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).getTimeMillis() <= atMillis) target = i;
+        }
+        if (target < 0) return null;
+        int baseIdx = target;
+        while (baseIdx >= 0 && !entries.get(baseIdx).isBase()) baseIdx--;
+        if (baseIdx < 0) throw new IOException("No base snapshot found for backup #" + entries.get(target).getSeq());
+
+        // replay base + deltas; later records for a username replace earlier ones
+        LinkedHashMap<String, String> state = new LinkedHashMap<>();
+        JSONParser parser = new JSONParser();
+        for (int i = baseIdx; i <= target; i++) {
+            try (BufferedReader r = openReader(entries.get(i).getFile())) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.isEmpty()) continue;
+                    JSONObject jo = parseRecord(parser, line);
+                    String key = keyOf(jo);
+                    if (key == null) {
+                        System.err.println("Skipping unreadable record in " + entries.get(i).getFile().getFileName());
+                        continue;
+                    }
+                    if (Boolean.TRUE.equals(jo.get(DELETED_KEY))) state.remove(key);
+                    else state.put(key, line);
+                }
+            }
+        }
+
+        Path parent = out.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = out.resolveSibling(out.getFileName() + ".restore");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            w.write('[');
+            boolean first = true;
+            for (String rec : state.values()) {
+                if (!first) w.write(',');
+                w.write(rec);
+                first = false;
+            }
+            w.write(']');
+        }
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+        return entries.get(target);
+    }
+
+    /**
+     * Lists the backups in the directory, oldest first.
+     *
+     * @return backup entries sorted by sequence number
+     * @throws IOException if the directory cannot be listed
+     */
+    public List<Entry> list() throws IOException {
+        List<Entry> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(p -> {
+                Entry e = parseName(p);
+                if (e != null) out.add(e);
+            });
+        }
+        out.sort(Comparator.comparingLong(Entry::getSeq));
+        return out;
+    }
+
+    // ---------- internals ----------
+
+    private static Entry parseName(Path p) {
+        String name = p.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) return null;
+        String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("-");
+        if (parts.length != 3) return null;
+        try {
+            boolean base = "base".equals(parts[1]);
+            if (!base && !"delta".equals(parts[1])) return null;
+            return new Entry(p, Long.parseLong(parts[0]), base, Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Deletes whole chains older than the newest {@code keepChains} bases. */
+    private void applyRetention(List<Entry> entries) throws IOException {
+        int basesSeen = 0;
+        int cut = -1;
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (entries.get(i).isBase() && ++basesSeen == keepChains) { cut = i; break; }
+        }
+        for (int i = 0; i < cut; i++) Files.deleteIfExists(entries.get(i).getFile());
+    }
+
+    private Map<String, Long> readIndex() throws IOException {
+        Path index = dir.resolve(INDEX_FILE);
+        if (!Files.exists(index)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new InflaterInputStream(Files.newInputStream(index))))) {
+            int n = in.readInt();
+            Map<String, Long> map = new HashMap<>(Math.max(16, n * 4 / 3 + 1));
+            for (int i = 0; i < n; i++) map.put(in.readUTF(), in.readLong());
+            return map;
+        } catch (EOFException e) {
+            return null; // truncated index -> force a new base
+        }
+    }
+
+    private void writeIndex(Map<String, Long> hashes) throws IOException {
+        Path index = dir.resolve(INDEX_FILE);
+        Path tmp = dir.resolve(INDEX_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(tmp), new Deflater(Deflater.BEST_SPEED), 1 << 16)))) {
+            out.writeInt(hashes.size());
+            for (Map.Entry<String, Long> e : hashes.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+        }
+        Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Writer openWriter(Path p) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        OutputStream os = new DeflaterOutputStream(Files.newOutputStream(p), deflater, 1 << 16) {
+            @Override
+            public void close() throws IOException {
+                try { super.close(); } finally { def.end(); }
+            }
+        };
+        return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static BufferedReader openReader(Path p) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new InflaterInputStream(Files.newInputStream(p), new java.util.zip.Inflater(), 1 << 16),
+                StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static JSONObject parseRecord(JSONParser parser, String rec) {
+        try {
+            Object o = parser.parse(rec);
+            return o instanceof JSONObject ? (JSONObject) o : null;
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    /** @return the record's {@link UserLoader#keyOf(String)} key, or null if it has no username */
+    private static String keyOf(JSONObject jo) {
+        Object name = jo == null ? null : jo.get("username");
+        return name == null ? null : UserLoader.keyOf(name.toString());
+    }
+
+    /** Index keys written before usernames were case-folded, folded the same way. */
+    private static Map<String, Long> normalizeKeys(Map<String, Long> index) {
+        if (index == null) return null;
+        Map<String, Long> out = new HashMap<>(Math.max(16, index.size() * 4 / 3 + 1));
+        for (Map.Entry<String, Long> e : index.entrySet()) out.put(UserLoader.keyOf(e.getKey()), e.getValue());
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String tombstone(String username) {
+        JSONObject t = new JSONObject();
+        t.put("username", username);
+        t.put(DELETED_KEY, Boolean.TRUE);
+        return t.toJSONString();
+    }
+
+    /** 64-bit FNV-1a hash of a record's text. */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // ---------- benchmark ----------
+
+    /**
+     * Writes a synthetic users.json with {@code count} users. Users whose index is divisible by
+     * {@code changeEvery} get a score bump of {@code round}, so successive rounds differ by about
+     * {@code count / changeEvery} records.
+     */
+    static void generateUsers(Path file, int count, int round, int changeEvery) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write('[');
+            Random rnd = new Random(42);
+            for (int i = 0; i < count; i++) {
+                User u = new User("player" + i, "pw" + rnd.nextInt(100000), new UUID(42L, i));
+                Progress p = u.getProgress();
+                p.increaseScore(rnd.nextInt(500) + (i % changeEvery == 0 ? round : 0));
+                p.addTime(rnd.nextInt(5000));
+                p.setLastDifficulty(Difficulty.values()[rnd.nextInt(4)]);
+                for (int k = 0; k < 4; k++) p.addCompletedPuzzleId(1 + rnd.nextInt(24));
+                p.incrementHintsUsedFor(1 + rnd.nextInt(24));
+                if (i > 0) w.write(',');
+                w.write(DataLoader.userToJSON(u).toJSONString());
+            }
+            w.write(']');
+        }
+    }
+
+    private static void bench(int users) throws IOException {
+        Path work = Files.createTempDirectory("userbackup_bench_");
+        Path usersFile = work.resolve("users.json");
+        Path restored = work.resolve("restored.json");
+        UserBackup b = new UserBackup(work.resolve("backups"), 10, 2);
+
+        System.out.println("Generating " + users + " users...");
+        generateUsers(usersFile, users, 0, 100);
+        long raw = Files.size(usersFile);
+
+        long t0 = System.nanoTime();
+        Entry base = b.backup(usersFile, 1);
+        long baseMs = (System.nanoTime() - t0) / 1_000_000;
+
+        long deltaTotal = 0;
+        long deltaMs = 0;
+        for (int round = 1; round <= 5; round++) {
+            generateUsers(usersFile, users, round, 100);
+            t0 = System.nanoTime();
+            Entry d = b.backup(usersFile, 1 + round);
+            deltaMs += (System.nanoTime() - t0) / 1_000_000;
+            deltaTotal += Files.size(d.getFile());
+        }
+
+        t0 = System.nanoTime();
+        b.restore(Long.MAX_VALUE, restored);
+        long restoreMs = (System.nanoTime() - t0) / 1_000_000;
+
+        System.out.printf("users.json            : %,d bytes%n", raw);
+        System.out.printf("base snapshot         : %,d bytes (%.1f%% of raw) in %d ms%n",
+                Files.size(base.getFile()), 100.0 * Files.size(base.getFile()) / raw, baseMs);
+        System.out.printf("5 deltas (1%% changed) : %,d bytes total, avg %,d bytes, avg %d ms%n",
+                deltaTotal, deltaTotal / 5, deltaMs / 5);
+        System.out.printf("5 full copies         : %,d bytes%n", raw * 5);
+        System.out.printf("restore base+5 deltas : %d ms%n", restoreMs);
+    }
+
+    private static long parseTime(String s) {
+        if ("latest".equalsIgnoreCase(s)) return Long.MAX_VALUE;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return LocalDateTime.parse(s, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     *   UserBackup backup [usersFile] [backupDir]
+     *   UserBackup restore &lt;latest|yyyy-MM-ddTHH:mm:ss|epochMillis&gt; [backupDir] [outFile]
+     *   UserBackup list [backupDir]
+     *   UserBackup bench [userCount]
+     */
+    public static void main(String[] args) {
+        String cmd = args.length > 0 ? args[0] : "backup";
+        try {
+            switch (cmd) {
+                case "backup" -> {
+                    Path users = Paths.get(args.length > 1 ? args[1] : DEFAULT_USERS_PATH);
+                    Path dir = Paths.get(args.length > 2 ? args[2] : DEFAULT_BACKUP_DIR);
+                    Entry e = new UserBackup(dir, 10, 3).backup(users);
+                    System.out.println("Wrote backup " + e + " -> " + e.getFile());
+                }
+                case "restore" -> {
+                    if (args.length < 2) { System.err.println("restore needs a time (or 'latest')"); return; }
+                    Path dir = Paths.get(args.length > 2 ? args[2] : DEFAULT_BACKUP_DIR);
+                    Path out = Paths.get(args.length > 3 ? args[3] : DEFAULT_USERS_PATH);
+                    Entry e = new UserBackup(dir, 10, 3).restore(parseTime(args[1]), out);
+                    if (e == null) System.out.println("No backup at or before " + args[1]);
+                    else System.out.println("Restored " + e + " -> " + out);
+                }
+                case "list" -> {
+                    Path dir = Paths.get(args.length > 1 ? args[1] : DEFAULT_BACKUP_DIR);
+                    for (Entry e : new UserBackup(dir, 10, 3).list()) System.out.println(e);
+                }
+                case "bench" -> bench(args.length > 1 ? Integer.parseInt(args[1]) : 200_000);
+                default -> System.err.println("Usage: UserBackup backup|restore|list|bench ...");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("UserBackup " + cmd + " failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.model;
+
+import java.util.*;
+
+/**
+ * Secondary indexes over a set of users, kept current as their {@link Progress} changes.
+ *
+ * - by score: a sorted map of score -> users, for range and top-N queries
+ * - by difficulty: one bucket per {@link Difficulty} (the user's last difficulty)
+ *
+ * Each indexed user's Progress gets a listener, so {@code increaseScore} and
+ * {@code setLastDifficulty} move the user between entries in O(log n).
+ * Queries cost O(log n + k) for k results.
+ */
+class UserIndex {
+
+    private final TreeMap<Integer, Set<User>> byScore = new TreeMap<>();
+    private final EnumMap<Difficulty, Set<User>> byDifficulty = new EnumMap<>(Difficulty.class);
+
+    /** Keys each user is currently filed under, so moves don't depend on the caller's view. */
+    private final Map<User, Integer> indexedScore = new IdentityHashMap<>();
+    private final Map<User, Difficulty> indexedDifficulty = new IdentityHashMap<>();
+
+    UserIndex() {
+        for (Difficulty d : Difficulty.values()) byDifficulty.put(d, new LinkedHashSet<>());
+    }
+
+    /** @return number of users in the index */
+    synchronized int size() {
+        return indexedScore.size();
+    }
+
+    /**
+     * Adds a user and starts tracking changes to their progress.
+     * Adding a user that is already indexed re-files them under their current values.
+     */
+    synchronized void add(User user) {
+        if (user == null) return;
+        Progress p = user.getProgress();
+        if (p != null) p.setListener(changed -> reindex(user, changed));
+        reindex(user, p);
+    }
+
+    /** Removes a user and stops tracking their progress. */
+    synchronized void remove(User user) {
+        if (user == null || !indexedScore.containsKey(user)) return;
+        unfile(user);
+        Progress p = user.getProgress();
+        if (p != null) p.setListener(null);
+    }
+
+    /** Drops every user from the index and detaches all listeners. */
+    synchronized void clear() {
+        for (User u : new ArrayList<>(indexedScore.keySet())) remove(u);
+    }
+
+    /** Rebuilds the index from scratch over the given users. */
+    synchronized void rebuild(Collection<User> users) {
+        clear();
+        if (users != null) for (User u : users) add(u);
+    }
+
+    /** @return users whose score lies in [min, max], highest score first */
+    synchronized List<User> scoreBetween(int min, int max) {
+        List<User> out = new ArrayList<>();
+        if (min > max) return out;
+        for (Set<User> bucket : byScore.subMap(min, true, max, true).descendingMap().values()) out.addAll(bucket);
+        return out;
+    }
+
+    /** @return users with score of at least min, highest score first */
+    synchronized List<User> scoreAtLeast(int min) {
+        return scoreBetween(min, Integer.MAX_VALUE);
+    }
+
+    /** @return up to n users with the highest scores, highest first */
+    synchronized List<User> top(int n) {
+        List<User> out = new ArrayList<>(Math.max(0, Math.min(n, indexedScore.size())));
+        if (n <= 0) return out;
+        for (Set<User> bucket : byScore.descendingMap().values()) {
+            for (User u : bucket) {
+                out.add(u);
+                if (out.size() == n) return out;
+            }
+        }
+        return out;
+    }
+
+    /** @return users whose last difficulty is d, in insertion order */
+    synchronized List<User> withDifficulty(Difficulty d) {
+        if (d == null) return new ArrayList<>();
+        return new ArrayList<>(byDifficulty.get(d));
+    }
+
+    // ---------- internals ----------
+
+    private synchronized void reindex(User user, Progress p) {
+        int score = p != null ? p.getScore() : 0;
+        Difficulty diff = p != null ? p.getLastDifficultyAsEnum() : Difficulty.ALL;
+
+        Integer oldScore = indexedScore.put(user, score);
+        if (oldScore == null || oldScore != score) {
+            if (oldScore != null) removeFromScore(user, oldScore);
+            byScore.computeIfAbsent(score, k -> new LinkedHashSet<>()).add(user);
+        }
+        Difficulty oldDiff = indexedDifficulty.put(user, diff);
+        if (oldDiff != diff) {
+            if (oldDiff != null) byDifficulty.get(oldDiff).remove(user);
+            byDifficulty.get(diff).add(user);
+        }
+    }
+
+    private void unfile(User user) {
+        Integer score = indexedScore.remove(user);
+        if (score != null) removeFromScore(user, score);
+        Difficulty diff = indexedDifficulty.remove(user);
+        if (diff != null) byDifficulty.get(diff).remove(user);
+    }
+
+    private void removeFromScore(User user, int score) {
+        Set<User> bucket = byScore.get(score);
+        if (bucket == null) return;
+        bucket.remove(user);
+        if (bucket.isEmpty()) byScore.remove(score);
+    }
+}
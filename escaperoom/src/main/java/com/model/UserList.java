@@ -1,6 +1,7 @@
 package com.model;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class UserList {
@@ -8,6 +9,10 @@ public class UserList {
     private ArrayList<User> users;
     private static UserList userList;
 
+    // score / difficulty indexes over users, and the list they were built from
+    private final UserIndex index = new UserIndex();
+    private ArrayList<User> indexedList;
+
     public static UserList getInstance()
     {
         if (userList == null)
@@ -60,10 +65,64 @@ public class UserList {
 
         User user = new User(username, password, null);
             users.add(user);
+            if (indexedList == users) index.add(user);
             //incorporate writing to datawriter here
             DataLoader.saveUsers(users);
             return true;
     }
-    
-}
 
+    /**
+     * Returns users whose score is between min and max (inclusive), highest score first.
+     * @param min lowest score to include
+     * @param max highest score to include
+     * @return matching users
+     */
+    public List<User> getUsersWithScoreBetween(int min, int max)
+    {
+        return ensureIndexed().scoreBetween(min, max);
+    }
+
+    /**
+     * Returns users whose score is at least min, highest score first.
+     * @param min lowest score to include
+     * @return matching users
+     */
+    public List<User> getUsersWithScoreAtLeast(int min)
+    {
+        return ensureIndexed().scoreAtLeast(min);
+    }
+
+    /**
+     * Returns up to n users with the highest scores, highest first.
+     * @param n maximum number of users to return
+     * @return the top users
+     */
+    public List<User> getTopUsers(int n)
+    {
+        return ensureIndexed().top(n);
+    }
+
+    /**
+     * Returns users whose last played difficulty is the given one.
+     * @param difficulty the difficulty to match
+     * @return matching users
+     */
+    public List<User> getUsersByDifficulty(Difficulty difficulty)
+    {
+        return ensureIndexed().withDifficulty(difficulty);
+    }
+
+    /**
+     * The index follows score/difficulty changes on its own; it only needs a full rebuild
+     * when the users list itself was replaced or edited directly through getAllUsers().
+     */
+    private UserIndex ensureIndexed()
+    {
+        if (indexedList != users || index.size() != (users == null ? 0 : users.size()))
+        {
+            index.rebuild(users);
+            indexedList = users;
+        }
+        return index;
+    }
+}
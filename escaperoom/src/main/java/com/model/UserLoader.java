@@ -1,22 +1,57 @@
 package com.model;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * The {@code UserLoader} class is responsible for managing user data stored in a simple text file.
+ * The {@code UserLoader} class is responsible for managing user data stored in a line-delimited
+ * JSON (NDJSON) file: every line is one complete user record.
  * It uses the Singleton design pattern to ensure that only one instance of the loader exists.
- * This class supports loading, adding, clearing, and saving users.
+ * This class supports loading, adding, updating, clearing, and compacting users.
+ *
+ * New and updated users are written as a single appended line. When the same username appears
+ * more than once, the last record wins; a background compactor rewrites the file without the
+ * superseded records once they start to outnumber the live ones.
  */
 public class UserLoader {
     /** The path to the file that stores user information. */
     private static final String FILE_PATH = "users.json";
 
+    /** Superseded records tolerated before a background compaction is scheduled. */
+    private static final int COMPACT_THRESHOLD = 64;
+
     /** The single instance of UserLoader. */
     private static UserLoader instance;
 
     /** In-memory list of all loaded users. */
     private ArrayList<User> users;
 
+    /** Guards every write to the file so appends never interleave with a compaction. */
+    private final Object fileLock = new Object();
+
+    /** Number of records in the file that have been replaced by a later record. */
+    private int supersededRecords = 0;
+
+    /** Single daemon thread that runs compactions off the caller's thread. */
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "users-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** True while a compaction is queued or running. */
+    private boolean compactionPending = false;
+
     /**
      * Private constructor to prevent direct instantiation.
      * Loads users from the file into memory.
@@ -45,13 +80,29 @@ public class UserLoader {
     }
 
     /**
-     * Adds a user to the in-memory list and saves all users to the file.
+     * Adds a user to the in-memory list and appends their record to the file.
      *
      * @param user the User object to add
      */
     public void addUser(User user) {
         users.add(user);
-        saveUsers();
+        appendRecord(user);
+    }
+
+    /**
+     * Persists the current state of a user by appending a new record for them.
+     * The previous record becomes superseded and is dropped by the next compaction.
+     *
+     * @param user the User object whose latest state should be saved
+     */
+    public void updateUser(User user) {
+        if (user == null) return;
+        if (users.contains(user)) {
+            synchronized (fileLock) { supersededRecords++; }
+        } else {
+            users.add(user);
+        }
+        appendRecord(user);
     }
 
     /**
@@ -59,63 +110,165 @@ public class UserLoader {
      */
     public void clearUsers() {
         users.clear();
-        saveUsers();
+        synchronized (fileLock) {
+            try {
+                Files.write(Paths.get(FILE_PATH), new byte[0]);
+            } catch (IOException e) {
+                System.out.println("Error saving users: " + e.getMessage());
+            }
+            supersededRecords = 0;
+        }
     }
 
     /**
-     * Adds a single user directly to the file 
+     * Adds a single user directly to the file
      * and also updates the in-memory list.
      *
      * @param user the User object to add
      */
     public void addUserToJSON(User user) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, true))) {
-            writer.write(user.toString());
-            writer.newLine();
-            System.out.println("User added successfully!");
-        } catch (IOException e) {
-            System.out.println("Error writing to file: " + e.getMessage());
-        }
-
+        if (appendRecord(user)) System.out.println("User added successfully!");
         users.add(user); // update in-memory list
     }
 
     /**
-     * Loads all users from the file into an ArrayList.
-     * If the file does not exist, an empty list is returned.
+     * Rewrites the file so that it only holds the latest record for each username.
+     * Runs in two streaming passes, so memory use is bounded by the number of distinct
+     * usernames rather than the size of the file.
+     */
+    public void compact() {
+        synchronized (fileLock) {
+            Path file = Paths.get(FILE_PATH);
+            if (!Files.exists(file)) return;
+
+            // pass 1: remember the line number of the last record for each username
+            Map<String, Integer> lastLine = new HashMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                int n = 0;
+                while ((line = reader.readLine()) != null) {
+                    User user = User.fromString(line);
+                    if (user != null) lastLine.put(keyOf(user), n);
+                    n++;
+                }
+            } catch (IOException e) {
+                System.out.println("Error compacting users: " + e.getMessage());
+                return;
+            }
+
+            // pass 2: copy only those lines, then swap the file in atomically
+            Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                 BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                String line;
+                int n = 0;
+                while ((line = reader.readLine()) != null) {
+                    User user = User.fromString(line);
+                    if (user != null && lastLine.get(keyOf(user)) == n) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                    n++;
+                }
+            } catch (IOException e) {
+                System.out.println("Error compacting users: " + e.getMessage());
+                return;
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                try {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e2) {
+                    System.out.println("Error compacting users: " + e2.getMessage());
+                    return;
+                }
+            }
+            supersededRecords = 0;
+        }
+    }
+
+    /**
+     * Streams the file line by line into memory, keeping only the last record for
+     * each username. If the file does not exist, an empty list is returned.
      *
      * @return a list of users read from the file
      */
     private ArrayList<User> loadUsers() {
-        ArrayList<User> loadedUsers = new ArrayList<>();
+        LinkedHashMap<String, User> latest = new LinkedHashMap<>();
+        int records = 0;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(FILE_PATH), StandardCharsets.UTF_8)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 User user = User.fromString(line);
-                if (user != null) loadedUsers.add(user);
+                if (user == null) continue;
+                records++;
+                // re-insert so iteration order follows the latest write
+                String key = keyOf(user);
+                latest.remove(key);
+                latest.put(key, user);
             }
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException | FileNotFoundException e) {
             // File will be created later if it doesn't exist
         } catch (IOException e) {
             System.out.println("Error reading users: " + e.getMessage());
         }
 
-        return loadedUsers;
+        supersededRecords = records - latest.size();
+        return new ArrayList<>(latest.values());
     }
 
     /**
-     * Saves all users currently in memory to the file,
-     * overwriting any existing content.
+     * Appends one user record to the end of the file and schedules a compaction
+     * when superseded records have piled up.
+     *
+     * @param user the user to write
+     * @return true if the record was written
      */
-    private void saveUsers() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH))) {
-            for (User user : users) {
-                writer.write(user.toString());
+    private boolean appendRecord(User user) {
+        if (user == null) return false;
+        String record = DataLoader.userToJSON(user).toJSONString();
+        synchronized (fileLock) {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(FILE_PATH, true), StandardCharsets.UTF_8))) {
+                writer.write(record);
                 writer.newLine();
+            } catch (IOException e) {
+                System.out.println("Error writing to file: " + e.getMessage());
+                return false;
+            }
+            if (!compactionPending && supersededRecords >= COMPACT_THRESHOLD && supersededRecords > users.size()) {
+                compactionPending = true;
+                compactor.execute(() -> {
+                    try {
+                        compact();
+                    } finally {
+                        synchronized (fileLock) { compactionPending = false; }
+                    }
+                });
             }
-        } catch (IOException e) {
-            System.out.println("Error saving users: " + e.getMessage());
         }
+        return true;
+    }
+
+    /**
+     * Key used to decide which records supersede each other.
+     *
+     * @param user the user
+     * @return the lower-cased username
+     */
+    private static String keyOf(User user) {
+        return keyOf(user.getName());
+    }
+
+    /**
+     * Key used to decide which records supersede each other.
+     *
+     * @param username a username (may be null)
+     * @return the lower-cased username
+     */
+    static String keyOf(String username) {
+        return username == null ? "" : username.toLowerCase();
     }
 }
@@ -0,0 +1,497 @@
+package com.model;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Command-line tool that moves user accounts between users.json and NDJSON/CSV files.
+ *
+ * Unlike {@link DataLoader#getUsers()}, records are streamed: the input is read one record
+ * at a time, batches are decoded, filtered and re-encoded on a worker pool, and the results
+ * are written back in input order. Only a bounded number of batches is in flight at once,
+ * so memory use does not grow with the number of accounts.
+ *
+ * Usage:
+ *   UserTransfer &lt;input&gt; &lt;output&gt; [--from json|ndjson|csv] [--to json|ndjson|csv]
+ *                [--difficulty EASY|MEDIUM|HARD|ALL] [--min-score N] [--max-score N]
+ *                [--active-since yyyy-MM-dd|epochSeconds] [--threads N]
+ *
+ * Formats default from the file extension (.csv, .ndjson/.jsonl, anything else is a JSON array).
+ */
+public class UserTransfer {
+
+    /** Supported file layouts. */
+    public enum Format {
+        JSON, NDJSON, CSV;
+
+        /**
+         * Guesses the format from a file name.
+         *
+         * @param path file path
+         * @return CSV for .csv, NDJSON for .ndjson/.jsonl, otherwise JSON
+         */
+        public static Format fromPath(String path) {
+            String p = path == null ? "" : path.toLowerCase(Locale.ROOT);
+            if (p.endsWith(".csv")) return CSV;
+            if (p.endsWith(".ndjson") || p.endsWith(".jsonl")) return NDJSON;
+            return JSON;
+        }
+    }
+
+    /** Column order used for CSV files, both when writing and when reading. */
+    static final String[] CSV_COLUMNS = {
+        "username", "password", "id", "score", "timeSpent", "lastDifficulty", "lastActive",
+        "completedPuzzleIds", "completedPuzzles", "hintsUsed", "inventory"
+    };
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    /**
+     * Record filter applied before encoding. Unset bounds accept everything.
+     */
+    public static class Filter {
+        private Difficulty difficulty;
+        private long minScore = Long.MIN_VALUE;
+        private long maxScore = Long.MAX_VALUE;
+        private long activeSince = Long.MIN_VALUE;
+
+        public Filter difficulty(Difficulty d) { this.difficulty = d; return this; }
+        public Filter minScore(long s) { this.minScore = s; return this; }
+        public Filter maxScore(long s) { this.maxScore = s; return this; }
+        public Filter activeSince(long epochSeconds) { this.activeSince = epochSeconds; return this; }
+
+        /**
+         * Checks a user record against the filter.
+         *
+         * @param user a users.json record
+         * @return true if the record should be kept
+         */
+        boolean accepts(JSONObject user) {
+            Object po = user.get("progress");
+            JSONObject p = po instanceof JSONObject ? (JSONObject) po : new JSONObject();
+            if (difficulty != null) {
+                Object ld = p.get("lastDifficulty");
+                String d = ld == null ? "ALL" : ld.toString();
+                if (!difficulty.name().equalsIgnoreCase(d)) return false;
+            }
+            long score = asLong(p.get("score"), 0);
+            if (score < minScore || score > maxScore) return false;
+            return activeSince == Long.MIN_VALUE || asLong(p.get("lastActive"), 0) >= activeSince;
+        }
+    }
+
+    /**
+     * Counters for a finished (or running) transfer.
+     */
+    public static class Stats {
+        private long read;
+        private long written;
+        private long skipped;
+        private long elapsedNanos;
+
+        public long getRead() { return read; }
+        public long getWritten() { return written; }
+        public long getSkipped() { return skipped; }
+        public long getElapsedMillis() { return TimeUnit.NANOSECONDS.toMillis(elapsedNanos); }
+
+        /** @return records read per second so far */
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : read * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("read=%d written=%d skipped=%d in %d ms (%.0f records/s)",
+                    read, written, skipped, getElapsedMillis(), getRecordsPerSecond());
+        }
+    }
+
+    /** Result of encoding one batch. */
+    private static class Chunk {
+        final String text;
+        final int kept;
+        final int skipped;
+
+        Chunk(String text, int kept, int skipped) {
+            this.text = text;
+            this.kept = kept;
+            this.skipped = skipped;
+        }
+    }
+
+    /** Source of raw (undecoded) records. */
+    private interface RecordSource extends Closeable {
+        String next() throws IOException;
+    }
+
+    private UserTransfer() {}
+
+    /**
+     * Streams every record from {@code in} to {@code out}, converting formats and applying the filter.
+     *
+     * @param in      input file
+     * @param from    input format
+     * @param out     output file (overwritten)
+     * @param to      output format
+     * @param filter  record filter; null keeps everything
+     * @param threads number of encoder threads (at least 1)
+     * @return transfer counters
+     * @throws IOException on read/write failures
+     */
+    public static Stats transfer(Path in, Format from, Path out, Format to, Filter filter, int threads) throws IOException {
+        final Filter f = filter == null ? new Filter() : filter;
+        final int workers = Math.max(1, threads);
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+        long nextReport = start + REPORT_INTERVAL_NANOS;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "user-transfer");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = workers * 4;
+
+        try (RecordSource source = openSource(in, from);
+             BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            if (to == Format.JSON) w.write("[");
+            if (to == Format.CSV) w.write(String.join(",", CSV_COLUMNS) + "\n");
+
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String rec;
+            while ((rec = source.next()) != null) {
+                stats.read++;
+                batch.add(rec);
+                if (batch.size() == BATCH_SIZE) {
+                    final List<String> work = batch;
+                    inFlight.add(pool.submit(() -> encode(work, from, to, f)));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    while (inFlight.size() >= maxInFlight) writeChunk(inFlight.poll(), w, to, stats);
+                }
+                if (System.nanoTime() >= nextReport) {
+                    stats.elapsedNanos = System.nanoTime() - start;
+                    System.err.println("UserTransfer: " + stats);
+                    nextReport += REPORT_INTERVAL_NANOS;
+                }
+            }
+            if (!batch.isEmpty()) {
+                final List<String> work = batch;
+                inFlight.add(pool.submit(() -> encode(work, from, to, f)));
+            }
+            while (!inFlight.isEmpty()) writeChunk(inFlight.poll(), w, to, stats);
+
+            if (to == Format.JSON) w.write("]");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        stats.elapsedNanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    private static void writeChunk(Future<Chunk> future, Writer w, Format to, Stats stats) throws IOException {
+        Chunk c;
+        try {
+            c = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Transfer interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to encode records: " + e.getCause(), e.getCause());
+        }
+        stats.skipped += c.skipped;
+        if (c.kept == 0) return;
+        if (to == Format.JSON && stats.written > 0) w.write(",\n");
+        w.write(c.text);
+        stats.written += c.kept;
+    }
+
+    /**
+     * Decodes, filters and re-encodes one batch. Runs on the worker pool.
+     */
+    private static Chunk encode(List<String> batch, Format from, Format to, Filter filter) {
+        JSONParser parser = new JSONParser();
+        StringBuilder sb = new StringBuilder(batch.size() * 256);
+        int kept = 0;
+        int skipped = 0;
+        for (String raw : batch) {
+            JSONObject user;
+            try {
+                user = from == Format.CSV ? csvToUser(raw) : (JSONObject) parser.parse(raw);
+            } catch (ParseException | ClassCastException | IllegalArgumentException e) {
+                skipped++;
+                continue;
+            }
+            if (!filter.accepts(user)) continue;
+
+            switch (to) {
+                case CSV:
+                    sb.append(userToCsv(user)).append('\n');
+                    break;
+                case NDJSON:
+                    sb.append(user.toJSONString()).append('\n');
+                    break;
+                case JSON:
+                default:
+                    if (kept > 0) sb.append(",\n");
+                    sb.append(user.toJSONString());
+                    break;
+            }
+            kept++;
+        }
+        return new Chunk(sb.toString(), kept, skipped);
+    }
+
+    private static RecordSource openSource(Path in, Format from) throws IOException {
+        Reader reader = Files.newBufferedReader(in, StandardCharsets.UTF_8);
+        if (from == Format.CSV) {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            return new RecordSource() {
+                public String next() throws IOException { return csv.next(); }
+                public void close() throws IOException { csv.close(); }
+            };
+        }
+        JsonRecordReader json = new JsonRecordReader(reader);
+        return new RecordSource() {
+            public String next() throws IOException { return json.next(); }
+            public void close() throws IOException { json.close(); }
+        };
+    }
+
+    // ---------- CSV encoding ----------
+
+    /**
+     * Encodes a users.json record as one CSV row in {@link #CSV_COLUMNS} order.
+     * List and map fields are stored as compact JSON inside their cell.
+     */
+    static String userToCsv(JSONObject user) {
+        Object po = user.get("progress");
+        JSONObject p = po instanceof JSONObject ? (JSONObject) po : new JSONObject();
+        String[] cells = {
+            str(user.get("username")),
+            str(user.get("password")),
+            str(user.get("id")),
+            String.valueOf(asLong(p.get("score"), 0)),
+            String.valueOf(asLong(p.get("timeSpent"), 0)),
+            p.get("lastDifficulty") == null ? "ALL" : p.get("lastDifficulty").toString(),
+            String.valueOf(asLong(p.get("lastActive"), 0)),
+            jsonText(p.get("completedPuzzleIds"), new JSONArray()),
+            jsonText(p.get("completedPuzzles"), new JSONArray()),
+            jsonText(p.get("hintsUsed"), new JSONObject()),
+            jsonText(p.get("inventory"), new JSONObject())
+        };
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) sb.append(',');
+            appendCsvCell(sb, cells[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decodes one CSV row (with the header-derived column order) back into a users.json record.
+     */
+    @SuppressWarnings("unchecked")
+    static JSONObject csvToUser(String row) throws ParseException {
+        List<String> cells = splitCsv(row);
+        if (cells.size() < CSV_COLUMNS.length) throw new IllegalArgumentException("Too few columns: " + cells.size());
+        JSONParser parser = new JSONParser();
+
+        JSONObject user = new JSONObject();
+        user.put("username", cells.get(0));
+        user.put("password", cells.get(1));
+        if (!cells.get(2).isBlank()) user.put("id", cells.get(2));
+
+        JSONObject p = new JSONObject();
+        p.put("score", Long.parseLong(cells.get(3).trim()));
+        p.put("timeSpent", Long.parseLong(cells.get(4).trim()));
+        p.put("lastDifficulty", cells.get(5).isBlank() ? "ALL" : cells.get(5).trim());
+        p.put("lastActive", Long.parseLong(cells.get(6).trim()));
+        p.put("completedPuzzleIds", parseOr(parser, cells.get(7), new JSONArray()));
+        p.put("completedPuzzles", parseOr(parser, cells.get(8), new JSONArray()));
+        p.put("hintsUsed", parseOr(parser, cells.get(9), new JSONObject()));
+        p.put("inventory", parseOr(parser, cells.get(10), new JSONObject()));
+        user.put("progress", p);
+        return user;
+    }
+
+    private static Object parseOr(JSONParser parser, String text, Object def) throws ParseException {
+        if (text == null || text.isBlank()) return def;
+        return parser.parse(text);
+    }
+
+    private static void appendCsvCell(StringBuilder sb, String cell) {
+        boolean quote = false;
+        for (int i = 0; i < cell.length() && !quote; i++) {
+            char c = cell.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) { sb.append(cell); return; }
+        sb.append('"');
+        for (int i = 0; i < cell.length(); i++) {
+            char c = cell.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Splits one CSV record into cells, honoring quotes and doubled quote escapes.
+     */
+    static List<String> splitCsv(String row) {
+        List<String> out = new ArrayList<>(CSV_COLUMNS.length);
+        StringBuilder cell = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < row.length() && row.charAt(i + 1) == '"') { cell.append('"'); i++; }
+                    else inQuotes = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                out.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        out.add(cell.toString());
+        return out;
+    }
+
+    /**
+     * Reads logical CSV records (quoted cells may span lines) and skips the header row.
+     */
+    private static class CsvRecordReader implements Closeable {
+        private final Reader in;
+        private final StringBuilder sb = new StringBuilder(512);
+        private boolean headerSkipped = false;
+
+        CsvRecordReader(Reader in) { this.in = in; }
+
+        String next() throws IOException {
+            while (true) {
+                String rec = readRecord();
+                if (rec == null) return null;
+                if (rec.isBlank()) continue;
+                if (!headerSkipped) {
+                    headerSkipped = true;
+                    if (rec.startsWith(CSV_COLUMNS[0] + ",")) continue;
+                }
+                return rec;
+            }
+        }
+
+        private String readRecord() throws IOException {
+            sb.setLength(0);
+            boolean inQuotes = false;
+            int c;
+            while ((c = in.read()) != -1) {
+                char ch = (char) c;
+                if (ch == '"') inQuotes = !inQuotes;
+                if (!inQuotes && (ch == '\n' || ch == '\r')) {
+                    if (sb.length() == 0) continue;
+                    return sb.toString();
+                }
+                sb.append(ch);
+            }
+            return sb.length() == 0 ? null : sb.toString();
+        }
+
+        @Override
+        public void close() throws IOException { in.close(); }
+    }
+
+    // ---------- helpers ----------
+
+    private static String str(Object o) {
+        return o == null ? "" : o.toString();
+    }
+
+    private static String jsonText(Object value, Object def) {
+        Object v = value == null ? def : value;
+        if (v instanceof JSONArray) return ((JSONArray) v).toJSONString();
+        if (v instanceof JSONObject) return ((JSONObject) v).toJSONString();
+        return v.toString();
+    }
+
+    private static long asLong(Object o, long def) {
+        if (o instanceof Number) return ((Number) o).longValue();
+        if (o == null) return def;
+        try { return Long.parseLong(o.toString().trim()); } catch (NumberFormatException e) { return def; }
+    }
+
+    private static long parseActiveSince(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return LocalDate.parse(s).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: UserTransfer <input> <output> [--from json|ndjson|csv] [--to json|ndjson|csv]");
+        System.err.println("       [--difficulty EASY|MEDIUM|HARD|ALL] [--min-score N] [--max-score N]");
+        System.err.println("       [--active-since yyyy-MM-dd|epochSeconds] [--threads N]");
+    }
+
+    /** Command-line entry point; see the class comment for arguments. */
+    public static void main(String[] args) {
+        if (args.length < 2) { usage(); return; }
+        String input = args[0];
+        String output = args[1];
+        Format from = Format.fromPath(input);
+        Format to = Format.fromPath(output);
+        Filter filter = new Filter();
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for (int i = 2; i < args.length; i++) {
+                String opt = args[i];
+                String val = i + 1 < args.length ? args[++i] : null;
+                if (val == null) { usage(); return; }
+                switch (opt) {
+                    case "--from" -> from = Format.valueOf(val.toUpperCase(Locale.ROOT));
+                    case "--to" -> to = Format.valueOf(val.toUpperCase(Locale.ROOT));
+                    case "--difficulty" -> filter.difficulty(Difficulty.valueOf(val.toUpperCase(Locale.ROOT)));
+                    case "--min-score" -> filter.minScore(Long.parseLong(val));
+                    case "--max-score" -> filter.maxScore(Long.parseLong(val));
+                    case "--active-since" -> filter.activeSince(parseActiveSince(val));
+                    case "--threads" -> threads = Integer.parseInt(val);
+                    default -> { System.err.println("Unknown option: " + opt); usage(); return; }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Invalid argument: " + e.getMessage());
+            usage();
+            return;
+        }
+
+        try {
+            Stats stats = transfer(Paths.get(input), from, Paths.get(output), to, filter, threads);
+            System.out.println("UserTransfer done: " + stats);
+        } catch (IOException e) {
+            System.err.println("UserTransfer failed: " + e.getMessage());
+        }
+    }
+}
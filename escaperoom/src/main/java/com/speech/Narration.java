@@ -0,0 +1,51 @@
+package com.speech;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Speech that has already been synthesized by {@link Speek#render(String)}: raw PCM audio
+ * and its format, ready to be played without running the synthesizer again.
+ */
+public final class Narration {
+    private final String text;
+    private final AudioFormat format;
+    private final byte[] audio;
+
+    /**
+     * @param text   the text that was spoken
+     * @param format format of the samples
+     * @param audio  PCM samples
+     */
+    public Narration(String text, AudioFormat format, byte[] audio) {
+        this.text = text;
+        this.format = format;
+        this.audio = audio;
+    }
+
+    /** @return the text that was spoken */
+    public String getText() { return text; }
+
+    /** @return length of the audio in bytes */
+    public int size() { return audio.length; }
+
+    /**
+     * Plays the audio and waits for it to finish.
+     *
+     * @return false if no audio line was available
+     */
+    public boolean play() {
+        try (SourceDataLine line = AudioSystem.getSourceDataLine(format)) {
+            line.open(format);
+            line.start();
+            line.write(audio, 0, audio.length);
+            line.drain();
+            return true;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Cannot play narration: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -2,10 +2,18 @@ package com.speech;
 
 import com.sun.speech.freetts.Voice;
 import com.sun.speech.freetts.VoiceManager;
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.ByteArrayOutputStream;
 
 public class Speek {
     private static final String VOICE_NAME = "kevin16";
 
+    // voice used by render(), allocated on first use and kept; guarded by Speek.class
+    private static Voice renderVoice;
+    private static CapturePlayer capture;
+
     public static void speak(String text){
         System.setProperty("freetts.voices", "com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory");
 
@@ -21,4 +29,58 @@ public class Speek {
         voice.speak(text);
         voice.deallocate();
     }
+
+    /**
+     * Synthesizes text without playing it, so it can be played later with
+     * {@link Narration#play()} at no synthesis cost. Meant to run off the UI thread.
+     *
+     * @param text what to say
+     * @return the audio, or null if the voice is unavailable
+     */
+    public static synchronized Narration render(String text) {
+        if (renderVoice == null) {
+            System.setProperty("freetts.voices", "com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory");
+            Voice voice = VoiceManager.getInstance().getVoice(VOICE_NAME);
+            if (voice == null) {
+                System.err.println("Voice not found: " + VOICE_NAME);
+                return null;
+            }
+            voice.allocate();
+            capture = new CapturePlayer();
+            voice.setAudioPlayer(capture);
+            renderVoice = voice;
+        }
+        capture.reset();
+        if (!renderVoice.speak(text) || capture.format == null) return null;
+        return new Narration(text, capture.format, capture.bytes.toByteArray());
+    }
+
+    /** FreeTTS audio sink that keeps the samples instead of playing them. */
+    private static final class CapturePlayer implements AudioPlayer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private AudioFormat format;
+        private float volume = 1.0f;
+
+        @Override public void setAudioFormat(AudioFormat format) { this.format = format; }
+        @Override public AudioFormat getAudioFormat() { return format; }
+        @Override public void pause() { }
+        @Override public void resume() { }
+        @Override public void reset() { bytes.reset(); }
+        @Override public boolean drain() { return true; }
+        @Override public void begin(int size) { }
+        @Override public boolean end() { return true; }
+        @Override public void cancel() { }
+        @Override public void close() { }
+        @Override public float getVolume() { return volume; }
+        @Override public void setVolume(float volume) { this.volume = volume; }
+        @Override public long getTime() { return 0; }
+        @Override public void resetTime() { }
+        @Override public void startFirstSampleTimer() { }
+        @Override public boolean write(byte[] audio) { return write(audio, 0, audio.length); }
+        @Override public boolean write(byte[] audio, int offset, int size) {
+            bytes.write(audio, offset, size);
+            return true;
+        }
+        @Override public void showMetrics() { }
+    }
 }
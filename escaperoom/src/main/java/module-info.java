@@ -3,6 +3,8 @@ module com.example {
     requires javafx.fxml;
     requires json.simple;
     requires freetts;
+    requires java.desktop;
+    requires java.management;
     requires junit;
 
     opens com.example to javafx.fxml;
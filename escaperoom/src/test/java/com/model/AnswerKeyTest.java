@@ -0,0 +1,76 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AnswerKey and the riddle/trivia answer checks that use it.
+ */
+public class AnswerKeyTest {
+
+    @Test
+    public void testNormalizeFoldsCaseArticlesPunctuationAndSpacing() {
+        assertEquals("spookey", AnswerKey.normalize("a spoo-key"));
+        assertEquals("spookey", AnswerKey.normalize("  SpooKey! "));
+        assertEquals("creaky door", AnswerKey.normalize("The   creaky\tdoor."));
+        assertEquals("an", AnswerKey.normalize("An"));
+        assertEquals("answer", AnswerKey.normalize("answer"));
+        assertEquals("", AnswerKey.normalize(" ?! "));
+        assertEquals("", AnswerKey.normalize(null));
+    }
+
+    @Test
+    public void testMatchesAnswerOrAlias() {
+        AnswerKey key = AnswerKey.of("phosphorus vapors", Arrays.asList("phosphorus vapor", "", null));
+        assertEquals(2, key.forms().size());
+        assertTrue(key.matches("Phosphorus Vapor"));
+        assertFalse(key.matches("phosphorus"));
+        assertFalse(key.matches(""));
+        assertFalse(key.matches(null));
+        assertFalse(AnswerKey.of(null, null).matches("anything"));
+    }
+
+    @Test
+    public void testRiddleAndTriviaUseNormalizedAnswers() {
+        RiddlePuzzle riddle = new RiddlePuzzle("What key opens a haunted house?", "a spoo-key", "house", Difficulty.EASY);
+        assertTrue(riddle.checkAnswer("spookey"));
+        assertFalse(riddle.matches("spooky key"));
+        riddle.setAliases(Arrays.asList("spooky key"));
+        assertTrue(riddle.matches("Spooky key"));
+
+        TriviaPuzzle trivia = new TriviaPuzzle("Hg?", "mercury", "elements", Difficulty.HARD);
+        trivia.setAliases(Arrays.asList("quicksilver"));
+        assertTrue(trivia.checkAnswer("Quicksilver"));
+        trivia.freeze();
+        try {
+            trivia.setAliases(null);
+            fail("aliases of a catalog puzzle are read-only");
+        } catch (IllegalStateException expected) {
+            // shared definition
+        }
+    }
+
+    @Test
+    public void testChecksDoNotAllocate() {
+        // HotSpot's ThreadMXBean counts bytes allocated by a thread
+        Object mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) mx;
+        if (!threads.isThreadAllocatedMemoryEnabled()) return;
+        AnswerKey key = AnswerKey.of("phosphorus vapors", Arrays.asList("the creaky door", "quicksilver"));
+        String[] inputs = { "Phosphorus Vapors!", "creaky door", "quicksilvr", "nothing like it" };
+        for (int i = 0; i < 1000; i++) key.matches(inputs[i & 3], 2);   // grow the buffers
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        int hits = 0;
+        for (int i = 0; i < 10_000; i++) if (key.matches(inputs[i & 3], 2)) hits++;
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+        assertEquals(7500, hits);
+        assertTrue("checks allocated " + allocated + " bytes", allocated < 1024);
+    }
+}
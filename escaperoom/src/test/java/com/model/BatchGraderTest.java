@@ -0,0 +1,70 @@
+package com.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for BatchGrader.
+ */
+public class BatchGraderTest {
+
+    private RoomCatalog catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        String json =
+                "[ { \"name\": \"Room\", \"puzzles\": [" +
+                "    { \"type\": \"riddle\", \"question\": \"q\", \"answer\": \"a ghost\", \"aliases\": [\"phantom\"], \"id\": 1 }," +
+                "    { \"type\": \"math\", \"question\": \"Solve: 6 * 7\", \"answer\": 42, \"id\": 2 }," +
+                "    { \"type\": \"door\", \"numDoors\": 3, \"correctDoor\": 2, \"attempts\": 1, \"id\": 3 }," +
+                "    { \"type\": \"trivia\", \"question\": \"t\", \"answer\": \"?!\", \"id\": 4 }" +
+                "] } ]";
+        Path rooms = Files.createTempFile("batchgrader-test-", ".json");
+        Files.write(rooms, json.getBytes());
+        rooms.toFile().deleteOnExit();
+        catalog = RoomCatalog.fromJson(rooms.toString());
+    }
+
+    @Test
+    public void testGradesLargeBatchInParallelWithoutTouchingPuzzles() {
+        String[] pool = { "ghost", "Phantom", "nope", "42.0", "41", "door 2", "1", null };
+        int[] poolIds = { 1, 1, 1, 2, 2, 3, 3, 4 };
+        int n = 50_000;
+        int[] ids = new int[n];
+        String[] answers = new String[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i % 1000 == 999 ? 99 : poolIds[i % pool.length];
+            answers[i] = pool[i % pool.length];
+        }
+        BatchGrader.Result r = new BatchGrader(catalog).grade(ids, answers);
+
+        assertEquals(n, r.size());
+        for (int i = 0; i < n; i++) {
+            byte expected = ids[i] == 99 ? BatchGrader.UNKNOWN_PUZZLE
+                    : i % pool.length == 0 || i % pool.length == 1 || i % pool.length == 3 || i % pool.length == 5
+                    ? BatchGrader.CORRECT : BatchGrader.WRONG;
+            assertEquals("submission " + i, expected, r.outcome(i));
+        }
+        assertEquals(n, r.getCorrect() + r.getWrong() + r.getUnknown());
+        DoorPuzzle door = (DoorPuzzle) catalog.getIndex().byId(3);
+        assertEquals("grading never counts door attempts", 0, door.getAttemptsMade());
+    }
+
+    @Test
+    public void testSelfCheckReportsUnanswerablePuzzles() {
+        List<String> problems = new BatchGrader(catalog).selfCheck();
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).startsWith("puzzle 4 "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMismatchedArrays() {
+        new BatchGrader(catalog).grade(new int[2], new String[1]);
+    }
+}
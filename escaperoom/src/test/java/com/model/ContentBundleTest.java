@@ -0,0 +1,123 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ContentBundleCompiler and ContentBundle.
+ */
+public class ContentBundleTest {
+
+    private static final String ROOMS =
+            "[" +
+            "  { \"name\": \"The Dark Foyer\", \"description\": \"dusty\", \"level\": 1, \"puzzles\": [" +
+            "      { \"type\": \"riddle\", \"question\": \"r1\", \"answer\": \"echo\", \"category\": \"sound\", \"id\": 1, \"locked\": true, \"reward\": \"KEY\", \"hiddenHint\": \"listen\" }," +
+            "      { \"type\": \"math\", \"question\": \"6*7\", \"answer\": 42, \"difficulty\": \"HARD\" }" +
+            "  ] }," +
+            "  { \"name\": \"Hall of Doors\", \"level\": 2, \"puzzles\": [" +
+            "      { \"type\": \"door\", \"numDoors\": 4, \"correctDoor\": 3, \"attempts\": 2, \"id\": 9, \"difficulty\": \"MEDIUM\" }," +
+            "      { \"type\": \"trivia\", \"question\": \"t\", \"answer\": \"b\", \"aliases\": [\"bee\", \"the letter b\"], \"id\": 4 }" +
+            "  ] }" +
+            "]";
+
+    private Path write(String prefix, String content) throws IOException {
+        Path tmp = Files.createTempFile(prefix, ".tmp");
+        Files.write(tmp, content.getBytes());
+        tmp.toFile().deleteOnExit();
+        return tmp;
+    }
+
+    private Path compile(Path rooms, Path hints) throws IOException {
+        Path out = Files.createTempFile("content-", ".bundle");
+        out.toFile().deleteOnExit();
+        List<String> errors = ContentBundleCompiler.compile(rooms, hints, out, rooms.toString());
+        assertTrue(errors.toString(), errors.isEmpty());
+        return out;
+    }
+
+    @Test
+    public void testRoundTripMatchesJson() throws Exception {
+        Path rooms = write("rooms-", ROOMS);
+        Path hints = write("hints-", "1|first, second\n4|only\n");
+        RoomCatalog json = RoomCatalog.fromJson(rooms.toString());
+        RoomCatalog bundled = ContentBundle.open(compile(rooms, hints)).toCatalog();
+
+        assertEquals(json.getRooms().size(), bundled.getRooms().size());
+        assertEquals("dusty", bundled.getRooms().get(0).getDescription());
+        assertEquals(2, bundled.getRooms().get(1).getLevel());
+        assertEquals(json.getPuzzles().size(), bundled.getPuzzles().size());
+        for (int i = 0; i < json.getPuzzles().size(); i++) {
+            Puzzle a = json.getPuzzles().get(i), b = bundled.getPuzzles().get(i);
+            assertEquals(a.getClass(), b.getClass());
+            assertEquals(a.toString(), b.toString());
+            assertEquals(a.getId(), b.getId());
+            assertEquals(a.getDifficulty(), b.getDifficulty());
+            assertEquals(a.getReward(), b.getReward());
+            assertEquals(a.isLocked(), b.isLocked());
+            assertEquals(a.getHiddenHint(), b.getHiddenHint());
+            assertTrue(b.isFrozen());
+        }
+
+        PuzzleIndex idx = bundled.getIndex();
+        assertEquals(json.getIndex().idLimit(), idx.idLimit());
+        assertEquals(3, ((DoorPuzzle) idx.byId(9)).getCorrectDoor());
+        assertTrue(idx.byId(2) instanceof MathPuzzle);
+        assertSame(bundled.getRooms().get(1), idx.room("HallOfDoors"));
+        assertEquals(1, idx.byDifficulty(Difficulty.HARD).size());
+
+        TriviaPuzzle trivia = (TriviaPuzzle) idx.byId(4);
+        assertEquals(Arrays.asList("bee", "the letter b"), trivia.getAliases());
+        assertTrue(trivia.matches("Letter B"));
+
+        assertEquals(Arrays.asList("first", "second"), bundled.getHints().get(1));
+        assertEquals(Arrays.asList("only"), bundled.getHints().get(4));
+        assertTrue(bundled.getHints().get(9).isEmpty());
+    }
+
+    @Test
+    public void testStaleWhenSourceChanges() throws Exception {
+        Path rooms = write("rooms-", ROOMS);
+        ContentBundle bundle = ContentBundle.open(compile(rooms, null));
+        assertEquals(rooms.toString(), bundle.getSource());
+        assertTrue(bundle.isFresh());
+
+        FileTime compiled = Files.getLastModifiedTime(rooms);
+        Files.setLastModifiedTime(rooms, FileTime.fromMillis(compiled.toMillis() + 2000));
+        assertFalse("a rewritten file is stale even at the same length", bundle.isFresh());
+        Files.setLastModifiedTime(rooms, compiled);
+        assertTrue(bundle.isFresh());
+
+        Files.write(rooms, (ROOMS + " ").getBytes());
+        assertFalse(bundle.isFresh());
+
+        Files.delete(rooms);
+        assertTrue("a bundle without its sources is trusted", bundle.isFresh());
+    }
+
+    @Test
+    public void testValidationRejectsBadContent() throws Exception {
+        Path rooms = write("rooms-",
+                "[ { \"name\": \"A\", \"puzzles\": [" +
+                "    { \"type\": \"riddle\", \"question\": \"q\", \"id\": 1 }," +
+                "    { \"type\": \"trivia\", \"question\": \"t\", \"answer\": \"x\", \"id\": 1 }" +
+                "] }, { \"name\": \"a\", \"puzzles\": [] } ]");
+        Path hints = write("hints-", "7|nobody\n");
+        Path out = rooms.resolveSibling(rooms.getFileName() + ".bundle");
+
+        List<String> errors = ContentBundleCompiler.compile(rooms, hints, out, rooms.toString());
+        assertEquals(errors.toString(), 4, errors.size());
+        assertTrue(errors.get(0).contains("duplicate room"));
+        assertTrue(errors.get(1).contains("missing answer"));
+        assertTrue(errors.get(2).contains("duplicate id"));
+        assertTrue(errors.get(3).contains("unknown puzzle 7"));
+        assertFalse("nothing is written for invalid content", Files.exists(out));
+    }
+}
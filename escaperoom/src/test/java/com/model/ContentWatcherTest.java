@@ -0,0 +1,125 @@
+package com.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ContentWatcher, RoomCatalog.reload and PuzzleSession.refresh.
+ */
+public class ContentWatcherTest {
+
+    private Path dir;
+    private Path rooms;
+    private Path hints;
+    private ContentWatcher watcher;
+
+    private static String rooms(String answer) {
+        return "[ { \"name\": \"Room\", \"puzzles\": [" +
+               "    { \"type\": \"riddle\", \"question\": \"q\", \"answer\": \"" + answer + "\", \"id\": 1, \"locked\": true }," +
+               "    { \"type\": \"trivia\", \"question\": \"t\", \"answer\": \"b\", \"id\": 2 }" +
+               "] } ]";
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("contentwatcher-test-");
+        rooms = dir.resolve("rooms.json");
+        hints = dir.resolve("hints.txt");
+        Files.write(rooms, rooms("echo").getBytes());
+        Files.write(hints, "1|first\n".getBytes());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (watcher != null) watcher.stop();
+        for (Path p : new Path[] { rooms, hints, dir }) Files.deleteIfExists(p);
+    }
+
+    private RoomCatalog awaitNewCatalog(RoomCatalog old) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            RoomCatalog cur = RoomCatalog.current(rooms.toString());
+            if (cur != old) return cur;
+            Thread.sleep(50);
+        }
+        return old;
+    }
+
+    @Test
+    public void testReloadRejectsInvalidContent() throws Exception {
+        RoomCatalog before = RoomCatalog.load(rooms.toString());
+        Files.write(rooms, rooms("").getBytes());
+        assertNull(RoomCatalog.reload(rooms.toString(), hints));
+        assertSame("a bad edit keeps the old snapshot", before, RoomCatalog.current(rooms.toString()));
+
+        Files.write(rooms, rooms("shadow").getBytes());
+        RoomCatalog after = RoomCatalog.reload(rooms.toString(), hints);
+        assertNotNull(after);
+        assertSame(after, RoomCatalog.load(rooms.toString()));
+        assertTrue(after.getIndex().byId(1).matches("shadow"));
+        assertEquals("first", after.getHints().get(1).get(0));
+    }
+
+    @Test
+    public void testSessionKeepsSnapshotUntilRefresh() throws Exception {
+        RoomCatalog before = RoomCatalog.load(rooms.toString());
+        PuzzleSession session = new PuzzleSession(before);
+        Puzzle riddle = before.getIndex().byId(1);
+        session.unlock(riddle);
+        assertFalse(session.refresh());
+
+        Files.write(rooms, rooms("shadow").getBytes());
+        assertNotNull(RoomCatalog.reload(rooms.toString(), hints));
+
+        assertSame("in-flight puzzle keeps its snapshot", before, session.getCatalog());
+        assertTrue(session.attempt(riddle, "echo"));
+
+        assertTrue(session.refresh());
+        Puzzle next = session.getCatalog().getIndex().byId(1);
+        assertNotSame(riddle, next);
+        assertFalse("state carries over by id", session.isLocked(next));
+        assertTrue(session.attempt(next, "shadow"));
+    }
+
+    @Test
+    public void testWatcherReloadsOnChange() throws Exception {
+        RoomCatalog before = RoomCatalog.load(rooms.toString());
+        watcher = new ContentWatcher(rooms.toString(), hints, 50).start();
+
+        Files.write(hints, "1|first, second\n".getBytes());
+        RoomCatalog after = awaitNewCatalog(before);
+        assertNotSame("hints.txt edit should publish a new catalog", before, after);
+        assertEquals(2, after.getHints().get(1).size());
+
+        Files.write(rooms, rooms("shadow").getBytes());
+        RoomCatalog again = awaitNewCatalog(after);
+        assertNotSame(after, again);
+        assertTrue(again.getIndex().byId(1).matches("shadow"));
+        assertTrue(watcher.getReloadCount() >= 2);
+    }
+
+    @Test
+    public void testDefaultHintsFileIsTheSourceCopy() throws Exception {
+        String userDir = System.getProperty("user.dir");
+        Path source = dir.resolve("src/main/resources/com/example/hints.txt");
+        Files.createDirectories(source.getParent());
+        Files.write(source, "1|first\n".getBytes());
+        try {
+            System.setProperty("user.dir", dir.toString());
+            assertEquals(source, ContentWatcher.defaultHintsFile());
+
+            System.setProperty(ContentWatcher.HINTS_PROPERTY, hints.toString());
+            assertEquals(hints, ContentWatcher.defaultHintsFile());
+        } finally {
+            System.setProperty("user.dir", userDir);
+            System.clearProperty(ContentWatcher.HINTS_PROPERTY);
+            Files.deleteIfExists(source);
+            for (Path p = source.getParent(); !p.equals(dir); p = p.getParent()) Files.deleteIfExists(p);
+        }
+    }
+}
@@ -9,8 +9,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 
 import static org.junit.Assert.*;
@@ -154,7 +152,7 @@ public class EscapeRoomGameUITest {
     }
 
     @Test
-    public void testLoadHintsFromFilePopulatesHintsMap() throws Exception {
+    public void testHintsFileParsing() throws Exception {
         // Create a temp hints file with a few well-formed lines and some malformed ones
         Path tmp = Files.createTempFile("hints-test-", ".txt");
         String content = ""
@@ -166,26 +164,14 @@ public class EscapeRoomGameUITest {
         Files.write(tmp, content.getBytes());
         tmp.toFile().deleteOnExit();
 
-        EscapeRoomGameUI ui = new EscapeRoomGameUI();
-
-        Method loadMethod = EscapeRoomGameUI.class.getDeclaredMethod("loadHintsFromFile", String.class);
-        loadMethod.setAccessible(true);
-        loadMethod.invoke(ui, tmp.toString());
-
-        // read private hints map
-        Field hintsField = EscapeRoomGameUI.class.getDeclaredField("hints");
-        hintsField.setAccessible(true);
-        @SuppressWarnings("unchecked")
-        Map<Integer, List<String>> hints = (Map<Integer, List<String>>) hintsField.get(ui);
+        // the UI no longer parses hints itself; it reads the shared HintRepository snapshot
+        HintIndex hints = HintIndex.load(tmp);
 
         assertNotNull(hints);
-        assertTrue(hints.containsKey(1));
         assertEquals(2, hints.get(1).size());
-        assertTrue(hints.containsKey(2));
         assertEquals(1, hints.get(2).size());
         // 3 should not appear (empty list)
-        assertFalse(hints.containsKey(3));
-        assertTrue(hints.containsKey(4));
+        assertTrue(hints.get(3).isEmpty());
         assertEquals(3, hints.get(4).size()); // "a","b","c" -> empty tokens ignored
     }
 }
@@ -0,0 +1,46 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Expression and the MathPuzzle content check built on it.
+ */
+public class ExpressionTest {
+
+    @Test
+    public void testCompilesWithPrecedenceAndPrompt() {
+        assertEquals(42.0, Expression.compile("Solve: 14 * 27 / 9").evaluate(), 0);
+        assertEquals(7.0, Expression.compile("1 + 2 * 3").evaluate(), 0);
+        assertEquals(9.0, Expression.compile("(1 + 2) x 3 = ?").evaluate(), 0);
+        assertEquals(-4.5, Expression.compile("-(3 + 6) ÷ 2").evaluate(), 0);
+        assertEquals(96.0, Expression.compile("8*12").evaluate(), 0);
+        Expression e = Expression.compile("Solve: 90 / 9 - 5 * 68 + 7");
+        assertEquals(e.evaluate(), e.evaluate(), 0);
+        assertEquals(-323.0, e.evaluate(), 0);
+    }
+
+    @Test
+    public void testRejectsWhatIsNotAnExpression() {
+        assertNull(Expression.compile(null));
+        assertNull(Expression.compile("How many legs does a spider have?"));
+        assertNull(Expression.compile("Solve: 3 +"));
+        assertNull(Expression.compile("Solve: (3 + 4"));
+        assertNull(Expression.compile("Solve:"));
+    }
+
+    @Test
+    public void testContentCheck() {
+        MathPuzzle good = new MathPuzzle("Solve: 124 * 9 / 18", 62, Difficulty.HARD);
+        MathPuzzle bad = new MathPuzzle("Solve: 100 * 6 / 5", 125, Difficulty.MEDIUM);
+        MathPuzzle word = new MathPuzzle("Half of a dozen?", 6, Difficulty.EASY);
+        List<String> problems = MathPuzzle.compileAll(Arrays.<Puzzle>asList(good, bad, word));
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).contains("gives 120"));
+        assertTrue(word.isAnswerConsistent());
+    }
+}
@@ -0,0 +1,78 @@
+package com.model;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FuzzyMatch and fuzzy AnswerKey lookups.
+ */
+public class FuzzyMatchTest {
+
+    @After
+    public void tearDown() {
+        FuzzyMatch.setEnabled(false);
+        FuzzyMatch.setMaxEdits(Difficulty.EASY, 2);
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++) d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int sub = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                d[i][j] = Math.min(sub, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    @Test
+    public void testBandedCheckAgreesWithFullDistance() {
+        Random r = new Random(3);
+        for (int t = 0; t < 20000; t++) {
+            StringBuilder a = new StringBuilder(), b = new StringBuilder();
+            for (int i = r.nextInt(12); i > 0; i--) a.append((char) ('a' + r.nextInt(3)));
+            for (int i = r.nextInt(12); i > 0; i--) b.append((char) ('a' + r.nextInt(3)));
+            int k = r.nextInt(4);
+            assertEquals(a + " / " + b + " k=" + k, levenshtein(a.toString(), b.toString()) <= k,
+                    FuzzyMatch.within(a, b, k));
+        }
+    }
+
+    @Test
+    public void testAllowanceScalesWithDifficultyAndLength() {
+        assertEquals(0, FuzzyMatch.maxEdits(Difficulty.EASY));
+        FuzzyMatch.setEnabled(true);
+        assertEquals(2, FuzzyMatch.maxEdits(Difficulty.EASY));
+        assertEquals(0, FuzzyMatch.maxEdits(Difficulty.HARD));
+        assertEquals(0, FuzzyMatch.allowance(2, 4));
+        assertEquals(1, FuzzyMatch.allowance(2, 5));
+        assertEquals(2, FuzzyMatch.allowance(2, 12));
+
+        AnswerKey key = AnswerKey.of("a homunculus", java.util.Arrays.asList("lead"));
+        assertTrue(key.matches("homunculis", 2));
+        assertTrue(key.matches("homuncls", 2));
+        assertFalse(key.matches("homnculs", 1));
+        assertFalse("short answers stay exact", key.matches("load", 2));
+    }
+
+    @Test
+    public void testPuzzlesAcceptTyposOnlyWhenEnabled() {
+        RiddlePuzzle easy = new RiddlePuzzle("q", "a skeleton", "monsters", Difficulty.EASY);
+        TriviaPuzzle hard = new TriviaPuzzle("q", "phosphorus vapors", "potions", Difficulty.HARD);
+        assertFalse(easy.matches("skeletn"));
+
+        FuzzyMatch.setEnabled(true);
+        assertTrue(easy.matches("Skeletn"));
+        assertFalse("HARD allows no typos", hard.matches("phosphorus vapours"));
+        assertTrue(hard.matches("Phosphorus vapors"));
+
+        FuzzyMatch.setMaxEdits(Difficulty.EASY, 0);
+        assertFalse(easy.matches("skeletn"));
+    }
+}
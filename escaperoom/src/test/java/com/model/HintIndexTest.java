@@ -0,0 +1,82 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the compiled hint store behind HintIndex.
+ */
+public class HintIndexTest {
+
+    private Path write(String prefix, byte[] content) throws IOException {
+        Path tmp = Files.createTempFile(prefix, ".tmp");
+        Files.write(tmp, content);
+        tmp.toFile().deleteOnExit();
+        return tmp;
+    }
+
+    @Test
+    public void testCompiledStoreMatchesText() throws Exception {
+        Path txt = write("hints-", "12|look up, under the rug\n3|ünïcode ✓\nbad|line\n7|  \n".getBytes(StandardCharsets.UTF_8));
+        Path store = Files.createTempFile("hints-", ".store");
+        store.toFile().deleteOnExit();
+        HintIndex.compile(txt, store);
+
+        HintIndex mapped = HintIndex.open(store);
+        HintIndex parsed = HintIndex.load(txt);
+        assertArrayEquals(new int[] { 3, 12 }, mapped.ids());
+        assertArrayEquals(parsed.ids(), mapped.ids());
+        assertEquals(Arrays.asList("look up", "under the rug"), mapped.get(12));
+        assertEquals(Arrays.asList("ünïcode ✓"), mapped.get(3));
+        assertTrue(mapped.get(7).isEmpty());
+        assertTrue(mapped.get(99).isEmpty());
+    }
+
+    @Test
+    public void testSameSizeEditMakesStoreStale() throws Exception {
+        Path txt = write("hints-", "1|look under the rug\n".getBytes(StandardCharsets.UTF_8));
+        Path store = Files.createTempFile("hints-", ".store");
+        store.toFile().deleteOnExit();
+        HintIndex compiled = HintIndex.compile(txt, store);
+        assertTrue(compiled.isFreshAgainst(txt));
+
+        FileTime before = Files.getLastModifiedTime(txt);
+        Files.write(txt, "1|look under the mat\n".getBytes(StandardCharsets.UTF_8));   // same length
+        // the edit's timestamp may land in the same clock tick on a coarse file system
+        Files.setLastModifiedTime(txt, FileTime.fromMillis(before.toMillis() + 2000));
+        assertFalse(HintIndex.open(store).isFreshAgainst(txt));
+        assertTrue(HintIndex.of(java.util.Collections.emptyMap()).isFreshAgainst(txt));
+    }
+
+    @Test
+    public void testHintsDecodeOnReadAndAreReadOnly() throws Exception {
+        HintIndex idx = HintIndex.of(java.util.Collections.singletonMap(5, Arrays.asList("a", "b", "c")));
+        List<String> hints = idx.get(5);
+        assertEquals(3, hints.size());
+        assertEquals("c", hints.get(2));
+        try {
+            hints.add("d");
+            fail("hint lists are shared and must be read-only");
+        } catch (UnsupportedOperationException expected) { }
+
+        Hint h = Hint.of(5, hints);
+        assertEquals("b", h.getNextHint(1));
+        h.addHint("d");
+        assertEquals(4, h.getCount());
+        assertEquals(3, idx.get(5).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsNonStore() throws Exception {
+        HintIndex.open(write("hints-", "1|not compiled\n".getBytes(StandardCharsets.UTF_8)));
+    }
+}
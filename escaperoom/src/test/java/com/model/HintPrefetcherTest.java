@@ -0,0 +1,83 @@
+package com.model;
+
+import com.speech.Narration;
+import org.junit.Test;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for HintPrefetcher, with background work run by hand.
+ */
+public class HintPrefetcherTest {
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private List<String> hints(int id) {
+        lookups.incrementAndGet();
+        return id == 1 ? Arrays.asList("look up", "under the rug") : Collections.emptyList();
+    }
+
+    private Narration render(String text) {
+        renders.incrementAndGet();
+        return new Narration(text, new AudioFormat(16000f, 16, 1, true, true), new byte[] { 1, 2 });
+    }
+
+    private HintPrefetcher prefetcher() {
+        return new HintPrefetcher(this::hints, this::render, pending::add);
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) pending.poll().run();
+    }
+
+    @Test
+    public void testPrefetchPreparesTextAndNarrationInBackground() {
+        HintPrefetcher p = prefetcher();
+        p.prefetch(1, 1, h -> "[HINT] " + h);
+        assertEquals(0, lookups.get());
+        runPending();
+        assertEquals(1, lookups.get());
+        assertEquals(1, renders.get());
+
+        HintPrefetcher.Prefetched next = p.take(1, 1);
+        assertEquals("under the rug", next.getText());
+        assertTrue(next.isNarrationReady());
+        assertEquals("[HINT] under the rug", next.narration().getText());
+        assertEquals(1, lookups.get());
+        assertEquals(0, p.size());
+    }
+
+    @Test
+    public void testTakeWithoutPrefetchLooksUpDirectly() {
+        HintPrefetcher p = prefetcher();
+        p.prefetch(1, 0);
+        runPending();
+        HintPrefetcher.Prefetched next = p.take(1, 1); // player moved on: stale entry ignored
+        assertEquals("under the rug", next.getText());
+        assertFalse(next.isNarrationReady());
+        assertNull(p.take(1, 2).getText());
+        assertNull(p.take(7, 0).getText());
+    }
+
+    @Test
+    public void testRepeatedPrefetchIsIgnoredAndCacheIsBounded() {
+        HintPrefetcher p = prefetcher();
+        p.prefetch(1, 0);
+        p.prefetch(1, 0);
+        runPending();
+        assertEquals(1, lookups.get());
+        for (int id = 100; id < 120; id++) p.prefetch(id, 0);
+        runPending();
+        assertTrue(p.size() <= 8);
+    }
+}
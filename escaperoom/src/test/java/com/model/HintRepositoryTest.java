@@ -0,0 +1,62 @@
+package com.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.HintManager;
+
+public class HintRepositoryTest {
+
+    private HintIndex original;
+
+    @Before
+    public void before() throws IOException {
+        original = HintRepository.getInstance().snapshot();
+        HintRepository.getInstance().publish(HintIndex.parse(new BufferedReader(
+                new StringReader("7|first, second\n8|only\n"))));
+    }
+
+    @After
+    public void after() {
+        HintRepository.getInstance().publish(original);
+    }
+
+    @Test
+    public void testHintsInOrder() {
+        HintRepository repo = HintRepository.getInstance();
+        assertEquals(Arrays.asList("first", "second"), repo.hintsFor(7));
+        assertEquals(2, repo.count(7));
+        assertTrue(repo.hintsFor(99).isEmpty());
+    }
+
+    @Test
+    public void testGetNextHint() {
+        HintRepository repo = HintRepository.getInstance();
+        assertEquals("first", repo.getNextHint(7, 0));
+        assertEquals("second", repo.getNextHint(7, 1));
+        assertNull(repo.getNextHint(7, 2));
+        assertEquals("first", repo.getNextHint(7, -3));
+    }
+
+    @Test
+    public void testSnapshotIsShared() {
+        assertSame(HintRepository.getInstance().snapshot(), HintRepository.getInstance().snapshot());
+    }
+
+    @Test
+    public void testHintManagerDelegates() {
+        HintManager m = HintManager.getInstance();
+        assertEquals(1, m.availableCount(8));
+        assertEquals("only", m.getNextHint(8, 0));
+    }
+}
@@ -0,0 +1,245 @@
+package com.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for LeaderboardService and its ScoreIndex.
+ */
+public class LeaderboardServiceTest {
+
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("leaderboard_test_dir");
+        file = dir.resolve("leaderboard.json");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testRanksByScoreThenTime() {
+        LeaderboardService board = new LeaderboardService(file);
+        board.submit("ann", 80, "easy", 300);
+        board.submit("bob", 120, "easy", 500);
+        board.submit("cat", 80, "EASY", 200);
+        board.submit("ann", 300, "hard", 900);
+
+        List<LeaderboardEntry> easy = board.top("easy", 10);
+        assertEquals(3, easy.size());
+        assertEquals("bob", easy.get(0).getUsername());
+        assertEquals("cat", easy.get(1).getUsername());
+        assertEquals("ann", easy.get(2).getUsername());
+        assertEquals(3, board.rankOf("ann", "easy"));
+        assertEquals(1, board.rankOf("ann", "hard"));
+        assertEquals(1, board.rankOf("ann", null));
+        assertEquals(-1, board.rankOf("nobody", "easy"));
+        assertEquals(4, board.size(null));
+        assertEquals(2, board.top(null, 2).size());
+    }
+
+    @Test
+    public void testOnlyBetterRunsReplace() {
+        LeaderboardService board = new LeaderboardService(file);
+        assertTrue(board.submit("ann", 80, "easy", 300));
+        assertFalse(board.submit("ann", 70, "easy", 100));
+        assertFalse(board.submit("ann", 80, "easy", 400));
+        assertTrue(board.submit("ann", 80, "easy", 250));
+        assertEquals(250, board.get("ann", "easy").getTimeSpent());
+        assertEquals(1, board.size("easy"));
+    }
+
+    @Test
+    public void testRecordsPersistInPlaceAndExportJson() throws IOException {
+        LeaderboardService board = new LeaderboardService(file);
+        board.submit("ann", 80, "easy", 300);
+        board.submit("bob", 90, "medium", 100);
+        Path dat = dir.resolve("leaderboard.dat");
+        long size = Files.size(dat);
+        board.submit("ann", 95, "easy", 280);     // improved: a spare slot, file doesn't grow
+        assertEquals(size, Files.size(dat));
+        board.close();
+
+        LeaderboardService reopened = new LeaderboardService(file);
+        assertEquals(2, reopened.size(null));
+        assertEquals(95, reopened.get("ann", "easy").getScore());
+        assertEquals(1, reopened.rankOf("ann", null));
+        assertNotNull(reopened.get("ann", "easy").getTimestamp());
+
+        assertFalse(Files.exists(file));
+        reopened.exportJson();
+        reopened.close();
+        Files.delete(dat);
+        LeaderboardService fromJson = new LeaderboardService(file);   // imports the export
+        assertEquals(2, fromJson.size(null));
+        assertEquals(95, fromJson.get("ann", "easy").getScore());
+        fromJson.close();
+    }
+
+    @Test
+    public void testRemovedSlotsAreReused() {
+        LeaderboardService board = new LeaderboardService(file);
+        board.submit("ann", 10, "easy", 1);
+        board.submit("bob", 20, "easy", 1);
+        assertTrue(board.remove("ann", "easy"));
+        assertFalse(board.remove("ann", "easy"));
+        board.submit("cat", 30, "hard", 1);
+        board.close();
+
+        LeaderboardService reopened = new LeaderboardService(file);
+        assertNull(reopened.get("ann", "easy"));
+        assertEquals(2, reopened.size(null));
+        assertEquals("cat", reopened.top(null, 1).get(0).getUsername());
+        reopened.close();
+    }
+
+    @Test
+    public void testInterruptedRewriteKeepsOneVersion() throws IOException {
+        Path dat = dir.resolve("leaderboard.dat");
+        try (LeaderboardFile f = LeaderboardFile.open(dat)) {
+            f.write(f.allocate(), new LeaderboardEntry("ann", "easy", 10, 5, null));
+            f.write(f.allocate(), new LeaderboardEntry("bob", "easy", 20, 5, null));
+            // a crash after ann's new record was written but before her old slot was freed
+            f.write(f.allocate(), new LeaderboardEntry("ann", "easy", 30, 5, null));
+        }
+        try (LeaderboardFile f = LeaderboardFile.open(dat)) {
+            List<Integer> live = new ArrayList<>();
+            f.forEachLive(live::add);
+            assertEquals(Arrays.asList(1, 2), live);
+            assertEquals(30, f.read(2).getScore());
+            assertEquals(0, f.allocate());                       // the superseded slot is reused
+        }
+    }
+
+    @Test
+    public void testTornRewriteKeepsTheOldRecord() throws IOException {
+        Path dat = dir.resolve("leaderboard.dat");
+        try (LeaderboardFile f = LeaderboardFile.open(dat)) {
+            f.write(f.allocate(), new LeaderboardEntry("ann", "easy", 10, 5, null));
+            f.write(f.allocate(), new LeaderboardEntry("ann", "easy", 30, 5, null));
+        }
+        // the new record only partly reached the disk: its score bytes are stale
+        try (FileChannel ch = FileChannel.open(dat, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] { 7 }), 32 + LeaderboardFile.RECORD + 15);
+        }
+        try (LeaderboardFile f = LeaderboardFile.open(dat)) {
+            List<Integer> live = new ArrayList<>();
+            f.forEachLive(live::add);
+            assertEquals(Arrays.asList(0), live);
+            assertEquals(10, f.read(0).getScore());
+            assertEquals(1, f.allocate());
+        }
+    }
+
+    @Test
+    public void testImportsLegacyJournal() throws IOException {
+        Files.write(file, "[{\"username\":\"ann\",\"score\":5,\"difficulty\":\"easy\",\"timeSpent\":9}]".getBytes());
+        Files.write(dir.resolve("leaderboard.json.journal"),
+                "{\"username\":\"ann\",\"score\":7,\"difficulty\":\"easy\",\"timeSpent\":8}\n{\"username\":\"bo".getBytes());
+        LeaderboardService board = new LeaderboardService(file);
+        assertEquals(7, board.get("ann", "easy").getScore());
+        assertFalse(Files.exists(dir.resolve("leaderboard.json.journal")));
+        board.close();
+    }
+
+    @Test
+    public void testWindowsRollOver() {
+        // Wednesday 2025-01-15 00:00 UTC
+        long wed = LocalDate.of(2025, 1, 15).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long day = 24 * 3600;
+        long[] now = { wed + 60 };
+        LeaderboardService board = new LeaderboardService(file, ZoneOffset.UTC, () -> now[0]);
+        board.submit("ann", 90, "easy", 100);
+        now[0] = wed + day + 60;                                    // Thursday: new day, same week
+        board.submit("bob", 50, "easy", 100);
+        board.submit("ann", 40, "easy", 100);                       // worse than ann's all-time best
+
+        List<LeaderboardEntry> today = board.top(LeaderboardService.Window.DAILY, "easy", 10);
+        assertEquals(2, today.size());
+        assertEquals("bob", today.get(0).getUsername());
+        assertEquals(40, today.get(1).getScore());
+        assertEquals(1, board.rankOf(LeaderboardService.Window.WEEKLY, "ann", "easy"));
+        assertEquals(90, board.top(LeaderboardService.Window.WEEKLY, null, 1).get(0).getScore());
+
+        now[0] = wed + 5 * day;                                     // Monday: both windows roll over
+        assertEquals(0, board.size(LeaderboardService.Window.DAILY, null));
+        assertEquals(0, board.size(LeaderboardService.Window.WEEKLY, null));
+        assertEquals(2, board.size(LeaderboardService.Window.ALL_TIME, null));
+        board.submit("cat", 70, "hard", 100);
+        assertEquals(1, board.rankOf(LeaderboardService.Window.WEEKLY, "cat", null));
+        assertEquals(2, board.rankOf(LeaderboardService.Window.ALL_TIME, "cat", null));
+        board.close();
+    }
+
+    @Test
+    public void testWindowsSeededFromHistory() {
+        long wed = LocalDate.of(2025, 1, 15).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long day = 24 * 3600;
+        RunHistory history = new RunHistory(dir.resolve("runs.log"), ZoneOffset.UTC);
+        history.record("ann", "easy", 90, 100, 3, 0, wed + 60);
+        history.record("bob", "easy", 60, 100, 3, 0, wed - day);        // Tuesday: this week, not today
+        history.record("dan", "easy", 99, 100, 3, 0, wed - 30 * day);   // last month: neither window
+        LeaderboardService board = new LeaderboardService(file, ZoneOffset.UTC, () -> wed + 3600);
+        board.seedWindows(history);
+        board.submit("cat", 70, "hard", 100);
+
+        List<LeaderboardEntry> today = board.top(LeaderboardService.Window.DAILY, null, 10);
+        assertEquals(2, today.size());
+        assertEquals("ann", today.get(0).getUsername());
+        assertEquals("cat", today.get(1).getUsername());
+        assertEquals(3, board.size(LeaderboardService.Window.WEEKLY, null));
+        assertEquals(3, board.rankOf(LeaderboardService.Window.WEEKLY, "bob", null));
+        assertEquals(-1, board.rankOf(LeaderboardService.Window.WEEKLY, "dan", null));
+        assertEquals(1, board.size(LeaderboardService.Window.ALL_TIME, null));
+        history.close();
+        board.close();
+    }
+
+    @Test
+    public void testScoreIndexMatchesSortedList() {
+        ScoreIndex index = new ScoreIndex();
+        List<LeaderboardEntry> expected = new ArrayList<>();
+        Random rnd = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            LeaderboardEntry e = new LeaderboardEntry("p" + i, "easy", rnd.nextInt(50), rnd.nextInt(20), null);
+            index.add(e);
+            expected.add(e);
+            if (i % 3 == 0) {
+                LeaderboardEntry gone = expected.remove(rnd.nextInt(expected.size()));
+                index.remove(gone);
+            }
+        }
+        expected.sort(LeaderboardEntry.ORDER);
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected, index.top(expected.size()));
+        for (int k = 0; k < expected.size(); k += 17) {
+            assertSame(expected.get(k), index.get(k));
+            assertEquals(k + 1, index.rank(expected.get(k)));
+        }
+    }
+}
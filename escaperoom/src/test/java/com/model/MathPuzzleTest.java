@@ -48,6 +48,16 @@ public class MathPuzzleTest {
         assertFalse(p.checkAnswer("1000001"));
     }
 
+    @Test
+    public void testCheckAnswerAcceptsEquivalentNumericForms() {
+        MathPuzzle p = new MathPuzzle("Solve: 14 * 27 / 9", 42, Difficulty.HARD);
+        assertTrue(p.checkAnswer("42.0"));
+        assertTrue(p.checkAnswer("+42"));
+        assertTrue(p.checkAnswer("42."));
+        assertFalse(p.checkAnswer("42.5"));
+        assertFalse(p.checkAnswer("4.2e1"));
+    }
+
     @Test
     public void testGenerateEquationDoesNotThrow() {
         MathPuzzle p = new MathPuzzle("1 + 2", 3, Difficulty.EASY);
@@ -0,0 +1,48 @@
+package com.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for NumberScanner.
+ */
+public class NumberScannerTest {
+
+    @Test
+    public void testTrailingIntTakesLastToken() {
+        assertEquals(2, NumberScanner.trailingInt("door 2"));
+        assertEquals(42, NumberScanner.trailingInt(" 42 "));
+        assertEquals(-1, NumberScanner.trailingInt("-1"));
+        assertEquals(3, NumberScanner.trailingInt("pick\tdoor  +3\n"));
+        assertEquals(Integer.MIN_VALUE, NumberScanner.trailingInt("-2147483648"));
+        assertEquals(NumberScanner.NO_NUMBER, NumberScanner.trailingInt("2 doors"));
+        assertEquals(NumberScanner.NO_NUMBER, NumberScanner.trailingInt("2147483648"));
+        assertEquals(NumberScanner.NO_NUMBER, NumberScanner.trailingInt("door -"));
+        assertEquals(NumberScanner.NO_NUMBER, NumberScanner.trailingInt("   "));
+        assertEquals(NumberScanner.NO_NUMBER, NumberScanner.trailingInt(null));
+    }
+
+    @Test
+    public void testDecimalReadsWholeInput() {
+        assertEquals(42.0, NumberScanner.decimal(" 42.0 "), 0);
+        assertEquals(-7.0, NumberScanner.decimal("-7"), 0);
+        assertEquals(0.5, NumberScanner.decimal(".5"), 0);
+        assertEquals(1e20, NumberScanner.decimal("100000000000000000000"), 0);
+        assertTrue(Double.isNaN(NumberScanner.decimal("4 2")));
+        assertTrue(Double.isNaN(NumberScanner.decimal(".")));
+        assertTrue(Double.isNaN(NumberScanner.decimal("-")));
+        assertTrue(Double.isNaN(NumberScanner.decimal(null)));
+    }
+
+    @Test
+    public void testDoorAndMathPuzzlesShareTheScanner() {
+        DoorPuzzle door = new DoorPuzzle(3, 2, 0, Difficulty.EASY);
+        assertEquals(2, door.parseChoice("door 2"));
+        assertEquals(-1, door.parseChoice("door 4"));
+        assertTrue(door.matches(" 2 "));
+        MathPuzzle math = new MathPuzzle("Solve: 6 * 7", 42, Difficulty.EASY);
+        assertTrue(math.matches("42.0"));
+        assertFalse(math.matches("answer 42"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PartitionedCatalog.
+ */
+public class PartitionedCatalogTest {
+
+    private Path pack;
+
+    @Before
+    public void setUp() throws Exception {
+        String json =
+                "[" +
+                "  { \"name\": \"The Dark Foyer\", \"level\": 1, \"puzzles\": [" +
+                "      { \"type\": \"riddle\", \"question\": \"r1\", \"answer\": \"a\" }," +
+                "      { \"type\": \"math\", \"question\": \"1+1\", \"answer\": 2 } ] }," +
+                "  { \"name\": \"Cursed Room\", \"level\": 2, \"puzzles\": [" +
+                "      { \"type\": \"door\", \"numDoors\": 3, \"correctDoor\": 2, \"id\": 7, \"locked\": true, \"reward\": \"KEY\" } ] }," +
+                "  { \"name\": \"Hall A\", \"level\": 2, \"puzzles\": [" +
+                "      { \"type\": \"trivia\", \"question\": \"t\", \"answer\": \"b\", \"category\": \"c\", \"hiddenHint\": \"h\" } ] }," +
+                "  { \"name\": \"Hall B\", \"level\": 2, \"puzzles\": [" +
+                "      { \"type\": \"riddle\", \"question\": \"r2\", \"answer\": \"z\", \"difficulty\": \"HARD\" } ] }," +
+                "  { \"name\": \"Alchemy Lab\", \"level\": 3, \"puzzles\": [" +
+                "      { \"type\": \"riddle\", \"question\": \"r3\", \"answer\": \"y\" } ] }" +
+                "]";
+        Path rooms = Files.createTempFile("partitioned-test-", ".json");
+        Files.write(rooms, json.getBytes());
+        rooms.toFile().deleteOnExit();
+        pack = Files.createTempDirectory("partitioned-pack-");
+        assertEquals("level 2 splits into two files of at most 2 rooms", 4, PartitionedCatalog.split(rooms, pack, 2));
+        pack.toFile().deleteOnExit();
+        for (Path p : Files.newDirectoryStream(pack)) p.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testManifestAnswersWithoutLoading() throws Exception {
+        PartitionedCatalog c = PartitionedCatalog.open(pack, 100);
+        assertEquals(Arrays.asList(1, 2, 3), Arrays.asList(c.levels().toArray()));
+        assertEquals(Arrays.asList(1, 2), Arrays.asList(c.reachableLevels(2).toArray()));
+        assertEquals(Arrays.asList("Cursed Room", "Hall A", "Hall B"), c.roomNames(2));
+        assertEquals(0, c.loadedPartitionCount());
+        assertNull(c.room("WitchesDen"));
+        assertNull(c.puzzle(99));
+        assertEquals(0, c.getLoadCount());
+    }
+
+    @Test
+    public void testLoadsPartitionsOnDemandWithStableIds() throws Exception {
+        PartitionedCatalog c = PartitionedCatalog.open(pack, 100);
+
+        EscapeRoom cursed = c.room("CursedRoom Screen");
+        assertNotNull(cursed);
+        assertEquals(1, c.loadedPartitionCount());
+        DoorPuzzle door = (DoorPuzzle) cursed.getPuzzles().get(0);
+        assertEquals(7, door.getId());
+        assertEquals(2, door.getCorrectDoor());
+        assertTrue(door.isLocked());
+        assertEquals(ItemName.KEY, door.getReward());
+        assertTrue(door.isFrozen());
+
+        // generated ids follow the whole file (1, 2 on level 1, then 3 past the explicit 7)
+        assertEquals("r1", c.puzzle(1).getQuestion());
+        assertEquals(2, ((MathPuzzle) c.puzzle(2)).getAnswer());
+        Puzzle trivia = c.puzzle(3);
+        assertEquals("h", trivia.getHiddenHint());
+        assertTrue(trivia.matches("B"));
+        assertEquals(Difficulty.HARD, c.puzzle(4).getDifficulty());
+        assertEquals(3, c.rooms(2).size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedWithinBudget() throws Exception {
+        PartitionedCatalog c = PartitionedCatalog.open(pack, 3);
+        c.rooms(1);                 // level 1: 2 puzzles
+        c.room("Alchemy Lab");      // level 3: +1, fits
+        assertEquals(2, c.loadedPartitionCount());
+        c.room("Cursed Room");      // level 2 chunk 0: +2 -> evicts level 1
+        assertEquals(2, c.loadedPartitionCount());
+        assertEquals(3, c.loadedPuzzleCount());
+
+        int loads = c.getLoadCount();
+        c.room("Alchemy Lab");      // still cached
+        assertEquals(loads, c.getLoadCount());
+        assertNotNull(c.puzzle(1)); // evicted earlier, read again; evicts Cursed Room's chunk
+        assertEquals(loads + 1, c.getLoadCount());
+        assertEquals(3, c.loadedPuzzleCount());
+        c.room("Alchemy Lab");
+        assertEquals("most recently used survives", loads + 1, c.getLoadCount());
+    }
+}
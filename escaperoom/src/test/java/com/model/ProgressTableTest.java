@@ -0,0 +1,80 @@
+package com.model;
+
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for ProgressTable and the Progress/Inventory views it hands out.
+ */
+public class ProgressTableTest {
+
+    @Test
+    public void testViewsShareRowState() {
+        ProgressTable table = new ProgressTable();
+        int row = table.allocate();
+        Progress p = table.view(row);
+
+        assertEquals(0, p.getScore());
+        assertEquals(1, p.getCurrentLevel());
+        assertEquals(Difficulty.ALL, p.getLastDifficultyAsEnum());
+
+        p.increaseScore(40);
+        p.increaseScore(-100);          // clamps at zero like Progress
+        p.increaseScore(25);
+        p.addTime(90);
+        p.setLastDifficulty(Difficulty.HARD);
+        p.addCompletedPuzzleId(3);
+        p.addCompletedPuzzleId(200);    // outside the row bitset -> spill
+        p.incrementHintsUsedFor(3);
+        p.incrementHintsUsedFor(3);
+        p.addCompletedPuzzle("What walks on four legs?");
+        p.getInventory().addItem(new Item(ItemName.POTION, "heal", true, true, null), 2);
+
+        Progress again = table.view(row);
+        assertEquals(25, again.getScore());
+        assertEquals(90, again.getTimeSpent());
+        assertEquals(Difficulty.HARD, again.getLastDifficultyAsEnum());
+        assertTrue(again.hasCompletedPuzzleId(3));
+        assertTrue(again.hasCompletedPuzzleId(200));
+        assertFalse(again.hasCompletedPuzzleId(4));
+        assertEquals(2, again.getHintsUsedFor(3));
+        assertTrue(again.hasCompletedByEither(-1, "What walks on four legs?"));
+
+        Inventory inv = again.getInventory();
+        assertEquals(2, inv.getQuantity(ItemName.POTION));
+        assertTrue(inv.useItem(ItemName.POTION));       // consumable template is shared by the table
+        assertEquals(1, table.view(row).getInventory().getQuantity(ItemName.POTION));
+    }
+
+    @Test
+    public void testAddCopiesProgressAndSerializesLikeHeapProgress() {
+        Progress src = new Progress();
+        src.increaseScore(77);
+        src.addTime(12);
+        src.setLastDifficulty(Difficulty.MEDIUM);
+        src.setLastActive(1234);
+        src.addCompletedPuzzleId(1);
+        src.addCompletedPuzzleId(24);
+        src.incrementHintsUsedFor(24);
+        src.getInventory().addItemByName(ItemName.KEY, 3, null);
+
+        ProgressTable table = new ProgressTable();
+        for (int i = 0; i < 70_000; i++) table.allocate(); // force a second chunk
+        int row = table.add(src);
+        Progress copy = table.view(row);
+
+        UUID id = UUID.randomUUID();
+        JSONObject a = DataLoader.userToJSON(new User("u", "p", id, null, null, src));
+        JSONObject b = DataLoader.userToJSON(new User("u", "p", id, null, null, copy));
+        assertEquals(a, b);
+
+        Map<ItemName, Integer> q = copy.getInventory().getQuantities();
+        assertEquals(Integer.valueOf(3), q.get(ItemName.KEY));
+        assertEquals(70_001, table.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PuzzleGenerator.
+ */
+public class PuzzleGeneratorTest {
+
+    @Test
+    public void testSameSeedAndIndexGiveSamePuzzleInAnyOrder() {
+        PuzzleGenerator a = new PuzzleGenerator(42);
+        PuzzleGenerator b = new PuzzleGenerator(42);
+        String[] forward = new String[50];
+        for (int i = 0; i < forward.length; i++) forward[i] = a.generate(i).getQuestion();
+        for (int i = forward.length - 1; i >= 0; i--) assertEquals(forward[i], b.generate(i).getQuestion());
+
+        // pinned so a change to the stream or the tables shows up as a broken build
+        MathPuzzle m = (MathPuzzle) a.generate(3);
+        assertEquals("Solve: 90 / 9 - 5 * 68 + 7", m.getQuestion());
+        assertEquals(-323, m.getAnswer());
+        assertNotEquals(forward[0], new PuzzleGenerator(43).generate(0).getQuestion());
+    }
+
+    @Test
+    public void testMathAnswersFollowTheQuestion() {
+        PuzzleGenerator g = new PuzzleGenerator(7);
+        for (int i = 0; i < 1000; i++) {
+            MathPuzzle m = g.math(i, Difficulty.EASY);
+            assertEquals(Difficulty.EASY, m.getDifficulty());
+            String[] tok = m.getQuestion().substring("Solve: ".length()).split(" ");
+            long total = Long.parseLong(tok[0]);
+            for (int t = 1; t < tok.length; t += 2) {
+                long v = Long.parseLong(tok[t + 1]);
+                total += tok[t].equals("-") ? -v : v;
+            }
+            assertEquals(m.getQuestion(), total, m.getAnswer());
+            assertTrue(m.checkAnswer(Integer.toString(m.getAnswer())));
+        }
+    }
+
+    @Test
+    public void testDifficultyTablesShapePuzzles() {
+        PuzzleGenerator g = new PuzzleGenerator(1);
+        for (int i = 0; i < 500; i++) {
+            DoorPuzzle easy = g.door(i, Difficulty.EASY);
+            assertTrue(easy.getNumDoors() >= 2 && easy.getNumDoors() <= 3);
+            DoorPuzzle hard = g.door(i, Difficulty.HARD);
+            assertTrue(hard.getNumDoors() >= 4 && hard.getNumDoors() <= 7);
+            assertTrue(hard.getCorrectDoor() >= 1 && hard.getCorrectDoor() <= hard.getNumDoors());
+
+            Puzzle riddle = g.generate(i, PuzzleGenerator.Kind.RIDDLE, Difficulty.MEDIUM);
+            assertTrue(riddle.getQuestion().endsWith("What am I?"));
+            assertEquals(-1, riddle.getId());
+            Puzzle trivia = g.generate(i, PuzzleGenerator.Kind.TRIVIA, null);
+            assertNotEquals(Difficulty.ALL, trivia.getDifficulty());
+        }
+    }
+}
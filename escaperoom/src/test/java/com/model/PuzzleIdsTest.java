@@ -0,0 +1,81 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PuzzleIds.
+ */
+public class PuzzleIdsTest {
+
+    private static Puzzle riddle(int id) {
+        Puzzle p = new RiddlePuzzle("q" + id, "a", null, Difficulty.EASY);
+        if (id >= 0) p.setId(id);
+        return p;
+    }
+
+    private static List<EscapeRoom> rooms(Puzzle... puzzles) {
+        List<EscapeRoom> rooms = new ArrayList<>();
+        rooms.add(new EscapeRoom("A", "", 1, new ArrayList<>(Arrays.asList(puzzles).subList(0, puzzles.length / 2))));
+        rooms.add(new EscapeRoom("B", "", 2, new ArrayList<>(Arrays.asList(puzzles).subList(puzzles.length / 2, puzzles.length))));
+        return rooms;
+    }
+
+    @Test
+    public void testKeepsExplicitIdsAndFillsGapsInFileOrder() {
+        Puzzle a = riddle(-1), b = riddle(1), c = riddle(-1), d = riddle(3);
+        PuzzleIds ids = PuzzleIds.assign(rooms(a, b, c, d));
+        assertEquals(2, a.getId());   // 1 is taken by b
+        assertEquals(1, b.getId());
+        assertEquals(4, c.getId());   // 3 is taken by d
+        assertEquals(4, ids.size());
+        assertEquals(5, ids.idLimit());
+        assertEquals(0, ids.dense(2));
+        assertEquals(3, ids.dense(3));
+        assertEquals(-1, ids.dense(0));
+        assertEquals(-1, ids.dense(99));
+        assertEquals(4, ids.id(2));
+
+        Puzzle a2 = riddle(-1), b2 = riddle(1), c2 = riddle(-1), d2 = riddle(3);
+        PuzzleIds.assign(rooms(a2, b2, c2, d2));
+        assertEquals("same file, same numbering", Arrays.asList(2, 4), Arrays.asList(a2.getId(), c2.getId()));
+    }
+
+    @Test
+    public void testSparseIdsUseCompactTable() {
+        Puzzle a = riddle(1_000_000), b = riddle(-1), c = riddle(5), d = riddle(1_000_000);
+        PuzzleIds ids = PuzzleIds.assign(rooms(a, b, c, d));
+        assertEquals(1, b.getId());
+        assertEquals(1_000_001, ids.idLimit());
+        assertEquals(0, ids.dense(1_000_000));   // first owner wins
+        assertEquals(1, ids.dense(1));
+        assertEquals(2, ids.dense(5));
+        assertEquals(-1, ids.dense(6));
+        assertEquals(-1, ids.dense(999_999));
+    }
+
+    @Test
+    public void testProgressUsesIdIndexedStorage() {
+        Progress p = new Progress();
+        p.addCompletedPuzzleId(7);
+        p.addCompletedPuzzleId(2);
+        p.addCompletedPuzzleId(5_000_000);
+        assertTrue(p.hasCompletedPuzzleId(7));
+        assertTrue(p.hasCompletedPuzzleId(5_000_000));
+        assertFalse(p.hasCompletedPuzzleId(3));
+        assertEquals(Arrays.asList(2, 7, 5_000_000), new ArrayList<>(p.getCompletedPuzzleIds()));
+
+        p.incrementHintsUsedFor(40);
+        p.incrementHintsUsedFor(40);
+        p.incrementHintsUsedFor(1 << 20);
+        assertEquals(2, p.getHintsUsedFor(40));
+        assertEquals(1, p.getHintsUsedFor(1 << 20));
+        assertEquals(0, p.getHintsUsedFor(41));
+        assertEquals(2, p.getHintsUsed().size());
+    }
+}
@@ -0,0 +1,71 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the PuzzleIndex built by RoomCatalog.
+ */
+public class PuzzleIndexTest {
+
+    private PuzzleIndex index() throws Exception {
+        String json =
+                "[" +
+                "  { \"name\": \"The Dark Foyer\", \"level\": 1, \"puzzles\": [" +
+                "      { \"type\": \"riddle\", \"question\": \"r1\", \"answer\": \"a\", \"id\": 1, \"difficulty\": \"EASY\" }," +
+                "      { \"type\": \"math\", \"question\": \"1+1\", \"answer\": 2, \"id\": 2, \"difficulty\": \"HARD\" }" +
+                "  ] }," +
+                "  { \"name\": \"Cursed Room\", \"level\": 2, \"puzzles\": [" +
+                "      { \"type\": \"door\", \"numDoors\": 3, \"correctDoor\": 2, \"id\": 7, \"difficulty\": \"EASY\" }," +
+                "      { \"type\": \"trivia\", \"question\": \"t\", \"answer\": \"b\", \"id\": 4, \"difficulty\": \"MEDIUM\" }" +
+                "  ] }" +
+                "]";
+        Path tmp = Files.createTempFile("puzzleindex-test-", ".json");
+        Files.write(tmp, json.getBytes());
+        tmp.toFile().deleteOnExit();
+        return RoomCatalog.load(tmp.toString()).getIndex();
+    }
+
+    @Test
+    public void testRoomKeyMatchesScreenIds() {
+        assertEquals("darkfoyer", PuzzleIndex.roomKey("The Dark Foyer"));
+        assertEquals("darkfoyer", PuzzleIndex.roomKey("DarkFoyer Screen"));
+        assertEquals("cursedroom", PuzzleIndex.roomKey("CursedRoom"));
+        assertEquals("", PuzzleIndex.roomKey(null));
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        PuzzleIndex idx = index();
+
+        assertEquals("r1", idx.byId(1).getQuestion());
+        assertTrue(idx.byId(7) instanceof DoorPuzzle);
+        assertNull(idx.byId(3));
+        assertNull(idx.byId(99));
+        assertNull(idx.byId(-1));
+        assertEquals(8, idx.idLimit());
+
+        EscapeRoom cursed = idx.room("CursedRoom Screen");
+        assertNotNull(cursed);
+        assertEquals("Cursed Room", cursed.getName());
+        assertNull(idx.room("WitchesDen"));
+
+        List<Puzzle> easyCursed = idx.byRoomAndDifficulty(cursed, Difficulty.EASY);
+        assertEquals(1, easyCursed.size());
+        assertEquals(7, easyCursed.get(0).getId());
+        assertEquals(2, idx.byRoomAndDifficulty(cursed, Difficulty.ALL).size());
+        assertTrue(idx.byRoomAndDifficulty(cursed, Difficulty.HARD).isEmpty());
+
+        assertEquals(2, idx.byDifficulty(Difficulty.EASY).size());
+        assertEquals(4, idx.byDifficulty(Difficulty.ALL).size());
+
+        assertEquals(1, idx.byType("math").size());
+        assertEquals(1, idx.byType("Trivia").size());
+        assertTrue(idx.byType("unknown").isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package com.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PuzzleSession and frozen catalog puzzles.
+ */
+public class PuzzleSessionTest {
+
+    private RoomCatalog catalog;
+    private Puzzle riddle;
+    private Puzzle door;
+
+    @Before
+    public void setUp() throws Exception {
+        String json =
+                "[ { \"name\": \"Room\", \"puzzles\": [" +
+                "    { \"type\": \"riddle\", \"question\": \"r\", \"answer\": \"echo\", \"id\": 1, \"locked\": true, \"hiddenHint\": \"listen\" }," +
+                "    { \"type\": \"door\", \"numDoors\": 3, \"correctDoor\": 2, \"attempts\": 2, \"id\": 2 }" +
+                "] } ]";
+        Path tmp = Files.createTempFile("puzzlesession-test-", ".json");
+        Files.write(tmp, json.getBytes());
+        tmp.toFile().deleteOnExit();
+        catalog = RoomCatalog.load(tmp.toString());
+        riddle = catalog.getIndex().byId(1);
+        door = catalog.getIndex().byId(2);
+    }
+
+    @Test
+    public void testCatalogPuzzlesAreFrozen() {
+        assertTrue(riddle.isFrozen());
+        try {
+            riddle.setLocked(false);
+            fail("setters on shared definitions should throw");
+        } catch (IllegalStateException expected) { }
+        assertTrue(riddle.matches(" ECHO "));
+        assertFalse(riddle.matches("shadow"));
+    }
+
+    @Test
+    public void testSessionsKeepIndependentState() {
+        PuzzleSession a = new PuzzleSession(catalog);
+        PuzzleSession b = new PuzzleSession(catalog);
+
+        assertFalse("locked puzzles can't be answered", a.attempt(riddle, "echo"));
+        a.unlock(riddle);
+        assertTrue(a.attempt(riddle, "echo"));
+        assertTrue(a.isSolved(riddle));
+
+        assertTrue("other sessions still see the lock", b.isLocked(riddle));
+        assertFalse(b.isSolved(riddle));
+        assertTrue("the definition itself is untouched", riddle.isLocked());
+
+        a.markHiddenHintShown(riddle);
+        assertTrue(a.isHiddenHintShown(riddle));
+        assertFalse(b.isHiddenHintShown(riddle));
+    }
+
+    @Test
+    public void testDoorAttemptLimitIsPerSession() {
+        PuzzleSession a = new PuzzleSession(catalog);
+        assertFalse(a.attempt(door, "door 9"));   // out of range: not counted
+        assertEquals(0, a.getAttempts(door));
+        assertFalse(a.attempt(door, "1"));
+        assertFalse(a.attempt(door, "3"));
+        assertFalse("limit of 2 reached", a.attempt(door, "2"));
+        assertEquals(3, a.getAttempts(door));
+
+        PuzzleSession b = new PuzzleSession(catalog);
+        assertTrue(b.attempt(door, "2"));
+        assertEquals(1, b.getAttempts(door));
+    }
+
+    @Test
+    public void testBlockedDoorWithoutId() {
+        DoorPuzzle generated = new DoorPuzzle(3);   // generated puzzles have no catalog id
+        generated.setBlocked(true);
+        PuzzleSession a = new PuzzleSession(catalog);
+        assertTrue(a.isBlocked(generated));
+        a.unblock(generated);
+        assertTrue("no id to record the unblock against", a.isBlocked(generated));
+    }
+}
@@ -0,0 +1,76 @@
+package com.model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for RoomCatalog.
+ */
+public class RoomCatalogTest {
+
+    private Path writeTempFile(String content) throws IOException {
+        Path tmp = Files.createTempFile("roomcatalog-test-", ".json");
+        Files.write(tmp, content.getBytes());
+        tmp.toFile().deleteOnExit();
+        return tmp;
+    }
+
+    @Test
+    public void testLoadsOnceAndAssignsMissingIds() throws Exception {
+        String json =
+                "[" +
+                "  { \"name\": \"A\", \"level\": 1, \"puzzles\": [" +
+                "      { \"type\": \"riddle\", \"question\": \"q1\", \"answer\": \"x\" }," +
+                "      { \"type\": \"riddle\", \"question\": \"q2\", \"answer\": \"y\", \"id\": 1 }" +
+                "  ] }," +
+                "  { \"name\": \"B\", \"level\": 2, \"puzzles\": [" +
+                "      { \"type\": \"math\", \"question\": \"1+1\", \"answer\": 2 }" +
+                "  ] }" +
+                "]";
+        Path p = writeTempFile(json);
+
+        RoomCatalog first = RoomCatalog.load(p.toString());
+        assertSame("second lookup should not re-parse", first, RoomCatalog.load(p.toString()));
+        assertSame(first, RoomCatalog.forPath(p.toString()));
+
+        List<Puzzle> puzzles = first.getPuzzles();
+        assertEquals(3, puzzles.size());
+        // id 1 is taken by the second puzzle, so the generated ids skip it
+        assertEquals(2, puzzles.get(0).getId());
+        assertEquals(1, puzzles.get(1).getId());
+        assertEquals(3, puzzles.get(2).getId());
+        assertEquals(2, first.getRooms().size());
+    }
+
+    @Test
+    public void testListsAreReadOnly() throws Exception {
+        Path p = writeTempFile("[{ \"name\": \"A\", \"puzzles\": [ { \"question\": \"q\", \"answer\": \"a\" } ] }]");
+        RoomCatalog c = RoomCatalog.load(p.toString());
+
+        try {
+            c.getRooms().clear();
+            fail("rooms should be unmodifiable");
+        } catch (UnsupportedOperationException expected) { }
+        try {
+            c.getRooms().get(0).getPuzzles().clear();
+            fail("room puzzles should be unmodifiable");
+        } catch (UnsupportedOperationException expected) { }
+        try {
+            c.getPuzzles().add(null);
+            fail("puzzles should be unmodifiable");
+        } catch (UnsupportedOperationException expected) { }
+    }
+
+    @Test
+    public void testMissingFileGivesEmptyCatalog() {
+        RoomCatalog c = RoomCatalog.forPath("no/such/rooms-" + System.nanoTime() + ".json");
+        assertTrue(c.getRooms().isEmpty());
+        assertTrue(c.getPuzzles().isEmpty());
+    }
+}
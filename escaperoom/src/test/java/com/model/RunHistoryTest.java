@@ -0,0 +1,115 @@
+package com.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for RunHistory.
+ */
+public class RunHistoryTest {
+
+    private static final long DAY = 24 * 3600;
+    // Wednesday 2025-01-15 00:00 UTC
+    private static final long WED = LocalDate.of(2025, 1, 15).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+
+    private Path dir;
+    private Path log;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("run_history_test_dir");
+        log = dir.resolve("runs.log");
+    }
+
+    @After
+    public void after() throws IOException {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testEveryRunIsKeptAndBucketed() {
+        RunHistory h = new RunHistory(log, ZoneOffset.UTC);
+        h.record("ann", "easy", 50, 300, 3, 1, WED + 3600);
+        h.record("ann", "EASY", 80, 200, 5, 0, WED + 3 * 3600);
+        h.record("ann", "hard", 40, 900, 2, 4, WED + DAY);
+        h.record("bob", "easy", 90, 400, 5, 2, WED + 3600);
+
+        assertEquals(3, h.recentRuns("ann").size());
+        List<RunHistory.Bucket> days = h.trend("ann", null, RunHistory.Granularity.DAY, WED, WED + 7 * DAY);
+        assertEquals(2, days.size());
+        assertEquals(2, days.get(0).getRuns());
+        assertEquals(130, days.get(0).getTotalScore());
+        assertEquals(80, days.get(0).getBestScore());
+        assertEquals(200, days.get(0).getBestTime());
+        assertEquals(8, days.get(0).getPuzzlesSolved());
+        assertEquals(WED + DAY, days.get(1).getStart());
+
+        assertEquals(2, h.trend("ann", "easy", RunHistory.Granularity.HOUR, WED, WED + DAY).size());
+        List<RunHistory.Bucket> month = h.trend("ann", "easy", RunHistory.Granularity.MONTH, WED, WED + DAY);
+        assertEquals(1, month.size());
+        assertEquals(2, month.get(0).getRuns());
+        h.close();
+    }
+
+    @Test
+    public void testDailyAndWeeklyBoards() {
+        RunHistory h = new RunHistory(log, ZoneOffset.UTC);
+        h.record("ann", "easy", 50, 300, 3, 1, WED + 60);
+        h.record("bob", "easy", 70, 300, 3, 1, WED + DAY);           // Thursday
+        h.record("ann", "easy", 90, 100, 3, 1, WED + 6 * DAY);       // next Tuesday
+        LocalDate wed = LocalDate.of(2025, 1, 15);
+
+        List<LeaderboardEntry> day = h.dailyBoard(wed, "easy", 10);
+        assertEquals(1, day.size());
+        assertEquals(50, day.get(0).getScore());
+
+        List<LeaderboardEntry> week = h.weeklyBoard(wed, null, 10);
+        assertEquals(2, week.size());
+        assertEquals("bob", week.get(0).getUsername());
+        assertEquals("ann", week.get(1).getUsername());
+
+        List<LeaderboardEntry> nextWeek = h.weeklyBoard(wed.plusDays(6), "easy", 1);
+        assertEquals(1, nextWeek.size());
+        assertEquals(90, nextWeek.get(0).getScore());
+        h.close();
+    }
+
+    @Test
+    public void testCompactionKeepsTotalsAndTrimsOldDetail() {
+        RunHistory h = new RunHistory(log, ZoneOffset.UTC);
+        h.record("ann", "easy", 50, 300, 3, 1, WED);
+        h.record("ann", "easy", 60, 300, 3, 1, WED + 30 * DAY);
+        h.compact(WED + 30 * DAY);
+        h.record("ann", "easy", 70, 300, 3, 1, WED + 31 * DAY);   // after the roll-up: replayed from the log
+        h.close();
+
+        RunHistory reopened = new RunHistory(log, ZoneOffset.UTC);
+        // the first run's raw record and hourly bucket are past retention; daily and monthly totals remain
+        assertEquals(2, reopened.recentRuns(null).size());
+        assertEquals(2, reopened.bucketCount(RunHistory.Granularity.HOUR));
+        List<RunHistory.Bucket> days = reopened.trend("ann", "easy", RunHistory.Granularity.DAY, WED, WED + 40 * DAY);
+        assertEquals(3, days.size());
+        long total = 0;
+        for (RunHistory.Bucket b : reopened.trend("ann", "easy", RunHistory.Granularity.MONTH, WED, WED + 40 * DAY)) {
+            total += b.getTotalScore();
+        }
+        assertEquals(180, total);
+        RunRecord next = reopened.record("ann", "easy", 1, 1, 0, 0, WED + 32 * DAY);
+        assertEquals(4, next.getSeq());
+        reopened.close();
+    }
+}
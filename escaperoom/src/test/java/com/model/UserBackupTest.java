@@ -0,0 +1,165 @@
+package com.model;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for UserBackup: base/delta chains, point-in-time restore and retention.
+ * All files are written to a temporary directory.
+ */
+public class UserBackupTest {
+
+    private Path dir;
+    private Path users;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("user_backup_");
+        users = dir.resolve("users.json");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (dir == null) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try { Files.deleteIfExists(p); } catch (IOException ignored) { }
+            });
+        }
+    }
+
+    /** Reads a restored users file into username -> score. */
+    private static Map<String, Long> scores(Path file) throws Exception {
+        JSONArray arr = (JSONArray) new JSONParser().parse(Files.readString(file));
+        Map<String, Long> out = new HashMap<>();
+        for (Object o : arr) {
+            JSONObject jo = (JSONObject) o;
+            out.put((String) jo.get("username"), (Long) jo.get("score"));
+        }
+        return out;
+    }
+
+    @Test
+    public void testDeltasAreSmallAndRestoreReplaysChain() throws Exception {
+        UserBackup b = new UserBackup(dir.resolve("backups"), 10, 3);
+
+        UserBackup.generateUsers(users, 500, 0, 50);
+        Map<String, Long> v1 = scores(users);
+        UserBackup.Entry base = b.backup(users, 1000);
+        assertTrue(base.isBase());
+
+        UserBackup.generateUsers(users, 500, 7, 50);
+        Map<String, Long> v2 = scores(users);
+        UserBackup.Entry delta = b.backup(users, 2000);
+        assertFalse(delta.isBase());
+        assertTrue("delta should be much smaller than the base",
+                Files.size(delta.getFile()) * 5 < Files.size(base.getFile()));
+
+        // drop the last user so the next delta carries a tombstone
+        UserBackup.generateUsers(users, 499, 7, 50);
+        b.backup(users, 3000);
+
+        Path out = dir.resolve("restored.json");
+        assertNotNull(b.restore(1500, out));
+        assertEquals(v1, scores(out));
+
+        assertNotNull(b.restore(2000, out));
+        assertEquals(v2, scores(out));
+
+        assertEquals(3000, b.restore(Long.MAX_VALUE, out).getTimeMillis());
+        Map<String, Long> v3 = scores(out);
+        assertEquals(499, v3.size());
+        assertFalse(v3.containsKey("player499"));
+
+        assertNull(b.restore(500, out));
+    }
+
+    @Test
+    public void testRetentionKeepsNewestChains() throws Exception {
+        UserBackup b = new UserBackup(dir.resolve("backups"), 1, 2);
+        for (int round = 0; round < 6; round++) {
+            UserBackup.generateUsers(users, 20, round, 5);
+            b.backup(users, 1000L * (round + 1));
+        }
+        // chains: [1,2] [3,4] [5,6] -> only the last two are kept
+        List<UserBackup.Entry> entries = b.list();
+        assertEquals(4, entries.size());
+        assertTrue(entries.get(0).isBase());
+        assertEquals(3, entries.get(0).getSeq());
+
+        Path out = dir.resolve("restored.json");
+        assertNull("backups from deleted chains can no longer be restored", b.restore(2000, out));
+        assertNotNull(b.restore(4000, out));
+        assertEquals(20, scores(out).size());
+    }
+
+    @Test
+    public void testMultiLineUsersFileRoundTrips() throws Exception {
+        UserBackup b = new UserBackup(dir.resolve("backups"), 10, 3);
+        Files.writeString(users, "[\n  {\n    \"username\": \"ann\",\n    \"score\": 10\n  },\n"
+                + "  {\n    \"username\": \"bob\",\n    \"score\": 20\n  }\n]\n");
+        b.backup(users, 1000);
+
+        Path out = dir.resolve("restored.json");
+        assertNotNull(b.restore(Long.MAX_VALUE, out));
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("ann", 10L);
+        expected.put("bob", 20L);
+        assertEquals(expected, scores(out));
+
+        // same records, different layout: nothing changed, so the delta is empty
+        Files.writeString(users, "[{\"username\":\"ann\",\"score\":10},{\"username\":\"bob\",\"score\":20}]");
+        UserBackup.Entry delta = b.backup(users, 2000);
+        assertFalse(delta.isBase());
+        b.restore(2000, out);
+        assertEquals(expected, scores(out));
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                new InflaterInputStream(Files.newInputStream(delta.getFile()))))) {
+            assertNull("unchanged records should not be in the delta", r.readLine());
+        }
+    }
+
+    @Test
+    public void testOnlyTheLatestRecordPerUserIsBackedUp() throws Exception {
+        UserBackup b = new UserBackup(dir.resolve("backups"), 10, 3);
+        // appended records: the later one for a user (any case) supersedes the earlier
+        Files.writeString(users, "{\"username\":\"alice\",\"score\":1}\n"
+                + "{\"username\":\"bob\",\"score\":5}\n"
+                + "{\"username\":\"alice\",\"score\":2}\n");
+        b.backup(users, 1000);
+        b.backup(users, 2000);
+        b.backup(users, 3000);
+
+        Path out = dir.resolve("restored.json");
+        assertNotNull(b.restore(Long.MAX_VALUE, out));
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("alice", 2L);
+        expected.put("bob", 5L);
+        assertEquals(expected, scores(out));
+
+        Files.writeString(users, Files.readString(users) + "{\"username\":\"Alice\",\"score\":3}\n");
+        b.backup(users, 4000);
+        b.restore(Long.MAX_VALUE, out);
+        expected.remove("alice");
+        expected.put("Alice", 3L);
+        assertEquals(expected, scores(out));
+    }
+}
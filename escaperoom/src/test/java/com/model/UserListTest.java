@@ -121,6 +121,54 @@ public class UserListTest {
         assertNotNull("after loadUsers (or re-injection) getAllUsers should be non-null", instance.getAllUsers());
     }
 
+    @Test
+    public void testScoreQueriesFollowProgressChanges() {
+        User a = new User("a", "pw", UUID.randomUUID());
+        User b = new User("b", "pw", UUID.randomUUID());
+        User c = new User("c", "pw", UUID.randomUUID());
+        a.getProgress().increaseScore(10);
+        b.getProgress().increaseScore(50);
+        c.getProgress().increaseScore(30);
+        backingList.add(a);
+        backingList.add(b);
+        backingList.add(c);
+
+        assertEquals(java.util.List.of(b, c), instance.getUsersWithScoreAtLeast(20));
+        assertEquals(java.util.List.of(c, a), instance.getUsersWithScoreBetween(0, 30));
+
+        // moves in the index without rescanning the list
+        a.getProgress().increaseScore(100);
+        assertEquals(java.util.List.of(a, b), instance.getTopUsers(2));
+        assertEquals(java.util.List.of(c), instance.getUsersWithScoreBetween(0, 49));
+
+        // replacing a user's Progress keeps them indexed under the new values
+        b.setProgress(new Progress());
+        assertEquals(java.util.List.of(a, c, b), instance.getTopUsers(10));
+        b.getProgress().increaseScore(200);
+        assertEquals(b, instance.getTopUsers(1).get(0));
+    }
+
+    @Test
+    public void testDifficultyBucketsFollowProgressChanges() {
+        User a = new User("a", "pw", UUID.randomUUID());
+        User b = new User("b", "pw", UUID.randomUUID());
+        a.getProgress().setLastDifficulty(Difficulty.HARD);
+        backingList.add(a);
+        backingList.add(b);
+
+        assertEquals(java.util.List.of(a), instance.getUsersByDifficulty(Difficulty.HARD));
+        assertEquals(java.util.List.of(b), instance.getUsersByDifficulty(Difficulty.ALL));
+
+        b.getProgress().setLastDifficulty(Difficulty.HARD);
+        a.getProgress().setLastDifficulty(Difficulty.EASY);
+        assertEquals(java.util.List.of(b), instance.getUsersByDifficulty(Difficulty.HARD));
+        assertEquals(java.util.List.of(a), instance.getUsersByDifficulty(Difficulty.EASY));
+
+        // accounts created through the list are indexed too
+        instance.createAccount("newbie", "pw");
+        assertEquals(2, instance.getUsersByDifficulty(Difficulty.ALL).size() + instance.getUsersByDifficulty(Difficulty.HARD).size());
+    }
+
     /*
      * ---------- Helper reflection utilities ----------
      */
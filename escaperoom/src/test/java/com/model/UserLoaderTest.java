@@ -17,9 +17,8 @@ import static org.junit.Assert.*;
  * Tests for com.model.UserLoader
  *
  * Notes:
- * - User.fromString(...) in your earlier User implementation throws UnsupportedOperationException.
- *   To avoid that breaking tests we ensure loadUsers() is only exercised when the users.json
- *   file does not exist (so loadUsers returns an empty list).
+ * - users.json is line-delimited JSON: one user record per line, later records for the
+ *   same username supersede earlier ones.
  *
  * - The tests backup any existing users.json in the current working directory and restore it
  *   after tests so they won't clobber real data.
@@ -90,27 +89,73 @@ public class UserLoaderTest {
         loader.clearUsers();
 
         User u = new User("alice", "pw", UUID.randomUUID());
-        loader.addUser(u); // this writes the whole users list to FILE_PATH
+        loader.addUser(u); // this appends a single record to FILE_PATH
 
         // In-memory must contain the user
         assertTrue("in-memory list should contain added user", loader.getUsers().contains(u));
 
-        // file should exist and contain at least one line equal to u.toString()
+        // file should exist and contain a record that parses back to the user
         Path file = Path.of(FILENAME);
         assertTrue("users.json should exist after addUser", Files.exists(file));
 
-        // read file and ensure the toString representation is present on a line
         boolean found = false;
         try (BufferedReader r = Files.newBufferedReader(file)) {
             String line;
             while ((line = r.readLine()) != null) {
-                if (line.equals(u.toString())) {
+                User parsed = User.fromString(line);
+                if (parsed != null && parsed.getName().equals("alice") && parsed.getID().equals(u.getID())) {
                     found = true;
                     break;
                 }
             }
         }
-        assertTrue("file should contain the user's toString() line", found);
+        assertTrue("file should contain a record for the added user", found);
+    }
+
+    @Test
+    public void testReloadReadsBackItsOwnRecords() throws Exception {
+        resetSingleton();
+        UserLoader loader = UserLoader.getInstance();
+        loader.clearUsers();
+
+        User u = new User("erin", "pw", UUID.randomUUID());
+        u.getProgress().increaseScore(40);
+        u.getProgress().setLastDifficulty(Difficulty.HARD);
+        loader.addUser(u);
+
+        resetSingleton();
+        UserLoader reloaded = UserLoader.getInstance();
+        assertEquals(1, reloaded.getUsers().size());
+        User back = reloaded.getUsers().get(0);
+        assertEquals("erin", back.getName());
+        assertEquals(u.getID(), back.getID());
+        assertEquals(40, back.getProgress().getScore());
+        assertEquals(Difficulty.HARD, back.getProgress().getLastDifficultyAsEnum());
+    }
+
+    @Test
+    public void testUpdateUserSupersedesAndCompactDropsOldRecords() throws Exception {
+        resetSingleton();
+        UserLoader loader = UserLoader.getInstance();
+        loader.clearUsers();
+
+        User u = new User("frank", "pw", UUID.randomUUID());
+        loader.addUser(u);
+        for (int i = 0; i < 3; i++) {
+            u.getProgress().increaseScore(10);
+            loader.updateUser(u);
+        }
+        assertEquals("each update appends one line", 4, Files.readAllLines(Path.of(FILENAME)).size());
+
+        // the last record wins when reloading
+        resetSingleton();
+        UserLoader reloaded = UserLoader.getInstance();
+        assertEquals(1, reloaded.getUsers().size());
+        assertEquals(30, reloaded.getUsers().get(0).getProgress().getScore());
+
+        reloaded.compact();
+        assertEquals("compaction keeps only the latest record", 1, Files.readAllLines(Path.of(FILENAME)).size());
+        assertEquals(30, User.fromString(Files.readAllLines(Path.of(FILENAME)).get(0)).getProgress().getScore());
     }
 
     @Test
@@ -149,7 +194,7 @@ public class UserLoaderTest {
         resetSingleton();
         UserLoader loader = UserLoader.getInstance();
 
-        // add a user via addUser (which will overwrite file)
+        // add a user via addUser (which appends to the file)
         loader.clearUsers();
         User u = new User("dave", "pw", UUID.randomUUID());
         loader.addUser(u);
@@ -159,7 +204,7 @@ public class UserLoaderTest {
         loader.clearUsers();
         assertEquals("after clearUsers in-memory list must be empty", 0, loader.getUsers().size());
 
-        // file should exist (saveUsers overwrote) and be empty (0 lines)
+        // file should exist (clearUsers truncated it) and be empty (0 lines)
         Path file = Path.of(FILENAME);
         assertTrue("users.json should exist after clearUsers", Files.exists(file));
         try (BufferedReader r = Files.newBufferedReader(file)) {
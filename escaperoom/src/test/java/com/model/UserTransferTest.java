@@ -0,0 +1,130 @@
+package com.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for UserTransfer and the JsonRecordReader it streams with.
+ * All files are written to a temporary directory.
+ */
+public class UserTransferTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("user_transfer_");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (dir == null) return;
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private Path writeUsersArray(int count) throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            User u = new User("user" + i, "pw,\"" + i + "\"", UUID.randomUUID());
+            u.getProgress().increaseScore(i * 10);
+            u.getProgress().setLastDifficulty(i % 2 == 0 ? Difficulty.HARD : Difficulty.EASY);
+            u.getProgress().addCompletedPuzzle("Question, with comma " + i);
+            u.getProgress().incrementHintsUsedFor(i);
+            u.getProgress().setLastActive(1000L + i);
+            if (i > 0) sb.append(',');
+            sb.append(DataLoader.userToJSON(u).toJSONString());
+        }
+        sb.append(']');
+        Path p = dir.resolve("users.json");
+        Files.writeString(p, sb.toString());
+        return p;
+    }
+
+    @Test
+    public void testRecordReaderHandlesArraysAndLines() throws Exception {
+        String text = "[ {\"a\":\"}{[\"}, {\"b\":{\"c\":[1,2]}} ]\n{\"d\":\"\\\"\"}\n";
+        List<String> recs = new ArrayList<>();
+        try (JsonRecordReader r = new JsonRecordReader(new StringReader(text))) {
+            String rec;
+            while ((rec = r.next()) != null) recs.add(rec);
+        }
+        assertEquals(3, recs.size());
+        assertEquals("{\"a\":\"}{[\"}", recs.get(0));
+        assertEquals("{\"b\":{\"c\":[1,2]}}", recs.get(1));
+        assertEquals("{\"d\":\"\\\"\"}", recs.get(2));
+    }
+
+    @Test
+    public void testJsonToCsvToJsonRoundTripKeepsUsers() throws Exception {
+        Path in = writeUsersArray(2500); // spans several batches
+        Path csv = dir.resolve("users.csv");
+        Path back = dir.resolve("back.json");
+
+        UserTransfer.Stats s1 = UserTransfer.transfer(in, UserTransfer.Format.JSON, csv, UserTransfer.Format.CSV, null, 4);
+        assertEquals(2500, s1.getRead());
+        assertEquals(2500, s1.getWritten());
+
+        UserTransfer.Stats s2 = UserTransfer.transfer(csv, UserTransfer.Format.CSV, back, UserTransfer.Format.JSON, null, 3);
+        assertEquals(2500, s2.getWritten());
+        assertEquals(0, s2.getSkipped());
+
+        List<String> recs = new ArrayList<>();
+        try (JsonRecordReader r = new JsonRecordReader(Files.newBufferedReader(back))) {
+            String rec;
+            while ((rec = r.next()) != null) recs.add(rec);
+        }
+        assertEquals(2500, recs.size());
+        // order is preserved across the worker pool
+        User u = User.fromString(recs.get(1234));
+        assertEquals("user1234", u.getName());
+        assertEquals("pw,\"1234\"", u.getPassword());
+        assertEquals(12340, u.getProgress().getScore());
+        assertEquals(1, u.getProgress().getHintsUsedFor(1234));
+        assertTrue(u.getProgress().hasCompletedPuzzleQuestion("Question, with comma 1234"));
+        assertEquals(2234L, u.getProgress().getLastActive());
+    }
+
+    @Test
+    public void testFiltersApplyToNdjsonExport() throws Exception {
+        Path in = writeUsersArray(100);
+        Path out = dir.resolve("hard.ndjson");
+        UserTransfer.Filter f = new UserTransfer.Filter()
+                .difficulty(Difficulty.HARD)
+                .minScore(200)
+                .maxScore(600)
+                .activeSince(1030);
+
+        UserTransfer.Stats s = UserTransfer.transfer(in, UserTransfer.Format.JSON, out, UserTransfer.Format.NDJSON, f, 2);
+        assertEquals(100, s.getRead());
+
+        List<String> lines = Files.readAllLines(out);
+        // even i with 20 <= i <= 60 and i >= 30 -> 30,32,...,60
+        assertEquals(16, lines.size());
+        assertEquals(s.getWritten(), lines.size());
+        for (String line : lines) {
+            User u = User.fromString(line);
+            assertEquals(Difficulty.HARD, u.getProgress().getLastDifficultyAsEnum());
+            assertTrue(u.getProgress().getScore() >= 300 && u.getProgress().getScore() <= 600);
+        }
+    }
+
+    @Test
+    public void testFormatFromPath() {
+        assertEquals(UserTransfer.Format.CSV, UserTransfer.Format.fromPath("a/b.CSV"));
+        assertEquals(UserTransfer.Format.NDJSON, UserTransfer.Format.fromPath("x.jsonl"));
+        assertEquals(UserTransfer.Format.JSON, UserTransfer.Format.fromPath("JSON/users.json"));
+    }
+}